@@ -1,7 +1,8 @@
 package com.jockie.bot.core.argument.impl;
 
 import java.lang.reflect.Array;
-import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import javax.annotation.Nonnull;
 
@@ -12,8 +13,10 @@ import com.jockie.bot.core.command.parser.ParseContext;
 import com.jockie.bot.core.command.parser.impl.CommandParserImpl;
 import com.jockie.bot.core.parser.IParser;
 import com.jockie.bot.core.parser.ParsedResult;
+import com.jockie.bot.core.utility.QuoteCharacterTable;
 import com.jockie.bot.core.utility.StringUtility;
 import com.jockie.bot.core.utility.StringUtility.QuoteCharacter;
+import com.jockie.bot.core.utility.StringView;
 
 public class EndlessArgumentParser<Type> implements IParser<Type[], IArgument<Type[]>> {
 	
@@ -26,45 +29,94 @@ public class EndlessArgumentParser<Type> implements IParser<Type[], IArgument<Ty
 	
 	private EndlessArgumentParser() {}
 	
-	private Collection<QuoteCharacter> getQuoteCharacters(ParseContext context) {
+	private QuoteCharacterTable getQuoteCharacterTable(ParseContext context) {
 		ICommandParser commandParser = context.getCommandParser();
 		if(commandParser instanceof CommandParserImpl) {
-			return ((CommandParserImpl) commandParser).getQuoteCharacters();
+			return ((CommandParserImpl) commandParser).getQuoteCharacterTable();
 		}
 		
 		/* TODO: Unsure of what to do if it's not a CommandParserImpl */
-		return StringUtility.DEFAULT_QUOTE_CHARACTERS;
+		return QuoteCharacterTable.DEFAULT;
 	}
 	
-	@SuppressWarnings("unchecked")
+	@Nonnull
+	public ParsedResult<Type[]> parse(@Nonnull ParseContext context, @Nonnull IArgument<Type[]> argument, @Nonnull String value) {
+		return this.parse(context, argument, value, 0, value.length());
+	}
+	
+	@Override
+	@Nonnull
+	public ParsedResult<Type[]> parse(@Nonnull ParseContext context, @Nonnull IArgument<Type[]> argument, @Nonnull CharSequence value) {
+		if(value instanceof StringView) {
+			StringView view = (StringView) value;
+			
+			return this.parse(context, argument, view.getString(), view.getStart(), view.getEnd());
+		}
+		
+		return this.parse(context, argument, value.toString());
+	}
+	
+	private static boolean isBlank(String value, int start, int end) {
+		for(int i = start; i < end; i++) {
+			/* The same characters as String#trim */
+			if(value.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	@Nonnull
 	/* 
 	 * TODO: Probably need to look over and re-make this to be more in line with the CommandParserImpl.
 	 * Currently changing either this or CommandParserImpl may require changes to the other to keep the
 	 * behaviour consistent, a setup like this can easily introduce bugs.
+	 * 
+	 * The content is parsed as a range (start to end) of the value rather than copying the remaining content
+	 * for every argument, the content of each argument is given to the parser as a view.
 	 */
-	public ParsedResult<Type[]> parse(@Nonnull ParseContext context, @Nonnull IArgument<Type[]> argument, @Nonnull String value) {
+	private ParsedResult<Type[]> parse(ParseContext context, IArgument<Type[]> argument, String value, int start, int end) {
 		if(!(argument instanceof EndlessArgumentImpl)) {
 			throw new UnsupportedOperationException();
 		}
 		
 		EndlessArgumentImpl<Type> self = (EndlessArgumentImpl<Type>) argument;
 		
+		int maxArguments = self.getMaxArguments();
+		if(maxArguments <= 0) {
+			maxArguments = 1;
+			for(int i = start; i < end; i++) {
+				if(value.charAt(i) == ' ') {
+					maxArguments++;
+				}
+			}
+		}
+		
 		int argumentCount = 0;
-		int maxArguments = self.getMaxArguments() > 0 ? self.getMaxArguments() : (int) value.codePoints().filter((character) -> character == ' ').count() + 1;
+		
+		/* Only look up the quote characters once rather than for every element */
+		QuoteCharacterTable quoteCharacters = self.getArgument().acceptQuote() ? this.getQuoteCharacterTable(context) : null;
 		
 		Type[] parsedArguments = (Type[]) Array.newInstance(self.getComponentType(), maxArguments);
+		
+		/* Only created if any of the elements are pending */
+		CompletionStage<ParsedResult<Type>>[] pendingArguments = null;
+		
 		for(int i = 0; i < parsedArguments.length; i++) {
-			if(value.trim().isEmpty()) {
+			if(EndlessArgumentParser.isBlank(value, start, end)) {
 				break;
 			}
 			
-			if(i != 0 && !value.isEmpty()) {
-				if(value.charAt(0) == ' ') {
+			if(i != 0 && start < end) {
+				if(value.charAt(start) == ' ') {
 					if(context.getCommand().getArgumentTrimType() != ArgumentTrimType.NONE) {
-						value = StringUtility.stripLeading(value);
+						while(start < end && value.charAt(start) == ' ') {
+							start++;
+						}
 					}else{
-						value = value.substring(1);
+						start += 1;
 					}
 				}else{
 					/* 
@@ -77,44 +129,52 @@ public class EndlessArgumentParser<Type> implements IParser<Type[], IArgument<Ty
 				}
 			}
 			
-			String content = null;
 			ParsedResult<Type> parsedArgument;
 			if(self.getArgument().getParser().isHandleAll()) {
-				parsedArgument = self.getArgument().parse(context, content = value);
+				parsedArgument = self.getArgument().parse(context, new StringView(value, start, end));
 				
-				String contentLeft = parsedArgument.getContentLeft();
-				if(contentLeft != null) {
-					value = contentLeft;
+				CharSequence contentLeft = parsedArgument.getContentLeftView();
+				if(contentLeft == null) {
+					start = end;
+				}else if(contentLeft instanceof StringView && ((StringView) contentLeft).getString() == value && ((StringView) contentLeft).getEnd() == end) {
+					start = ((StringView) contentLeft).getStart();
 				}else{
-					value = "";
+					value = contentLeft.toString();
+					start = 0;
+					end = value.length();
 				}
 			}else{
-				if(!value.isEmpty() && self.getArgument().acceptQuote()) {
-					for(QuoteCharacter quote : this.getQuoteCharacters(context)) {
-						content = StringUtility.parseWrapped(value, quote.start, quote.end);
-						if(content == null) {
+				CharSequence content = null;
+				if(start < end && quoteCharacters != null) {
+					for(QuoteCharacter quote : quoteCharacters.get(value.charAt(start))) {
+						int wrapEnd = StringUtility.indexOfWrapEnd(value, start, quote.start, quote.end);
+						if(wrapEnd == -1 || wrapEnd >= end) {
 							continue;
 						}
 						
-						value = value.substring(content.length());
-						content = StringUtility.unwrap(content, quote.start, quote.end);
-						
+						String unwrapped = StringUtility.unwrap(value.substring(start, wrapEnd + 1), quote.start, quote.end);
 						if(context.getCommand().getArgumentTrimType() == ArgumentTrimType.STRICT) {
-							content = StringUtility.strip(content);
+							unwrapped = StringUtility.strip(unwrapped);
 						}
 						
+						content = unwrapped;
+						start = wrapEnd + 1;
+						
 						break;
 					}
 				}
 				
 				if(content == null) {
-					int index = value.indexOf(' ');
-					content = value.substring(0, index != -1 ? index : value.length());
+					int index = value.indexOf(' ', start);
+					if(index == -1 || index > end) {
+						index = end;
+					}
 					
-					value = value.substring(content.length());
+					content = new StringView(value, start, index);
+					start = index;
 				}
 				
-				if(content.isEmpty() && !self.getArgument().acceptEmpty()) {
+				if(content.length() == 0 && !self.getArgument().acceptEmpty()) {
 					/* Content may not be empty */
 					return ParsedResult.invalid();
 				}
@@ -122,7 +182,13 @@ public class EndlessArgumentParser<Type> implements IParser<Type[], IArgument<Ty
 				parsedArgument = self.getArgument().parse(context, content);
 			}
 			
-			if(parsedArgument.isValid()) {
+			if(parsedArgument.isPending()) {
+				if(pendingArguments == null) {
+					pendingArguments = new CompletionStage[maxArguments];
+				}
+				
+				pendingArguments[argumentCount++] = parsedArgument.getPending();
+			}else if(parsedArgument.isValid()) {
 				parsedArguments[argumentCount++] = (Type) parsedArgument.getObject();
 			}else{
 				/* "argument at index " + (i + 1) + " is not valid" */
@@ -130,7 +196,7 @@ public class EndlessArgumentParser<Type> implements IParser<Type[], IArgument<Ty
 			}
 		}
 		
-		if(!value.isEmpty()) {
+		if(start < end) {
 			/* Content overflow, when does this happen? */
 			return ParsedResult.invalid();
 		}
@@ -144,6 +210,29 @@ public class EndlessArgumentParser<Type> implements IParser<Type[], IArgument<Ty
 			objects[i2] = (Type) parsedArguments[i2];
 		}
 		
-		return ParsedResult.valid(objects);
+		if(pendingArguments == null) {
+			return ParsedResult.valid(objects);
+		}
+		
+		/* The pending elements are already being resolved concurrently, this only waits for all of them */
+		CompletionStage<Type[]> result = CompletableFuture.completedFuture(objects);
+		for(int i2 = 0; i2 < objects.length; i2++) {
+			if(pendingArguments[i2] == null) {
+				continue;
+			}
+			
+			int index = i2;
+			result = result.thenCombine(pendingArguments[i2], (array, parsed) -> {
+				if(array == null || !parsed.isValid() || parsed.isPending()) {
+					return null;
+				}
+				
+				array[index] = parsed.getObject();
+				
+				return array;
+			});
+		}
+		
+		return ParsedResult.pending(result.thenApply((array) -> array != null ? ParsedResult.valid(array) : ParsedResult.<Type[]>invalid()));
 	}
 }
\ No newline at end of file
@@ -8,11 +8,13 @@ import java.util.concurrent.TimeUnit;
 
 import com.jockie.bot.core.command.ICommand.ArgumentParsingType;
 import com.jockie.bot.core.command.ICommand.ArgumentTrimType;
+import com.jockie.bot.core.command.ICommand.AsyncThreadMode;
 import com.jockie.bot.core.command.ICommand.ContentOverflowPolicy;
 import com.jockie.bot.core.command.ICommand.DuplicateOptionPolicy;
 import com.jockie.bot.core.command.ICommand.OptionParsingFailurePolicy;
 import com.jockie.bot.core.command.ICommand.UnknownOptionPolicy;
 import com.jockie.bot.core.command.impl.CommandEvent;
+import com.jockie.bot.core.command.scheduler.Bulkhead;
 import com.jockie.bot.core.cooldown.ICooldown.Scope;
 
 import net.dv8tion.jda.api.Permission;
@@ -112,6 +114,44 @@ public @interface Command {
 	 */
 	public String orderingKey() default "";
 	
+	/**
+	 * @see ICommand#getAsyncThreadMode()
+	 */
+	public AsyncThreadMode threadMode() default AsyncThreadMode.DEFAULT;
+	
+	/**
+	 * The maximum amount of concurrent executions of this command, 0 to not limit them
+	 * 
+	 * @see ICommand#getBulkhead()
+	 */
+	public int concurrencyLimit() default 0;
+	
+	/**
+	 * The maximum amount of executions which can wait for a running execution to finish once
+	 * the {@link #concurrencyLimit()} has been reached, any further executions are rejected
+	 * 
+	 * @see ICommand#getBulkhead()
+	 */
+	public int concurrencyQueueSize() default 0;
+	
+	/**
+	 * The name of the {@link Bulkhead} to share the {@link #concurrencyLimit()} with, commands which use the same name
+	 * share the limit, which means that they all have to use the same limits, see {@link com.jockie.bot.core.command.impl.CommandListener#getBulkhead(ICommand)}
+	 * 
+	 * @see ICommand#getBulkhead()
+	 */
+	public String bulkhead() default "";
+	
+	/**
+	 * @see ICommand#getExecutionTimeout()
+	 */
+	public long timeout() default 0;
+	
+	/**
+	 * @return the time unit to use for the timeout
+	 */
+	public TimeUnit timeoutUnit() default TimeUnit.SECONDS;
+	
 	/**
 	 * @see ICommand#isNSFW()
 	 */
@@ -161,6 +201,26 @@ public @interface Command {
 		 */
 		public String orderingKey() default "";
 		
+		/**
+		 * @see ICommand#getAsyncThreadMode()
+		 */
+		public AsyncThreadMode threadMode() default AsyncThreadMode.DEFAULT;
+		
+		/**
+		 * @see Command#concurrencyLimit()
+		 */
+		public int concurrencyLimit() default 0;
+		
+		/**
+		 * @see Command#concurrencyQueueSize()
+		 */
+		public int concurrencyQueueSize() default 0;
+		
+		/**
+		 * @see Command#bulkhead()
+		 */
+		public String bulkhead() default "";
+		
 	}
 	
 	@Retention(RetentionPolicy.RUNTIME)
@@ -264,4 +324,20 @@ public @interface Command {
 		public OptionParsingFailurePolicy optionParsingFailure() default OptionParsingFailurePolicy.IGNORE;
 		
 	}
+	
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	public static @interface Timeout {
+		
+		/**
+		 * @see ICommand#getExecutionTimeout()
+		 */
+		public long value() default 0;
+		
+		/**
+		 * @return the time unit to use for the timeout
+		 */
+		public TimeUnit unit() default TimeUnit.SECONDS;
+		
+	}
 }
\ No newline at end of file
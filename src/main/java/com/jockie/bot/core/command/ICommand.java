@@ -15,8 +15,10 @@ import com.jockie.bot.core.command.exception.parser.OptionParseException;
 import com.jockie.bot.core.command.impl.CommandEvent;
 import com.jockie.bot.core.command.impl.CommandListener;
 import com.jockie.bot.core.command.parser.ICommandParser;
+import com.jockie.bot.core.command.scheduler.Bulkhead;
 import com.jockie.bot.core.cooldown.ICooldown;
 import com.jockie.bot.core.option.IOption;
+import com.jockie.bot.core.option.OptionTable;
 import com.jockie.bot.core.property.IPropertyContainer;
 
 import net.dv8tion.jda.api.Permission;
@@ -109,6 +111,22 @@ public interface ICommand extends IPropertyContainer {
 		STRICT;
 	}
 	
+	/**
+	 * This is used to determine what kind of thread an async command ({@link ICommand#isExecuteAsync()}) should be executed on
+	 */
+	public static enum AsyncThreadMode {
+		/** Uses the thread mode of the {@link CommandListener}, see {@link CommandListener#isExecuteOnVirtualThreads()} */
+		DEFAULT,
+		/** Executes the command on the {@link CommandListener#getCommandExecutor() command executor} */
+		PLATFORM,
+		/**
+		 * Executes the command on a virtual thread, this is suitable for commands which block, for instance by using
+		 * {@link net.dv8tion.jda.api.requests.RestAction#complete() RestAction#complete()}, as a blocked virtual thread does not hold on to a platform thread.
+		 * If the runtime does not support virtual threads the command is executed on the {@link CommandListener#getCommandExecutor() command executor}
+		 */
+		VIRTUAL;
+	}
+	
 	/**
 	 * @return the command which the command listener should look for
 	 */
@@ -160,6 +178,17 @@ public interface ICommand extends IPropertyContainer {
 	@Nonnull
 	public List<IOption<?>> getOptions();
 	
+	/**
+	 * Implementations should compile this once and only rebuild it when the options change,
+	 * the default implementation compiles the options every time it is called.
+	 * 
+	 * @return the options for this command compiled for lookup by name and alias ({@link #getOptions()})
+	 */
+	@Nonnull
+	public default OptionTable getOptionTable() {
+		return OptionTable.compile(this.getOptions());
+	}
+	
 	/**
 	 * @return a {@link UnknownOptionPolicy} which is used to determine how the {@link CommandListener} should handle a command when an unknown option is provided
 	 */
@@ -256,6 +285,33 @@ public interface ICommand extends IPropertyContainer {
 	@Nullable
 	public Object getAsyncOrderingKey(@Nonnull CommandEvent event);
 	
+	/**
+	 * @return what kind of thread this command should be executed on if it is async ({@link #isExecuteAsync()})
+	 */
+	@Nonnull
+	public default AsyncThreadMode getAsyncThreadMode() {
+		return AsyncThreadMode.DEFAULT;
+	}
+	
+	/**
+	 * @return the bulkhead which limits the amount of concurrent executions of this command,
+	 * or null if the amount of concurrent executions should not be limited. A bulkhead with a {@link Bulkhead#getName() name}
+	 * is shared with the other commands of the command listener which use the same name
+	 */
+	@Nullable
+	public default Bulkhead getBulkhead() {
+		return null;
+	}
+	
+	/**
+	 * @return the longest time in milliseconds this command may execute for before it is cancelled
+	 * ({@link CommandEvent#getCancellationToken()}), 0 to use the {@link CommandListener#getExecutionTimeout() default timeout}
+	 * of the command listener or a negative value to never time out
+	 */
+	public default long getExecutionTimeout() {
+		return 0L;
+	}
+	
 	/**
 	 * @return the parent of this command, a parent is used to get the full trigger for this command, 
 	 * for instance if the parent's command trigger was "mute" and this command's trigger was "all" the whole trigger would be "mute all"
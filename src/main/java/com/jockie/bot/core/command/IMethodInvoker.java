@@ -0,0 +1,33 @@
+package com.jockie.bot.core.command;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jockie.bot.core.command.factory.IMethodInvokerFactory;
+
+/**
+ * A compiled way of invoking a command method, created once per method by an {@link IMethodInvokerFactory}
+ * so that the method does not have to be invoked reflectively every time the command is executed.
+ * <br><br>
+ * Implementations should fail the same way as {@link Method#invoke(Object, Object...)}, an {@link IllegalArgumentException}
+ * if the arguments do not match the parameters of the method and an {@link InvocationTargetException} wrapping anything
+ * thrown by the method itself.
+ */
+@FunctionalInterface
+public interface IMethodInvoker {
+	
+	/**
+	 * @param invoker the object to invoke the method on, null if the method is static
+	 * @param arguments the arguments to invoke the method with, one for each parameter of the method
+	 * 
+	 * @return the value returned by the method, null if the method is void
+	 * 
+	 * @throws Throwable if the invocation fails, see {@link IMethodInvoker}
+	 */
+	@Nullable
+	public Object invoke(@Nullable Object invoker, @Nonnull Object[] arguments) throws Throwable;
+	
+}
\ No newline at end of file
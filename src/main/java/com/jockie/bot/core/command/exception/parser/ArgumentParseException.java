@@ -15,7 +15,10 @@ public class ArgumentParseException extends ParseException {
 	private final String value;
 	
 	public ArgumentParseException(ParseContext context, IArgument<?> argument, String value) {
-		this(context, argument, value, "Argument: " + argument.getName() + " could not parse the provided value: " + value);
+		super(context, () -> "Argument: " + argument.getName() + " could not parse the provided value: " + value);
+		
+		this.argument = argument;
+		this.value = value;
 	}
 	
 	public ArgumentParseException(ParseContext context, IArgument<?> argument, String value, String message) {
@@ -16,7 +16,7 @@ public class DuplicateOptionException extends ParseException {
 	private final String optionValue;
 	
 	public DuplicateOptionException(ParseContext context, String optionKey, String optionValue) {
-		super(context, "Option: " + optionKey + " has already been defined");
+		super(context, () -> "Option: " + optionKey + " has already been defined");
 		
 		this.optionKey = optionKey;
 		this.optionValue = optionValue;
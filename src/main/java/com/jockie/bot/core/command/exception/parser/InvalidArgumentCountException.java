@@ -16,7 +16,7 @@ public class InvalidArgumentCountException extends ParseException {
 	private final Object[] parsedArguments;
 	
 	public InvalidArgumentCountException(ParseContext context, IArgument<?>[] arguments, Object[] parsedArguments) {
-		super(context, "Invalid argument count, requires: " + arguments.length + " but got: " + parsedArguments.length);
+		super(context, () -> "Invalid argument count, requires: " + arguments.length + " but got: " + parsedArguments.length);
 		
 		this.arguments = arguments;
 		this.parsedArguments = parsedArguments;
@@ -15,7 +15,7 @@ public class MissingRequiredArgumentException extends ParseException {
 	private final IArgument<?> argument;
 	
 	public MissingRequiredArgumentException(ParseContext context, IArgument<?> argument) {
-		super(context, "Missing required argument: " + argument.getName());
+		super(context, () -> "Missing required argument: " + argument.getName());
 		
 		this.argument = argument;
 	}
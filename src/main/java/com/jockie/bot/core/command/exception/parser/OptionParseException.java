@@ -15,7 +15,10 @@ public class OptionParseException extends ParseException {
 	private String value;
 	
 	public OptionParseException(ParseContext context, IOption<?> option, String value) {
-		this(context, option, value, "Option: " + option.getName() + " could not parse the provided value: " + value);
+		super(context, () -> "Option: " + option.getName() + " could not parse the provided value: " + value);
+		
+		this.option = option;
+		this.value = value;
 	}
 	
 	public OptionParseException(ParseContext context, IOption<?> option, String value, String message) {
@@ -1,38 +1,79 @@
 package com.jockie.bot.core.command.exception.parser;
 
+import java.util.function.Supplier;
+
 import com.jockie.bot.core.command.parser.ParseContext;
 
 /**
  * This Exception indicates that something went wrong in the parsing of a command
+ * <br><br>
+ * Parse exceptions are used to tell the command listener why a command did not match and most of them are never looked at,
+ * because of this they do not fill in their stack trace unless {@link #setStackTraceEnabled(boolean)} is enabled
+ * and their message may be built lazily ({@link #ParseException(ParseContext, Supplier)}).
  */
 public class ParseException extends Exception {
 	
 	private static final long serialVersionUID = 1L;
 	
+	private static volatile boolean stackTraceEnabled = false;
+	
+	/**
+	 * @param enabled whether or not parse exceptions created after this should fill in their stack trace,
+	 * this can be useful when debugging a parser but is expensive as a message can fail to parse for many commands
+	 */
+	public static void setStackTraceEnabled(boolean enabled) {
+		ParseException.stackTraceEnabled = enabled;
+	}
+	
+	/**
+	 * @return whether or not parse exceptions fill in their stack trace
+	 */
+	public static boolean isStackTraceEnabled() {
+		return ParseException.stackTraceEnabled;
+	}
+	
 	private ParseContext context;
 	
+	private transient Supplier<String> messageSupplier;
+	private String message;
+	
 	public ParseException(ParseContext context) {
-		super();
-		
-		this.context = context;
+		this(context, (String) null, null);
 	}
 	
 	public ParseException(ParseContext context, String message) {
-		super(message);
+		this(context, message, null);
+	}
+	
+	/**
+	 * @param context the context of the parsing
+	 * @param messageSupplier the supplier of the message, this is only called if the message is requested
+	 */
+	public ParseException(ParseContext context, Supplier<String> messageSupplier) {
+		this(context, (String) null, null);
 		
-		this.context = context;
+		this.messageSupplier = messageSupplier;
 	}
 	
 	public ParseException(ParseContext context, Throwable cause) {
-		super(cause);
-		
-		this.context = context;
+		this(context, cause != null ? cause.toString() : null, cause);
 	}
 	
 	public ParseException(ParseContext context, String message, Throwable cause) {
-		super(message, cause);
+		super(null, cause, true, ParseException.stackTraceEnabled);
 		
 		this.context = context;
+		this.message = message;
+	}
+	
+	@Override
+	public String getMessage() {
+		if(this.message == null && this.messageSupplier != null) {
+			this.message = this.messageSupplier.get();
+			this.messageSupplier = null;
+		}
+		
+		return this.message;
 	}
 	
 	public ParseContext getContext() {
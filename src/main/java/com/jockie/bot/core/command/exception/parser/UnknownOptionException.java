@@ -12,7 +12,7 @@ public class UnknownOptionException extends ParseException {
 	private final String optionKey;
 	
 	public UnknownOptionException(ParseContext context, String optionKey) {
-		super(context, "Option: " + optionKey + " is not a valid option");
+		super(context, () -> "Option: " + optionKey + " is not a valid option");
 		
 		this.optionKey = optionKey;
 	}
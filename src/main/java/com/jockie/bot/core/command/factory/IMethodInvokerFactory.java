@@ -0,0 +1,25 @@
+package com.jockie.bot.core.command.factory;
+
+import java.lang.reflect.Method;
+
+import javax.annotation.Nonnull;
+
+import com.jockie.bot.core.command.IMethodInvoker;
+
+/**
+ * Factory used for compiling command methods in to {@link IMethodInvoker IMethodInvokers}
+ */
+public interface IMethodInvokerFactory {
+	
+	/**
+	 * Compile the provided method, this is done once per command method
+	 * rather than every time the command is executed
+	 * 
+	 * @param method the method to compile
+	 * 
+	 * @return the invoker for the provided method
+	 */
+	@Nonnull
+	public IMethodInvoker create(@Nonnull Method method);
+	
+}
\ No newline at end of file
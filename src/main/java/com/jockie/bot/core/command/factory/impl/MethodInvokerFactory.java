@@ -0,0 +1,43 @@
+package com.jockie.bot.core.command.factory.impl;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jockie.bot.core.command.factory.IMethodInvokerFactory;
+
+/*
+ * TODO: Figure out a way to move this to the CommandListener.
+ * 
+ * See the comment in ContextManagerFactory
+ */
+public class MethodInvokerFactory {
+	
+	private MethodInvokerFactory() {};
+	
+	/**
+	 * The default method invoker factory, {@link MethodInvokerFactoryImpl}
+	 */
+	public static final MethodInvokerFactoryImpl DEFAULT = new MethodInvokerFactoryImpl();
+	
+	private static IMethodInvokerFactory defaultMethodInvokerFactory = DEFAULT;
+	
+	/**
+	 * Set the default method invoker factory
+	 * 
+	 * @param factory the factory to set the default to, if null {@link #DEFAULT}
+	 */
+	public static void setDefault(@Nullable IMethodInvokerFactory factory) {
+		MethodInvokerFactory.defaultMethodInvokerFactory = Objects.requireNonNullElse(factory, DEFAULT);
+	}
+	
+	/**
+	 * @return the default method invoker factory, if this has not been set
+	 * it will be {@link #DEFAULT}
+	 */
+	@Nonnull
+	public static IMethodInvokerFactory getDefault() {
+		return MethodInvokerFactory.defaultMethodInvokerFactory;
+	}
+}
\ No newline at end of file
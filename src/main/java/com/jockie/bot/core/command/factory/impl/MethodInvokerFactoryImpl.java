@@ -0,0 +1,135 @@
+package com.jockie.bot.core.command.factory.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.jockie.bot.core.command.IMethodInvoker;
+import com.jockie.bot.core.command.factory.IMethodInvokerFactory;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * The default {@link IMethodInvokerFactory}, this compiles the method in to a {@link MethodHandle}
+ * with a fixed (Object, Object[]) Object shape which the JIT can inline through to the command method,
+ * if the method can not be made accessible it falls back to invoking it reflectively.
+ */
+public class MethodInvokerFactoryImpl implements IMethodInvokerFactory {
+	
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+	
+	/* The primitive types each wrapper type can be converted to, the same conversions as Method#invoke allows */
+	private static final Map<Class<?>, Class<?>[]> PRIMITIVE_CONVERSIONS = Map.of(
+		Boolean.class, new Class<?>[] { boolean.class },
+		Character.class, new Class<?>[] { char.class, int.class, long.class, float.class, double.class },
+		Byte.class, new Class<?>[] { byte.class, short.class, int.class, long.class, float.class, double.class },
+		Short.class, new Class<?>[] { short.class, int.class, long.class, float.class, double.class },
+		Integer.class, new Class<?>[] { int.class, long.class, float.class, double.class },
+		Long.class, new Class<?>[] { long.class, float.class, double.class },
+		Float.class, new Class<?>[] { float.class, double.class },
+		Double.class, new Class<?>[] { double.class }
+	);
+	
+	private static boolean isAssignable(Class<?> type, Object value) {
+		if(!type.isPrimitive()) {
+			return value == null || type.isInstance(value);
+		}
+		
+		if(value == null) {
+			return false;
+		}
+		
+		Class<?>[] conversions = PRIMITIVE_CONVERSIONS.get(value.getClass());
+		if(conversions == null) {
+			return false;
+		}
+		
+		for(Class<?> conversion : conversions) {
+			if(conversion == type) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static class MethodHandleInvoker implements IMethodInvoker {
+		
+		private final MethodHandle handle;
+		
+		private final Class<?> declaringClass;
+		private final Class<?>[] parameterTypes;
+		
+		private final boolean isStatic;
+		
+		public MethodHandleInvoker(Method method, MethodHandle handle) {
+			this.declaringClass = method.getDeclaringClass();
+			this.parameterTypes = method.getParameterTypes();
+			this.isStatic = Modifier.isStatic(method.getModifiers());
+			
+			if(this.isStatic) {
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			
+			this.handle = handle.asFixedArity()
+				.asSpreader(Object[].class, this.parameterTypes.length)
+				.asType(INVOKER_TYPE);
+		}
+		
+		@Override
+		public Object invoke(Object invoker, Object[] arguments) throws Throwable {
+			/* Validate the same way as Method#invoke so that a mismatch is not mistaken for an exception thrown by the command */
+			if(!this.isStatic) {
+				if(invoker == null) {
+					throw new NullPointerException("invoker");
+				}
+				
+				if(!this.declaringClass.isInstance(invoker)) {
+					throw new IllegalArgumentException("object is not an instance of declaring class");
+				}
+			}
+			
+			if(arguments.length != this.parameterTypes.length) {
+				throw new IllegalArgumentException("wrong number of arguments");
+			}
+			
+			for(int i = 0; i < arguments.length; i++) {
+				if(!MethodInvokerFactoryImpl.isAssignable(this.parameterTypes[i], arguments[i])) {
+					throw new IllegalArgumentException("argument type mismatch");
+				}
+			}
+			
+			try {
+				return (Object) this.handle.invokeExact(invoker, arguments);
+			}catch(Throwable e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+	
+	@Override
+	@Nonnull
+	public IMethodInvoker create(@Nonnull Method method) {
+		Checks.notNull(method, "method");
+		
+		/*
+		 * Unreflecting a method which has been made accessible skips the access checks of the lookup,
+		 * this is the same as what the reflective invocation did before every execution
+		 */
+		if(method.trySetAccessible()) {
+			try {
+				return new MethodHandleInvoker(method, MethodHandles.lookup().unreflect(method));
+			}catch(IllegalAccessException e) {
+				/* Fall back to invoking it reflectively */
+			}
+		}
+		
+		return method::invoke;
+	}
+}
\ No newline at end of file
@@ -17,9 +17,11 @@ import javax.annotation.Nullable;
 import com.jockie.bot.core.argument.IArgument;
 import com.jockie.bot.core.category.ICategory;
 import com.jockie.bot.core.command.ICommand;
+import com.jockie.bot.core.command.scheduler.Bulkhead;
 import com.jockie.bot.core.cooldown.ICooldown;
 import com.jockie.bot.core.cooldown.ICooldown.Scope;
 import com.jockie.bot.core.option.IOption;
+import com.jockie.bot.core.option.OptionTable;
 
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.internal.utils.Checks;
@@ -36,6 +38,7 @@ public abstract class AbstractCommand implements ICommand {
 	
 	protected List<IArgument<?>> arguments = Collections.emptyList();
 	protected List<IOption<?>> options = Collections.emptyList();
+	protected OptionTable optionTable = OptionTable.EMPTY;
 	
 	protected UnknownOptionPolicy unknownOptionPolicy = UnknownOptionPolicy.INCLUDE;
 	
@@ -68,6 +71,12 @@ public abstract class AbstractCommand implements ICommand {
 	
 	protected Function<CommandEvent, Object> asyncOrderingKey;
 	
+	protected AsyncThreadMode asyncThreadMode = AsyncThreadMode.DEFAULT;
+	
+	protected Bulkhead bulkhead;
+	
+	protected long executionTimeout = 0;
+	
 	protected long cooldownDuration = 0;
 	protected Scope cooldownScope = Scope.USER;
 	
@@ -132,6 +141,12 @@ public abstract class AbstractCommand implements ICommand {
 		return Collections.unmodifiableList(this.options);
 	}
 	
+	@Override
+	@Nonnull
+	public OptionTable getOptionTable() {
+		return this.optionTable;
+	}
+	
 	@Override
 	@Nonnull
 	public UnknownOptionPolicy getUnknownOptionPolicy() {
@@ -241,6 +256,23 @@ public abstract class AbstractCommand implements ICommand {
 		return null;
 	}
 	
+	@Override
+	@Nonnull
+	public AsyncThreadMode getAsyncThreadMode() {
+		return this.asyncThreadMode;
+	}
+	
+	@Override
+	@Nullable
+	public Bulkhead getBulkhead() {
+		return this.bulkhead;
+	}
+	
+	@Override
+	public long getExecutionTimeout() {
+		return this.executionTimeout;
+	}
+	
 	@Override
 	@Nullable
 	public ICommand getParent() {
@@ -291,6 +323,8 @@ public abstract class AbstractCommand implements ICommand {
 	public AbstractCommand setDeveloper(boolean developerCommand) {
 		this.developerCommand = developerCommand;
 		
+		AccessProfile.invalidate();
+		
 		return this;
 	}
 	
@@ -298,6 +332,8 @@ public abstract class AbstractCommand implements ICommand {
 	public AbstractCommand setBotTriggerable(boolean botTriggerable) {
 		this.botTriggerable = botTriggerable;
 		
+		AccessProfile.invalidate();
+		
 		return this;
 	}
 	
@@ -372,6 +408,7 @@ public abstract class AbstractCommand implements ICommand {
 	public AbstractCommand setOptions(@Nonnull IOption<?>... options) {
 		Checks.noneNull(options, "options");
 		this.options = List.of(options);
+		this.optionTable = OptionTable.compile(this.options);
 		
 		return this;
 	}
@@ -431,6 +468,8 @@ public abstract class AbstractCommand implements ICommand {
 	public AbstractCommand setGuildTriggerable(boolean triggerable) {
 		this.guildTriggerable = triggerable;
 		
+		AccessProfile.invalidate();
+		
 		return this;
 	}
 	
@@ -438,6 +477,8 @@ public abstract class AbstractCommand implements ICommand {
 	public AbstractCommand setPrivateTriggerable(boolean triggerable) {
 		this.privateTriggerable = triggerable;
 		
+		AccessProfile.invalidate();
+		
 		return this;
 	}
 	
@@ -516,6 +557,63 @@ public abstract class AbstractCommand implements ICommand {
 		return this.setAsyncOrderingKey(($) -> key);
 	}
 	
+	@Nonnull
+	public AbstractCommand setAsyncThreadMode(@Nonnull AsyncThreadMode threadMode) {
+		Checks.notNull(threadMode, "threadMode");
+		this.asyncThreadMode = threadMode;
+		
+		return this;
+	}
+	
+	@Nonnull
+	public AbstractCommand setBulkhead(@Nullable Bulkhead bulkhead) {
+		this.bulkhead = bulkhead;
+		
+		return this;
+	}
+	
+	/**
+	 * Limit the amount of concurrent executions of this command, this creates a {@link Bulkhead} for this command alone
+	 * 
+	 * @param maxConcurrency the maximum amount of concurrent executions, 0 to not limit them
+	 * @param maxQueued the maximum amount of executions which can wait for a running execution to finish
+	 * 
+	 * @return the {@link AbstractCommand} instance, useful for chaining
+	 */
+	@Nonnull
+	public AbstractCommand setConcurrencyLimit(int maxConcurrency, int maxQueued) {
+		return this.setBulkhead(maxConcurrency > 0 ? new Bulkhead(maxConcurrency, maxQueued) : null);
+	}
+	
+	/**
+	 * @param timeout the timeout in milliseconds
+	 * 
+	 * @return the {@link AbstractCommand} instance, useful for chaining
+	 * 
+	 * @see #getExecutionTimeout()
+	 */
+	@Nonnull
+	public AbstractCommand setExecutionTimeout(long timeout) {
+		this.executionTimeout = timeout;
+		
+		return this;
+	}
+	
+	/**
+	 * @param timeout in the specified unit
+	 * @param unit the unit of the timeout
+	 * 
+	 * @return the {@link AbstractCommand} instance, useful for chaining
+	 * 
+	 * @see #getExecutionTimeout()
+	 */
+	@Nonnull
+	public AbstractCommand setExecutionTimeout(long timeout, @Nonnull TimeUnit unit) {
+		Checks.notNull(unit, "unit");
+		
+		return this.setExecutionTimeout(unit.toMillis(timeout));
+	}
+	
 	@Nonnull
 	public AbstractCommand setParent(@Nullable ICommand parent) {
 		this.parent = parent;
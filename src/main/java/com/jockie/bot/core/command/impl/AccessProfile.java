@@ -0,0 +1,159 @@
+package com.jockie.bot.core.command.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import com.jockie.bot.core.command.ICommand;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * The facts about a message which the default accessibility check ({@link ICommand#isAccessible(Message, CommandListener)})
+ * depends on, packed in to a bitmask. Every message maps to one of {@link #COUNT} profiles which allows the commands
+ * to be partitioned ahead of time, see {@link CommandDispatchTable#getTriggers(int, String)}.
+ * <br><br>
+ * Commands which override {@link ICommand#isAccessible(Message, CommandListener)} can not be partitioned
+ * ({@link #isPartitionable(ICommand)}), these are included in every profile and have to be checked for each message.
+ * <br><br>
+ * The partitions are built from the accessibility flags of the commands, such as {@link ICommand#isBotTriggerable()},
+ * whenever any of these change {@link #invalidate()} has to be called so that the partitions are re-built. This is done by
+ * the setters of {@link AbstractCommand}, other implementations of {@link ICommand} have to call it themselves.
+ */
+public final class AccessProfile {
+	
+	/** The message was sent by the bot itself */
+	public static final int SELF = 1;
+	/** The message was sent by a bot */
+	public static final int BOT = 1 << 1;
+	/** The message was sent in a guild */
+	public static final int GUILD = 1 << 2;
+	/** The message was sent in a private channel */
+	public static final int PRIVATE = 1 << 3;
+	/** The message was sent by a developer ({@link CommandListener#isDeveloper(long)}) */
+	public static final int DEVELOPER = 1 << 4;
+	
+	/** The amount of possible profiles */
+	public static final int COUNT = 1 << 5;
+	
+	private static final ClassValue<Boolean> DEFAULT_ACCESSIBILITY = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("isAccessible", Message.class, CommandListener.class).getDeclaringClass() == ICommand.class;
+			}catch(NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+	
+	/* Incremented whenever the accessibility flags of any command change */
+	private static final AtomicLong VERSION = new AtomicLong();
+	
+	private AccessProfile() {}
+	
+	/**
+	 * <b style="color: red">Used internally, use at your own risk</b>
+	 * <br><br>
+	 * Mark every partition built from the accessibility flags of the commands as outdated, this has to be called whenever
+	 * {@link ICommand#isBotTriggerable()}, {@link ICommand#isGuildTriggerable()}, {@link ICommand#isPrivateTriggerable()}
+	 * or {@link ICommand#isDeveloperCommand()} of a command changes
+	 */
+	public static void invalidate() {
+		VERSION.incrementAndGet();
+	}
+	
+	/**
+	 * @return the current version of the accessibility flags, this changes every time {@link #invalidate()} is called
+	 */
+	public static long getVersion() {
+		return VERSION.get();
+	}
+	
+	/**
+	 * @param message the message to get the profile of
+	 * @param commandListener the command listener which is handling the message
+	 * 
+	 * @return the access profile of the provided message
+	 */
+	public static int of(@Nonnull Message message, @Nonnull CommandListener commandListener) {
+		Checks.notNull(message, "message");
+		Checks.notNull(commandListener, "commandListener");
+		
+		long authorId = message.getAuthor().getIdLong();
+		ChannelType channelType = message.getChannelType();
+		
+		int profile = 0;
+		if(authorId == message.getJDA().getSelfUser().getIdLong()) {
+			profile |= SELF;
+		}
+		
+		if(message.getAuthor().isBot()) {
+			profile |= BOT;
+		}
+		
+		if(channelType.isGuild()) {
+			profile |= GUILD;
+		}
+		
+		if(channelType == ChannelType.PRIVATE) {
+			profile |= PRIVATE;
+		}
+		
+		if(commandListener.isDeveloper(authorId)) {
+			profile |= DEVELOPER;
+		}
+		
+		return profile;
+	}
+	
+	/**
+	 * @param command the command to check
+	 * 
+	 * @return whether or not the accessibility of the provided command only depends on its access profile,
+	 * this is the case if the command does not override {@link ICommand#isAccessible(Message, CommandListener)}
+	 */
+	public static boolean isPartitionable(@Nonnull ICommand command) {
+		/* DummyCommands delegate to the command they were created from */
+		if(command instanceof DummyCommand) {
+			return AccessProfile.isPartitionable(((DummyCommand) command).getActualCommand());
+		}
+		
+		return DEFAULT_ACCESSIBILITY.get(command.getClass());
+	}
+	
+	/**
+	 * The equivalent of {@link ICommand#isAccessible(Message, CommandListener)} for a profile,
+	 * this is only accurate for commands which are partitionable ({@link #isPartitionable(ICommand)})
+	 * 
+	 * @param command the command to check
+	 * @param profile the access profile
+	 * 
+	 * @return whether or not the provided command is accessible for the provided profile
+	 */
+	public static boolean isAccessible(@Nonnull ICommand command, int profile) {
+		if((profile & SELF) != 0) {
+			return false;
+		}
+		
+		if(!command.isBotTriggerable() && (profile & BOT) != 0) {
+			return false;
+		}
+		
+		if(!command.isGuildTriggerable() && (profile & GUILD) != 0) {
+			return false;
+		}
+		
+		if(!command.isPrivateTriggerable() && (profile & PRIVATE) != 0) {
+			return false;
+		}
+		
+		if(command.isDeveloperCommand() && (profile & DEVELOPER) == 0) {
+			return false;
+		}
+		
+		return true;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,364 @@
+package com.jockie.bot.core.command.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jockie.bot.core.command.CommandTrigger;
+import com.jockie.bot.core.command.ICommand;
+import com.jockie.bot.core.command.impl.DummyCommand.AlternativeCommand;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * A frozen and pre-sorted snapshot of all the command triggers of a set of {@link CommandStore}s,
+ * this is used by the {@link CommandListener} when immutable commands are enabled
+ * ({@link CommandListener#setImmutableCommands(boolean)}) to avoid re-building and re-sorting
+ * every command trigger for each message.
+ * <br><br>
+ * The table keeps track of the version ({@link CommandStore#getVersion()}) of each store it was compiled from,
+ * which means that adding or removing commands from any of the stores will make it stale,
+ * changes made to the commands themselves are however not tracked.
+ * <br><br>
+ * The triggers and commands are also partitioned by {@link AccessProfile}, the partition for a profile is built
+ * the first time it is used and only contains what could be accessible for messages with that profile. The partitions are
+ * re-built whenever the accessibility flags of a command change ({@link AccessProfile#invalidate()}).
+ * <br><br>
+ * Commands which triggers could depend on the message ({@link #isMessageDependent(ICommand)}), such as commands with
+ * an alias function, are not compiled in to the table, their triggers are instead gathered for every message
+ * ({@link #getTriggers(Message, int, String)}).
+ */
+public class CommandDispatchTable {
+	
+	/* The implementations which triggers are known to not depend on the message */
+	private static final Set<Class<?>> STATIC_TRIGGER_TYPES = Set.of(ICommand.class, CommandImpl.class, MethodCommandImpl.class, DummyCommand.class);
+	
+	private static final ClassValue<Boolean> STATIC_TRIGGERS = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return STATIC_TRIGGER_TYPES.contains(type.getMethod("getAllCommandsRecursiveWithTriggers", Message.class, String.class).getDeclaringClass());
+			}catch(NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+	
+	/**
+	 * Compile the provided command stores in to a dispatch table
+	 * 
+	 * @param commandStores the command stores to compile
+	 * @param message the context, this is only used for {@link ICommand#getAllCommandsRecursiveWithTriggers(Message)}
+	 * of the commands which do not depend on the message ({@link #isMessageDependent(ICommand)})
+	 * 
+	 * @return the compiled dispatch table
+	 */
+	@Nonnull
+	public static CommandDispatchTable compile(@Nonnull Collection<CommandStore> commandStores, @Nonnull Message message) {
+		return CommandDispatchTable.compile(commandStores, message, true);
+	}
+	
+	/**
+	 * Compile the provided command stores in to a dispatch table
+	 * 
+	 * @param commandStores the command stores to compile
+	 * @param message the context, this is only used for {@link ICommand#getAllCommandsRecursiveWithTriggers(Message)}
+	 * of the commands which do not depend on the message ({@link #isMessageDependent(ICommand)})
+	 * @param includeDummyCommands whether or not the {@link DummyCommand DummyCommands} generated for optional arguments should be included,
+	 * these are not needed if the parser handles optional arguments ({@link com.jockie.bot.core.command.parser.ICommandParser#isHandleOptionalArguments()})
+	 * 
+	 * @return the compiled dispatch table
+	 */
+	@Nonnull
+	public static CommandDispatchTable compile(@Nonnull Collection<CommandStore> commandStores, @Nonnull Message message, boolean includeDummyCommands) {
+		Checks.noneNull(commandStores, "commandStores");
+		Checks.notNull(message, "message");
+		
+		CommandStore[] stores = commandStores.toArray(new CommandStore[0]);
+		
+		long[] versions = new long[stores.length];
+		List<CommandTrigger> triggers = new ArrayList<>();
+		List<ICommand> commands = new ArrayList<>();
+		List<ICommand> messageDependentCommands = new ArrayList<>();
+		
+		for(int i = 0; i < stores.length; i++) {
+			CommandStore store = stores[i];
+			
+			/* Get the version before the commands so that any concurrent change results in a stale table rather than a missed command */
+			versions[i] = store.getVersion();
+			
+			for(ICommand command : store.getCommands()) {
+				if(CommandDispatchTable.isMessageDependent(command)) {
+					/* The triggers of these are gathered for every message instead */
+					messageDependentCommands.add(command);
+				}else{
+					for(CommandTrigger trigger : command.getAllCommandsRecursiveWithTriggers(message)) {
+						if(includeDummyCommands || !CommandDispatchTable.isDummyCommand(trigger.getCommand())) {
+							triggers.add(trigger);
+						}
+					}
+				}
+				
+				for(ICommand subCommand : command.getAllCommandsRecursive(false)) {
+					if(!subCommand.isPassive()) {
+						commands.add(subCommand);
+					}
+				}
+			}
+		}
+		
+		triggers.sort(CommandTriggerComparator.INSTANCE);
+		
+		return new CommandDispatchTable(stores, versions, Collections.unmodifiableList(triggers), Collections.unmodifiableList(commands),
+			Collections.unmodifiableList(messageDependentCommands), includeDummyCommands);
+	}
+	
+	/**
+	 * @param command the command to check
+	 * 
+	 * @return whether or not the provided command is a {@link DummyCommand} generated for optional arguments,
+	 * {@link AlternativeCommand AlternativeCommands} are not considered to be dummy commands
+	 */
+	public static boolean isDummyCommand(@Nullable ICommand command) {
+		return command instanceof DummyCommand && !(command instanceof AlternativeCommand);
+	}
+	
+	/**
+	 * @param command the command to check
+	 * 
+	 * @return whether or not the triggers of the provided command, or of any of its sub-commands, could depend on the message,
+	 * this is the case if any of them override {@link ICommand#getAllCommandsRecursiveWithTriggers(Message, String)},
+	 * for instance to provide aliases based on the message
+	 */
+	public static boolean isMessageDependent(@Nonnull ICommand command) {
+		for(ICommand subCommand : command.getAllCommandsRecursive(true)) {
+			if(!STATIC_TRIGGERS.get(subCommand.getClass())) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static class Partition {
+		
+		private final long version;
+		
+		private final CommandTriggerTrie trie;
+		
+		private final List<ICommand> commands;
+		private final List<ICommand> visibleCommands;
+		
+		private Partition(CommandDispatchTable table, int profile, long version) {
+			this.version = version;
+			
+			List<CommandTrigger> triggers = new ArrayList<>();
+			for(CommandTrigger trigger : table.triggers) {
+				if(CommandDispatchTable.isIncluded(trigger.getCommand(), profile)) {
+					triggers.add(trigger);
+				}
+			}
+			
+			List<ICommand> commands = new ArrayList<>(), visibleCommands = new ArrayList<>();
+			for(ICommand command : table.commands) {
+				if(CommandDispatchTable.isIncluded(command, profile)) {
+					commands.add(command);
+					
+					if(!command.isHidden()) {
+						visibleCommands.add(command);
+					}
+				}
+			}
+			
+			this.trie = new CommandTriggerTrie(triggers);
+			this.commands = Collections.unmodifiableList(commands);
+			this.visibleCommands = Collections.unmodifiableList(visibleCommands);
+		}
+	}
+	
+	private static boolean isIncluded(ICommand command, int profile) {
+		/* Commands with their own accessibility check are included in every partition and checked per message */
+		return !AccessProfile.isPartitionable(command) || AccessProfile.isAccessible(command, profile);
+	}
+	
+	private final CommandStore[] commandStores;
+	private final long[] versions;
+	
+	private final List<CommandTrigger> triggers;
+	private final CommandTriggerTrie trie;
+	
+	private final List<ICommand> commands;
+	private final List<ICommand> messageDependentCommands;
+	
+	private final boolean includeDummyCommands;
+	
+	private final AtomicReferenceArray<Partition> partitions = new AtomicReferenceArray<>(AccessProfile.COUNT);
+	
+	private CommandDispatchTable(CommandStore[] commandStores, long[] versions, List<CommandTrigger> triggers, List<ICommand> commands,
+			List<ICommand> messageDependentCommands, boolean includeDummyCommands) {
+		this.commandStores = commandStores;
+		this.versions = versions;
+		
+		this.triggers = triggers;
+		this.trie = new CommandTriggerTrie(triggers);
+		
+		this.commands = commands;
+		this.messageDependentCommands = messageDependentCommands;
+		
+		this.includeDummyCommands = includeDummyCommands;
+	}
+	
+	private Partition getPartition(int profile) {
+		Checks.check(profile >= 0 && profile < AccessProfile.COUNT, "Invalid access profile: %s", profile);
+		
+		/* Get the version before building the partition so that any concurrent change results in the partition being re-built rather than missed */
+		long version = AccessProfile.getVersion();
+		
+		Partition partition = this.partitions.get(profile);
+		if(partition == null || partition.version != version) {
+			/* Building a partition twice is harmless, only the first one is kept */
+			this.partitions.compareAndSet(profile, partition, new Partition(this, profile, version));
+			
+			partition = this.partitions.get(profile);
+		}
+		
+		return partition;
+	}
+	
+	/**
+	 * @param commandStores the command stores which are currently registered
+	 * 
+	 * @return whether or not this table no longer represents the provided command stores,
+	 * either because a store was added or removed or because the commands of a store changed
+	 */
+	public boolean isStale(@Nonnull Collection<CommandStore> commandStores) {
+		if(commandStores.size() != this.commandStores.length) {
+			return true;
+		}
+		
+		int i = 0;
+		for(CommandStore store : commandStores) {
+			if(store != this.commandStores[i] || store.getVersion() != this.versions[i]) {
+				return true;
+			}
+			
+			i++;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * @return whether or not the {@link DummyCommand DummyCommands} generated for optional arguments are included
+	 */
+	public boolean isIncludeDummyCommands() {
+		return this.includeDummyCommands;
+	}
+	
+	/**
+	 * @return an unmodifiable list of the commands which triggers are gathered for every message ({@link #isMessageDependent(ICommand)})
+	 */
+	@Nonnull
+	public List<ICommand> getMessageDependentCommands() {
+		return this.messageDependentCommands;
+	}
+	
+	/**
+	 * @return an unmodifiable list of all the compiled command triggers, sorted by {@link CommandTriggerComparator}, this does not include
+	 * the triggers of the {@link #getMessageDependentCommands() message dependent commands}.
+	 * These have not been checked for accessibility ({@link ICommand#isAccessible(Message, CommandListener)})
+	 */
+	@Nonnull
+	public List<CommandTrigger> getTriggers() {
+		return this.triggers;
+	}
+	
+	/**
+	 * @param content the content to get the triggers for, this should not include the prefix
+	 * 
+	 * @return the compiled command triggers which could match the start of the provided content, sorted by {@link CommandTriggerComparator}.
+	 * These have not been checked for accessibility ({@link ICommand#isAccessible(Message, CommandListener)})
+	 * 
+	 * @see CommandTriggerTrie#find(String)
+	 */
+	@Nonnull
+	public List<CommandTrigger> getTriggers(@Nonnull String content) {
+		return this.trie.find(content);
+	}
+	
+	/**
+	 * @param profile the access profile ({@link AccessProfile#of(Message, CommandListener)}) of the message
+	 * @param content the content to get the triggers for, this should not include the prefix
+	 * 
+	 * @return the compiled command triggers which could match the start of the provided content and which are accessible for the provided profile,
+	 * sorted by {@link CommandTriggerComparator}. Commands which are not partitionable ({@link AccessProfile#isPartitionable(ICommand)})
+	 * still have to be checked for accessibility ({@link ICommand#isAccessible(Message, CommandListener)})
+	 */
+	@Nonnull
+	public List<CommandTrigger> getTriggers(int profile, @Nonnull String content) {
+		return this.getPartition(profile).trie.find(content);
+	}
+	
+	/**
+	 * The same as {@link #getTriggers(int, String)} but with the triggers of the {@link #getMessageDependentCommands() message dependent commands}
+	 * for the provided message, these are not narrowed down by the content and have to be matched against it
+	 * 
+	 * @param message the message to get the triggers for
+	 * @param profile the access profile ({@link AccessProfile#of(Message, CommandListener)}) of the message
+	 * @param content the content to get the triggers for, this should not include the prefix
+	 * 
+	 * @return the command triggers which could match the provided message, sorted by {@link CommandTriggerComparator}
+	 */
+	@Nonnull
+	public List<CommandTrigger> getTriggers(@Nonnull Message message, int profile, @Nonnull String content) {
+		List<CommandTrigger> triggers = this.getTriggers(profile, content);
+		if(this.messageDependentCommands.isEmpty()) {
+			return triggers;
+		}
+		
+		List<CommandTrigger> merged = new ArrayList<>(triggers);
+		for(ICommand command : this.messageDependentCommands) {
+			for(CommandTrigger trigger : command.getAllCommandsRecursiveWithTriggers(message)) {
+				ICommand triggerCommand = trigger.getCommand();
+				if((this.includeDummyCommands || !CommandDispatchTable.isDummyCommand(triggerCommand)) && CommandDispatchTable.isIncluded(triggerCommand, profile)) {
+					merged.add(trigger);
+				}
+			}
+		}
+		
+		merged.sort(CommandTriggerComparator.INSTANCE);
+		
+		return merged;
+	}
+	
+	/**
+	 * @return an unmodifiable list of all the non-passive ({@link ICommand#isPassive()}) commands, including sub-commands.
+	 * These have not been checked for accessibility ({@link ICommand#isAccessible(Message, CommandListener)})
+	 */
+	@Nonnull
+	public List<ICommand> getCommands() {
+		return this.commands;
+	}
+	
+	/**
+	 * @param profile the access profile ({@link AccessProfile#of(Message, CommandListener)}) of the message
+	 * @param includeHidden whether or not commands that match {@link ICommand#isHidden()} should be returned
+	 * 
+	 * @return an unmodifiable list of the non-passive ({@link ICommand#isPassive()}) commands which are accessible for the provided profile.
+	 * Commands which are not partitionable ({@link AccessProfile#isPartitionable(ICommand)}) still have to be checked
+	 * for accessibility ({@link ICommand#isAccessible(Message, CommandListener)})
+	 */
+	@Nonnull
+	public List<ICommand> getCommands(int profile, boolean includeHidden) {
+		Partition partition = this.getPartition(profile);
+		
+		return includeHidden ? partition.commands : partition.visibleCommands;
+	}
+}
\ No newline at end of file
@@ -6,6 +6,8 @@ import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Nonnull;
@@ -17,6 +19,7 @@ import com.jockie.bot.core.command.ICommand.ContentOverflowPolicy;
 import com.jockie.bot.core.command.exception.CancelException;
 import com.jockie.bot.core.command.manager.IContextManager;
 import com.jockie.bot.core.command.manager.impl.ContextManagerFactory;
+import com.jockie.bot.core.command.scheduler.CancellationToken;
 import com.jockie.bot.core.cooldown.ICooldown;
 import com.jockie.bot.core.cooldown.ICooldownManager;
 import com.jockie.bot.core.property.IPropertyContainer;
@@ -71,6 +74,10 @@ public class CommandEvent implements IPropertyContainer {
 	
 	protected Map<String, Object> properties = new HashMap<>();
 	
+	protected final CancellationToken cancellationToken = new CancellationToken();
+	
+	protected volatile CompletableFuture<?> asyncResult;
+	
 	/**
 	 * @param message the context for this; the message which was sent to trigger this command
 	 * @param listener the command listener which the command is registered to
@@ -405,9 +412,88 @@ public class CommandEvent implements IPropertyContainer {
 	 * {@link CommandListener} to cancel the execution of the current command
 	 */
 	public void cancel() {
+		this.cancellationToken.cancel();
+		
 		throw new CancelException();
 	}
 	
+	/**
+	 * @return the token which signals that the execution of this command has been cancelled, for instance
+	 * because it exceeded its execution timeout ({@link CommandListener#getExecutionTimeout(ICommand)})
+	 */
+	@Nonnull
+	public CancellationToken getCancellationToken() {
+		return this.cancellationToken;
+	}
+	
+	/**
+	 * @return whether or not the execution of this command has been cancelled
+	 * 
+	 * @see #getCancellationToken()
+	 */
+	public boolean isCancelled() {
+		return this.cancellationToken.isCancelled();
+	}
+	
+	/**
+	 * Defer the completion of this command to the provided stage, this is used when a command method returns
+	 * a {@link CompletionStage} or a {@link RestAction} but can also be called by commands which do asynchronous work.
+	 * <br><br>
+	 * The command is not considered executed until the stage has completed, if it completes exceptionally
+	 * it is handled the same way as an exception thrown by the command. Cancelling the returned {@link #getAsyncResult() result},
+	 * which is done when the command times out, also cancels the provided stage if it supports it.
+	 * 
+	 * @param asyncResult the stage which completes once the command has finished
+	 * 
+	 * @return the {@link CommandEvent} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandEvent setAsyncResult(@Nullable CompletionStage<?> asyncResult) {
+		if(asyncResult == null) {
+			this.asyncResult = null;
+			
+			return this;
+		}
+		
+		/* Not every stage supports toCompletableFuture() and the command listener needs to be able to cancel it */
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		asyncResult.whenComplete((value, throwable) -> {
+			if(throwable != null) {
+				future.completeExceptionally(throwable);
+			}else{
+				future.complete(value);
+			}
+		});
+		
+		/* Cancelling the command, for instance when it times out, should also stop the work it is waiting for */
+		future.whenComplete((value, throwable) -> {
+			if(!future.isCancelled()) {
+				return;
+			}
+			
+			try {
+				asyncResult.toCompletableFuture().cancel(false);
+			}catch(UnsupportedOperationException e) {
+				/* The stage can not be cancelled, it will complete on its own */
+			}
+		});
+		
+		this.asyncResult = future;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the stage which completes once the command has finished, or null if the command finished
+	 * as soon as it returned
+	 * 
+	 * @see #setAsyncResult(CompletionStage)
+	 */
+	@Nullable
+	public CompletableFuture<?> getAsyncResult() {
+		return this.asyncResult;
+	}
+	
 	/** Apply a cooldown to this command */
 	@Nonnull
 	public ICooldown applyCooldown() {
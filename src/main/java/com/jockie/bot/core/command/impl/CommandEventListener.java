@@ -39,6 +39,25 @@ public class CommandEventListener {
 	 */
 	public void onCommandMissingPermissions(ICommand command, CommandEvent event, PermissionException exception) {}
 	
+	/** 
+	 * This will be sent if a command was rejected by its {@link ICommand#getBulkhead() bulkhead} or the
+	 * {@link CommandListener#getCommandScheduler() command scheduler}, for instance because too many
+	 * commands were already waiting to be executed, the command will not be executed
+	 * 
+	 * @param command the command which was rejected
+	 * @param event the context of what was rejected
+	 */
+	public void onCommandRejected(ICommand command, CommandEvent event) {}
+	
+	/** 
+	 * This will be sent if a command exceeded its execution timeout ({@link CommandListener#getExecutionTimeout(ICommand)}),
+	 * the command has been cancelled ({@link CommandEvent#getCancellationToken()}) but may still be executing
+	 * 
+	 * @param command the command which timed out
+	 * @param event the context of what timed out
+	 */
+	public void onCommandTimedOut(ICommand command, CommandEvent event) {}
+	
 	/** 
 	 * This will be sent if a message starts with a registered prefix, 
 	 * this is called no matter if a command was executed or not
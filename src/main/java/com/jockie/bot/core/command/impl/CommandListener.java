@@ -4,17 +4,21 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
@@ -44,11 +48,19 @@ import com.jockie.bot.core.command.manager.IReturnManager;
 import com.jockie.bot.core.command.manager.impl.ErrorManagerImpl;
 import com.jockie.bot.core.command.manager.impl.ReturnManagerImpl;
 import com.jockie.bot.core.command.parser.ICommandParser;
+import com.jockie.bot.core.command.parser.PendingArgument;
 import com.jockie.bot.core.command.parser.impl.CommandParserImpl;
+import com.jockie.bot.core.command.scheduler.Bulkhead;
+import com.jockie.bot.core.command.scheduler.ICommandScheduler;
+import com.jockie.bot.core.command.scheduler.impl.CommandSchedulerImpl;
 import com.jockie.bot.core.cooldown.ICooldown;
 import com.jockie.bot.core.cooldown.ICooldownManager;
 import com.jockie.bot.core.cooldown.impl.CooldownManagerImpl;
+import com.jockie.bot.core.index.GuildNameIndex;
+import com.jockie.bot.core.index.ShardNameIndex;
+import com.jockie.bot.core.utility.OrderedExecutor;
 import com.jockie.bot.core.utility.StringUtility;
+import com.jockie.bot.core.utility.VirtualThreadUtility;
 import com.jockie.bot.core.utility.function.TriConsumer;
 
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -400,6 +412,30 @@ public class CommandListener implements EventListener {
 	
 	protected ExecutorService commandExecutor = Executors.newCachedThreadPool();
 	
+	/* Null if the runtime does not support virtual threads */
+	protected final ExecutorService virtualThreadExecutor = VirtualThreadUtility.newVirtualThreadPerTaskExecutor();
+	
+	protected boolean executeOnVirtualThreads = false;
+	
+	protected ICommandScheduler commandScheduler = null;
+	
+	/* The bulkheads shared by name between the commands of this listener */
+	protected final Map<String, Bulkhead> sharedBulkheads = new ConcurrentHashMap<>();
+	
+	protected long executionTimeout = 0;
+	
+	protected long asyncArgumentTimeout = TimeUnit.SECONDS.toMillis(10);
+	
+	protected GuildNameIndex guildNameIndex = null;
+	
+	protected ShardNameIndex shardNameIndex = null;
+	
+	/* Cancels commands which exceed their execution timeout */
+	protected final ScheduledThreadPoolExecutor timeoutExecutor = CommandListener.createTimeoutExecutor();
+	
+	/* Executes async commands which have an ordering key, in order for each key */
+	protected final OrderedExecutor orderedExecutor = new OrderedExecutor(this::getCommandExecutor);
+	
 	protected ICooldownManager cooldownManager = new CooldownManagerImpl();
 	
 	protected IReturnManager returnManager = new ReturnManagerImpl();
@@ -417,16 +453,70 @@ public class CommandListener implements EventListener {
 	
 	protected Function<Message, List<String>> prefixFunction;
 	
+	/* The prefixes compiled for the last message, which are re-used as long as the prefixes of a message are the same */
+	protected volatile PrefixMatcher lastPrefixMatcher;
+	
+	protected PrefixMatcherCache prefixMatcherCache;
+	
 	protected boolean caseSensitivePrefixes = true;
 	
 	protected boolean allowMentionPrefix = true;
 	
 	protected boolean filterStackTrace = true;
 	
+	protected boolean immutableCommands = false;
+	
+	protected volatile CommandDispatchTable dispatchTable;
+	
 	public CommandListener() {
 		this.addDefaultPreExecuteChecks();
 	}
 	
+	private static ScheduledThreadPoolExecutor createTimeoutExecutor() {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, (runnable) -> {
+			Thread thread = new Thread(runnable, "CommandListener-Timeout");
+			thread.setDaemon(true);
+			
+			return thread;
+		});
+		
+		/* Most commands finish before their timeout, their timeouts should not be kept around until they would have expired */
+		executor.setRemoveOnCancelPolicy(true);
+		
+		return executor;
+	}
+	
+	/* The execution of a command which has a timeout, the worker is only interrupted while it is still executing the command */
+	private static class TimedExecution {
+		
+		private final Thread thread = Thread.currentThread();
+		
+		private boolean finished = false;
+		
+		/* Returns false if the command had already finished */
+		private synchronized boolean timeout(Runnable action) {
+			if(this.finished) {
+				return false;
+			}
+			
+			this.finished = true;
+			action.run();
+			
+			return true;
+		}
+		
+		/* Returns false if the command has timed out */
+		private synchronized boolean finish() {
+			if(this.finished) {
+				return false;
+			}
+			
+			this.finished = true;
+			
+			return true;
+		}
+	}
+	
 	protected void forEachCommandEventListener(Consumer<CommandEventListener> listenerConsumer) {
 		for(CommandEventListener listener : this.commandEventListeners) {
 			/* Wrapped in a try catch because we don't want the execution of this to fail just because we couldn't rely on an event handler not to throw an exception */
@@ -532,6 +622,19 @@ public class CommandListener implements EventListener {
 	public List<ICommand> getAllCommands(@Nonnull Message message, boolean includeHidden) {
 		Checks.notNull(message, "message");
 		
+		if(this.immutableCommands) {
+			List<ICommand> commands = this.getDispatchTable(message).getCommands(AccessProfile.of(message, this), includeHidden);
+			
+			List<ICommand> accessibleCommands = new ArrayList<>(commands.size());
+			for(ICommand command : commands) {
+				if(AccessProfile.isPartitionable(command) || command.isAccessible(message, this)) {
+					accessibleCommands.add(command);
+				}
+			}
+			
+			return accessibleCommands;
+		}
+		
 		return this.getCommandStores().stream()
 			.map(CommandStore::getCommands)
 			.flatMap(Set::stream)
@@ -622,6 +725,7 @@ public class CommandListener implements EventListener {
 		Arrays.sort(prefixes, (a, b) -> Integer.compare(b.length(), a.length()));
 		
 		this.defaultPrefixes = List.of(prefixes);
+		this.lastPrefixMatcher = null;
 		
 		return this;
 	}
@@ -665,8 +769,9 @@ public class CommandListener implements EventListener {
 	@Nonnull
 	public CommandListener setCaseSensitivePrefixes(boolean caseSensitive) {
 		this.caseSensitivePrefixes = caseSensitive;
+		this.lastPrefixMatcher = null;
 		
-		return this;
+		return this.invalidatePrefixes();
 	}
 	
 	/**
@@ -695,6 +800,118 @@ public class CommandListener implements EventListener {
 		return this.filterStackTrace;
 	}
 	
+	/**
+	 * When immutable commands are enabled the commands of all the registered command stores are compiled
+	 * in to a pre-sorted {@link CommandDispatchTable} instead of being re-built for every message, the table is only
+	 * re-compiled when a command store is added, removed or has its commands changed ({@link CommandStore#getVersion()}).
+	 * The compiled table also indexes the triggers by their words ({@link CommandTriggerTrie}) so that only the triggers
+	 * which could match the message are attempted.
+	 * <br><br>
+	 * <b>NOTE:</b> Changes made to the commands themselves, such as adding an alias or sub-command,
+	 * will not be picked up unless {@link #invalidateCommands()} or {@link CommandStore#invalidate()} is called.
+	 * The commands are also partitioned by their accessibility flags ({@link AccessProfile}), the setters of {@link AbstractCommand}
+	 * take care of this but commands which change these flags in any other way, such as by assigning the fields directly or through
+	 * their own implementation of {@link ICommand}, have to call {@link AccessProfile#invalidate()}.
+	 * <br><br>
+	 * The table is compiled with the context of the message which happened to need it first, commands which triggers depend
+	 * on the message, such as commands with an alias function, are therefore not compiled in to it and have their triggers
+	 * gathered for every message instead ({@link CommandDispatchTable#isMessageDependent(ICommand)}).
+	 * 
+	 * @param immutableCommands whether or not the registered commands should be treated as immutable
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setImmutableCommands(boolean immutableCommands) {
+		this.immutableCommands = immutableCommands;
+		this.dispatchTable = null;
+		
+		return this;
+	}
+	
+	/**
+	 * @return whether or not the registered commands are treated as immutable
+	 * 
+	 * @see #setImmutableCommands(boolean)
+	 */
+	public boolean isImmutableCommands() {
+		return this.immutableCommands;
+	}
+	
+	/**
+	 * Discard the compiled {@link CommandDispatchTable}, it will be re-compiled the next time
+	 * it is needed. This only has an effect if immutable commands are enabled.
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 * 
+	 * @see #setImmutableCommands(boolean)
+	 */
+	@Nonnull
+	public CommandListener invalidateCommands() {
+		this.dispatchTable = null;
+		
+		return this;
+	}
+	
+	/**
+	 * Get the compiled dispatch table, compiling it if it has not been compiled yet or if it is stale
+	 * 
+	 * @param message the context, used if the table has to be compiled
+	 * 
+	 * @return the current {@link CommandDispatchTable}
+	 */
+	@Nonnull
+	protected CommandDispatchTable getDispatchTable(@Nonnull Message message) {
+		boolean includeDummyCommands = !this.commandParser.isHandleOptionalArguments();
+		
+		CommandDispatchTable table = this.dispatchTable;
+		if(table == null || table.isStale(this.commandStores) || table.isIncludeDummyCommands() != includeDummyCommands) {
+			this.dispatchTable = table = CommandDispatchTable.compile(this.commandStores, message, includeDummyCommands);
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * Get all the command triggers, sorted by {@link CommandTriggerComparator}, which should be
+	 * attempted for the provided message. These have not been checked for accessibility
+	 * ({@link ICommand#isAccessible(Message, CommandListener)}).
+	 * <br><br>
+	 * If immutable commands are enabled only the triggers which could match the start of the content are returned,
+	 * these are also partitioned by the {@link AccessProfile} of the message which means that only commands which
+	 * are not partitionable ({@link AccessProfile#isPartitionable(ICommand)}) have to be checked for accessibility.
+	 * 
+	 * @param message the context
+	 * @param content the content of the message, without the prefix
+	 * 
+	 * @return the sorted command triggers
+	 */
+	@Nonnull
+	protected List<CommandTrigger> getCommandTriggers(@Nonnull Message message, @Nonnull String content) {
+		if(this.immutableCommands) {
+			return this.getDispatchTable(message).getTriggers(message, AccessProfile.of(message, this), content);
+		}
+		
+		/* 
+		 * This accounts for a big part of the execution time and the more commands
+		 * that are registered, including sub commands, the slower it gets.
+		 * 
+		 * This is done to allow commands to be mutable. Meaning that commands
+		 * can change name or sub/parent command and everything would still
+		 * function correctly, see setImmutableCommands for the faster alternative.
+		 */
+		boolean includeDummyCommands = !this.commandParser.isHandleOptionalArguments();
+		
+		return this.getCommandStores().stream()
+			.map(CommandStore::getCommands)
+			.flatMap(Set::stream)
+			.map((command) -> command.getAllCommandsRecursiveWithTriggers(message))
+			.flatMap(List::stream)
+			.filter((trigger) -> includeDummyCommands || !CommandDispatchTable.isDummyCommand(trigger.getCommand()))
+			.sorted(CommandTriggerComparator.INSTANCE)
+			.collect(Collectors.toList());
+	}
+	
 	/**
 	 * Register an array of ids as developers
 	 * 
@@ -842,7 +1059,9 @@ public class CommandListener implements EventListener {
 	
 	/**
 	 * @param function the function which will return a set amount of prefixes for the specific context,
-	 * for instance you can return guild or user specific prefixes
+	 * for instance you can return guild or user specific prefixes. Unless a {@link #setPrefixMatcherCache(PrefixMatcherCache) cache}
+	 * is set the function is called, and the prefixes are copied and sorted, for every message and the prefixes are compiled again
+	 * whenever they are not the same as the prefixes of the previous message
 	 * 
 	 * @return the {@link CommandListener} instance, useful for chaining
 	 * 
@@ -852,7 +1071,7 @@ public class CommandListener implements EventListener {
 	public CommandListener setPrefixesFunction(@Nullable Function<Message, List<String>> function) {
 		this.prefixFunction = function;
 		
-		return this;
+		return this.invalidatePrefixes();
 	}
 	
 	/**
@@ -905,6 +1124,105 @@ public class CommandListener implements EventListener {
 		return Collections.unmodifiableList(this.getDefaultPrefixes());
 	}
 	
+	/**
+	 * Set the cache used for the prefixes returned by the prefix function ({@link #setPrefixesFunction(Function)}),
+	 * when this is set the prefix function is only called when the prefixes for a message are not already cached.
+	 * <br><br>
+	 * The cached prefixes have to be invalidated, through {@link #invalidatePrefixes(ISnowflake)}, whenever they change.
+	 * 
+	 * @param cache the cache to use, or null to call the prefix function for every message
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setPrefixMatcherCache(@Nullable PrefixMatcherCache cache) {
+		this.prefixMatcherCache = cache;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the cache used for the prefixes returned by the prefix function
+	 * 
+	 * @see #setPrefixMatcherCache(PrefixMatcherCache)
+	 */
+	@Nullable
+	public PrefixMatcherCache getPrefixMatcherCache() {
+		return this.prefixMatcherCache;
+	}
+	
+	/**
+	 * Invalidate the cached prefixes of the provided guild, or channel for private messages,
+	 * this only has an effect if a prefix cache is used with the default key function
+	 * 
+	 * @param snowflake the guild or private channel to invalidate the prefixes for
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 * 
+	 * @see #setPrefixMatcherCache(PrefixMatcherCache)
+	 */
+	@Nonnull
+	public CommandListener invalidatePrefixes(@Nonnull ISnowflake snowflake) {
+		Checks.notNull(snowflake, "snowflake");
+		
+		if(this.prefixMatcherCache != null) {
+			this.prefixMatcherCache.invalidate(snowflake);
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Invalidate all the cached prefixes, this only has an effect if a prefix cache is used
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 * 
+	 * @see #setPrefixMatcherCache(PrefixMatcherCache)
+	 */
+	@Nonnull
+	public CommandListener invalidatePrefixes() {
+		if(this.prefixMatcherCache != null) {
+			this.prefixMatcherCache.invalidateAll();
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * Get the compiled prefixes for the provided message, this uses the prefix cache
+	 * ({@link #setPrefixMatcherCache(PrefixMatcherCache)}) if there is one and there is a prefix function.
+	 * <br><br>
+	 * Without a cache the prefixes are requested through {@link #getPrefixes(Message)} for every message,
+	 * they are only compiled again when they are not the same as the prefixes of the previous message,
+	 * which means that prefix functions which return different prefixes for most messages should be used with a cache.
+	 * 
+	 * @param message the message to get the prefixes for
+	 * 
+	 * @return the compiled prefixes
+	 * 
+	 * @see #getPrefixes(Message)
+	 */
+	@Nonnull
+	public PrefixMatcher getPrefixMatcher(@Nonnull Message message) {
+		Checks.notNull(message, "message");
+		
+		PrefixMatcherCache cache = this.prefixMatcherCache;
+		if(cache != null && this.prefixFunction != null) {
+			return cache.get(message, (key) -> PrefixMatcher.compile(this.getPrefixes(message), this.caseSensitivePrefixes));
+		}
+		
+		/* Goes through getPrefixes so that it can be overridden */
+		List<String> prefixes = this.getPrefixes(message);
+		boolean caseSensitive = this.caseSensitivePrefixes;
+		
+		PrefixMatcher matcher = this.lastPrefixMatcher;
+		if(matcher == null || matcher.isCaseSensitive() != caseSensitive || !matcher.getPrefixes().equals(prefixes)) {
+			this.lastPrefixMatcher = matcher = PrefixMatcher.compile(prefixes, caseSensitive);
+		}
+		
+		return matcher;
+	}
+	
 	/**
 	 * @param consumer the function which will be called when the command failed due to missing permission 
 	 * ({@link net.dv8tion.jda.api.exceptions.PermissionException PermissionException} being thrown)
@@ -1134,131 +1452,413 @@ public class CommandListener implements EventListener {
 	}
 	
 	/**
-	 * Set the cooldown manager which will be used to handle command cooldowns
+	 * Set whether or not async commands should be executed on virtual threads by default, commands can opt in or out of
+	 * this through {@link ICommand#getAsyncThreadMode()}.
+	 * <br><br>
+	 * Virtual threads are cheap to block, which lets commands that block, for instance by using
+	 * {@link net.dv8tion.jda.api.requests.RestAction#complete() RestAction#complete()}, be executed concurrently
+	 * without requiring a platform thread each. If the runtime does not support virtual threads
+	 * ({@link VirtualThreadUtility#isSupported()}) the commands are executed on the {@link #getCommandExecutor() command executor}.
 	 * 
-	 * @param cooldownManager the cooldown manager
+	 * @param executeOnVirtualThreads whether or not async commands should be executed on virtual threads by default
 	 * 
 	 * @return the {@link CommandListener} instance, useful for chaining
 	 */
 	@Nonnull
-	public CommandListener setCooldownManager(@Nonnull ICooldownManager cooldownManager) {
-		Checks.notNull(cooldownManager, "cooldownManager");
-		
-		this.cooldownManager = cooldownManager;
+	public CommandListener setExecuteOnVirtualThreads(boolean executeOnVirtualThreads) {
+		this.executeOnVirtualThreads = executeOnVirtualThreads;
 		
 		return this;
 	}
 	
 	/**
-	 * @return the {@link ICooldownManager} which is handling the command cooldowns
+	 * @return whether or not async commands are executed on virtual threads by default
+	 * 
+	 * @see #setExecuteOnVirtualThreads(boolean)
 	 */
-	@Nonnull
-	public ICooldownManager getCoooldownManager() {
-		return this.cooldownManager;
+	public boolean isExecuteOnVirtualThreads() {
+		return this.executeOnVirtualThreads;
 	}
 	
 	/**
-	 * Set the return manager which will be used to handle what the commands
-	 * return
-	 * 
-	 * @param returnManager the return manager
-	 * 
-	 * @return the {@link CommandListener} instance, useful for chaining
+	 * @return the {@link ExecutorService} used to execute async commands on virtual threads,
+	 * or null if the runtime does not support virtual threads
 	 */
-	@Nonnull
-	public CommandListener setReturnManager(@Nonnull IReturnManager returnManager) {
-		Checks.notNull(returnManager, "returnManager");
-		
-		this.returnManager = returnManager;
-		
-		return this;
+	@Nullable
+	public ExecutorService getVirtualThreadExecutor() {
+		return this.virtualThreadExecutor;
 	}
 	
 	/**
-	 * @return the {@link IReturnManager} which will be used to handle what
-	 * the command returns
+	 * @param command the async command to get the executor for
+	 * 
+	 * @return the {@link ExecutorService} which the provided command should be executed on,
+	 * this is either the {@link #getVirtualThreadExecutor() virtual thread executor} or the {@link #getCommandExecutor() command executor}
+	 * depending on the command's {@link ICommand#getAsyncThreadMode() thread mode}
 	 */
 	@Nonnull
-	public IReturnManager getReturnManager() {
-		return this.returnManager;
+	public ExecutorService getCommandExecutor(@Nonnull ICommand command) {
+		Checks.notNull(command, "command");
+		
+		if(this.virtualThreadExecutor == null) {
+			return this.commandExecutor;
+		}
+		
+		switch(command.getAsyncThreadMode()) {
+			case VIRTUAL: {
+				return this.virtualThreadExecutor;
+			}
+			case PLATFORM: {
+				return this.commandExecutor;
+			}
+			default: {
+				return this.executeOnVirtualThreads ? this.virtualThreadExecutor : this.commandExecutor;
+			}
+		}
 	}
 	
 	/**
-	 * Set the error manager which will be used to handle what happens
-	 * when an argument is incorrectly parsed
+	 * Set the scheduler which decides when, and if, async commands are executed, this can for instance be a {@link CommandSchedulerImpl}
+	 * to bound the amount of async commands and share the executors fairly between guilds and users. Commands which are rejected by
+	 * the scheduler are reported through {@link CommandEventListener#onCommandRejected(ICommand, CommandEvent)}.
+	 * <br><br>
+	 * Default: null, async commands are executed straight away
 	 * 
-	 * @param errorManager the error manager
+	 * @param commandScheduler the command scheduler, or null to not schedule async commands
 	 * 
 	 * @return the {@link CommandListener} instance, useful for chaining
 	 */
 	@Nonnull
-	public CommandListener setErrorManager(@Nonnull IErrorManager errorManager) {
-		Checks.notNull(errorManager, "errorManager");
-		
-		this.errorManager = errorManager;
+	public CommandListener setCommandScheduler(@Nullable ICommandScheduler commandScheduler) {
+		this.commandScheduler = commandScheduler;
 		
 		return this;
 	}
 	
 	/**
-	 * @return the {@link IErrorManager} which will be used to handle 
-	 * what happens when an argument is incorrectly parsed
+	 * @return the scheduler which decides when, and if, async commands are executed, null if async commands are executed straight away
+	 * 
+	 * @see #setCommandScheduler(ICommandScheduler)
 	 */
-	@Nonnull
-	public IErrorManager getErrorManager() {
-		return this.errorManager;
+	@Nullable
+	public ICommandScheduler getCommandScheduler() {
+		return this.commandScheduler;
 	}
 	
 	/**
-	 * Set the command parser which will be used to parse the commands 
-	 * when {@link #handle(Message)} is called
+	 * Get the bulkhead which limits the concurrent executions of a command, a bulkhead with a {@link Bulkhead#getName() name}
+	 * is shared by every command of this listener which uses a bulkhead with the same name, the first of them to be executed
+	 * registers the bulkhead which is then used by all of them.
 	 * 
-	 * @param commandParser the command parser
+	 * @param command the command to get the bulkhead of
 	 * 
-	 * @return the {@link CommandListener} instance, useful for chaining
+	 * @return the bulkhead of the command, or null if its concurrent executions are not limited
+	 * 
+	 * @throws IllegalStateException if a bulkhead with the same name but different limits has already been registered
 	 */
-	@Nonnull
-	public CommandListener setCommandParser(@Nonnull ICommandParser commandParser) {
-		Checks.notNull(commandParser, "commandParser");
+	@Nullable
+	public Bulkhead getBulkhead(@Nonnull ICommand command) {
+		Checks.notNull(command, "command");
 		
-		this.commandParser = commandParser;
+		Bulkhead bulkhead = command.getBulkhead();
+		if(bulkhead == null || bulkhead.getName() == null) {
+			return bulkhead;
+		}
 		
-		return this;
+		Bulkhead shared = this.sharedBulkheads.computeIfAbsent(bulkhead.getName(), (name) -> bulkhead);
+		if(shared.getMaxConcurrency() != bulkhead.getMaxConcurrency() || shared.getMaxQueued() != bulkhead.getMaxQueued()) {
+			throw new IllegalStateException(String.format("The bulkhead %s is used with different limits, (maxConcurrency=%s, maxQueued=%s) and (maxConcurrency=%s, maxQueued=%s)", 
+				bulkhead.getName(), shared.getMaxConcurrency(), shared.getMaxQueued(), bulkhead.getMaxConcurrency(), bulkhead.getMaxQueued()));
+		}
+		
+		return shared;
 	}
 	
 	/**
-	 * @return the {@link ICommandParser} which will be used to parse commands
-	 * when {@link #handle(Message)} is called
+	 * @param name the name of the bulkhead
+	 * 
+	 * @return the bulkhead shared by the provided name, or null if no command with such a bulkhead has been executed
+	 * 
+	 * @see #getBulkhead(ICommand)
 	 */
-	@Nonnull
-	public ICommandParser getCommandParser() {
-		return this.commandParser;
+	@Nullable
+	public Bulkhead getSharedBulkhead(@Nonnull String name) {
+		Checks.notNull(name, "name");
+		
+		return this.sharedBulkheads.get(name);
 	}
 	
 	/**
-	 * Set the {@link CommandEvent} factory which will be used to create
-	 * the CommandEvent for the {@link ICommandParser}
+	 * Set the default execution timeout for commands which do not have their own ({@link ICommand#getExecutionTimeout()}),
+	 * a command which exceeds its timeout is cancelled through its {@link CommandEvent#getCancellationToken() cancellation token},
+	 * async commands also have their thread interrupted and stop holding up the commands queued after them
+	 * with the same {@link ICommand#getAsyncOrderingKey(CommandEvent) ordering key}.
+	 * Timed out commands are reported through {@link CommandEventListener#onCommandTimedOut(ICommand, CommandEvent)}.
+	 * <br><br>
+	 * Default: 0, commands do not time out
 	 * 
-	 * @param commandEventFactory the {@link CommandEvent} factory
+	 * @param timeout the timeout, 0 or less for commands to not time out
+	 * @param unit the unit of the timeout
 	 * 
 	 * @return the {@link CommandListener} instance, useful for chaining
 	 */
 	@Nonnull
-	public CommandListener setCommandEventFactory(@Nonnull ICommandEventFactory commandEventFactory) {
-		Checks.notNull(commandEventFactory, "commandEventFactory");
+	public CommandListener setExecutionTimeout(long timeout, @Nonnull TimeUnit unit) {
+		Checks.notNull(unit, "unit");
 		
-		this.commandEventFactory = commandEventFactory;
+		this.executionTimeout = Math.max(0, unit.toMillis(timeout));
 		
 		return this;
 	}
 	
 	/**
-	 * @return the {@link ICommandEventFactory} which will be used to create
-	 * the CommandEvent for the {@link ICommandParser}
+	 * @return the default execution timeout in milliseconds, 0 if commands do not time out by default
+	 * 
+	 * @see #setExecutionTimeout(long, TimeUnit)
 	 */
-	@Nonnull
-	public ICommandEventFactory getCommandEventFactory() {
-		return this.commandEventFactory;
+	public long getExecutionTimeout() {
+		return this.executionTimeout;
+	}
+	
+	/**
+	 * @param command the command to get the execution timeout for
+	 * 
+	 * @return the execution timeout in milliseconds of the provided command, 0 if the command does not time out
+	 */
+	public long getExecutionTimeout(@Nonnull ICommand command) {
+		Checks.notNull(command, "command");
+		
+		long timeout = command.getExecutionTimeout();
+		if(timeout == 0) {
+			return this.executionTimeout;
+		}
+		
+		return Math.max(0, timeout);
+	}
+	
+	/**
+	 * Set how long commands wait for their {@link com.jockie.bot.core.parser.IAsyncParser asynchronously parsed} arguments,
+	 * the arguments of a command are resolved concurrently and if they have not all completed within the timeout
+	 * the command is treated as if the content could not be parsed.
+	 * <br><br>
+	 * Default: 10 seconds
+	 * 
+	 * @param timeout the timeout, must be positive
+	 * @param unit the unit of the timeout
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setAsyncArgumentTimeout(long timeout, @Nonnull TimeUnit unit) {
+		Checks.positive(timeout, "timeout");
+		Checks.notNull(unit, "unit");
+		
+		this.asyncArgumentTimeout = unit.toMillis(timeout);
+		
+		return this;
+	}
+	
+	/**
+	 * @return how long commands wait for their asynchronously parsed arguments, in milliseconds
+	 * 
+	 * @see #setAsyncArgumentTimeout(long, TimeUnit)
+	 */
+	public long getAsyncArgumentTimeout() {
+		return this.asyncArgumentTimeout;
+	}
+	
+	/**
+	 * Set the index used by the Discord parsers to look members, roles and text channels up by name,
+	 * without an index every lookup by name scans the cache of the guild.
+	 * The index is kept up to date from the events received by this listener.
+	 * <br><br>
+	 * Default: null
+	 * 
+	 * @param guildNameIndex the index to use, or null to not use an index
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setGuildNameIndex(@Nullable GuildNameIndex guildNameIndex) {
+		this.guildNameIndex = guildNameIndex;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the index used by the Discord parsers to look entities up by name, may be null
+	 * 
+	 * @see #setGuildNameIndex(GuildNameIndex)
+	 */
+	@Nullable
+	public GuildNameIndex getGuildNameIndex() {
+		return this.guildNameIndex;
+	}
+	
+	/**
+	 * Set the index used by the user and guild parsers to look users and guilds up across every shard of the shard manager,
+	 * without an index every lookup goes through the cache of every shard. The index is kept up to date from the events received
+	 * by this listener, this listener therefore has to be registered on every shard. The index is built in the background
+	 * the first time it is used, use {@link ShardNameIndex#index(net.dv8tion.jda.api.sharding.ShardManager)} to build it up front.
+	 * <br><br>
+	 * Default: null
+	 * 
+	 * @param shardNameIndex the index to use, or null to not use an index
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setShardNameIndex(@Nullable ShardNameIndex shardNameIndex) {
+		this.shardNameIndex = shardNameIndex;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the index used by the user and guild parsers to look users and guilds up across every shard, may be null
+	 * 
+	 * @see #setShardNameIndex(ShardNameIndex)
+	 */
+	@Nullable
+	public ShardNameIndex getShardNameIndex() {
+		return this.shardNameIndex;
+	}
+	
+	/**
+	 * @return the {@link OrderedExecutor} used to execute async commands which have an ordering key ({@link ICommand#getAsyncOrderingKey(CommandEvent)}),
+	 * each key is scheduled on the executor of the command which was queued while the key was idle ({@link #getCommandExecutor(ICommand)})
+	 */
+	@Nonnull
+	public OrderedExecutor getOrderedExecutor() {
+		return this.orderedExecutor;
+	}
+	
+	/**
+	 * Set the cooldown manager which will be used to handle command cooldowns
+	 * 
+	 * @param cooldownManager the cooldown manager
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setCooldownManager(@Nonnull ICooldownManager cooldownManager) {
+		Checks.notNull(cooldownManager, "cooldownManager");
+		
+		this.cooldownManager = cooldownManager;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the {@link ICooldownManager} which is handling the command cooldowns
+	 */
+	@Nonnull
+	public ICooldownManager getCoooldownManager() {
+		return this.cooldownManager;
+	}
+	
+	/**
+	 * Set the return manager which will be used to handle what the commands
+	 * return
+	 * 
+	 * @param returnManager the return manager
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setReturnManager(@Nonnull IReturnManager returnManager) {
+		Checks.notNull(returnManager, "returnManager");
+		
+		this.returnManager = returnManager;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the {@link IReturnManager} which will be used to handle what
+	 * the command returns
+	 */
+	@Nonnull
+	public IReturnManager getReturnManager() {
+		return this.returnManager;
+	}
+	
+	/**
+	 * Set the error manager which will be used to handle what happens
+	 * when an argument is incorrectly parsed
+	 * 
+	 * @param errorManager the error manager
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setErrorManager(@Nonnull IErrorManager errorManager) {
+		Checks.notNull(errorManager, "errorManager");
+		
+		this.errorManager = errorManager;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the {@link IErrorManager} which will be used to handle 
+	 * what happens when an argument is incorrectly parsed
+	 */
+	@Nonnull
+	public IErrorManager getErrorManager() {
+		return this.errorManager;
+	}
+	
+	/**
+	 * Set the command parser which will be used to parse the commands 
+	 * when {@link #handle(Message)} is called
+	 * 
+	 * @param commandParser the command parser
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setCommandParser(@Nonnull ICommandParser commandParser) {
+		Checks.notNull(commandParser, "commandParser");
+		
+		this.commandParser = commandParser;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the {@link ICommandParser} which will be used to parse commands
+	 * when {@link #handle(Message)} is called
+	 */
+	@Nonnull
+	public ICommandParser getCommandParser() {
+		return this.commandParser;
+	}
+	
+	/**
+	 * Set the {@link CommandEvent} factory which will be used to create
+	 * the CommandEvent for the {@link ICommandParser}
+	 * 
+	 * @param commandEventFactory the {@link CommandEvent} factory
+	 * 
+	 * @return the {@link CommandListener} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandListener setCommandEventFactory(@Nonnull ICommandEventFactory commandEventFactory) {
+		Checks.notNull(commandEventFactory, "commandEventFactory");
+		
+		this.commandEventFactory = commandEventFactory;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the {@link ICommandEventFactory} which will be used to create
+	 * the CommandEvent for the {@link ICommandParser}
+	 */
+	@Nonnull
+	public ICommandEventFactory getCommandEventFactory() {
+		return this.commandEventFactory;
 	}
 	
 	/**
@@ -1367,6 +1967,17 @@ public class CommandListener implements EventListener {
 	
 	@Override
 	public void onEvent(GenericEvent event) {
+		/* Keep the indexes up to date before any message which may depend on the update is handled */
+		GuildNameIndex guildNameIndex = this.guildNameIndex;
+		if(guildNameIndex != null) {
+			guildNameIndex.onEvent(event);
+		}
+		
+		ShardNameIndex shardNameIndex = this.shardNameIndex;
+		if(shardNameIndex != null) {
+			shardNameIndex.onEvent(event);
+		}
+		
 		if(event instanceof MessageReceivedEvent) {
 			this.handle(((MessageReceivedEvent) event).getMessage());
 		}
@@ -1406,52 +2017,16 @@ public class CommandListener implements EventListener {
 		String contentRaw = message.getContentRaw();
 		
 		/* Needs to work for both non-nicked mentions and nicked mentions */
-		long botId = message.getJDA().getSelfUser().getIdLong();
-		if(this.allowMentionPrefix) {
+		if(this.allowMentionPrefix && contentRaw.startsWith("<@")) {
+			long botId = message.getJDA().getSelfUser().getIdLong();
 			if(contentRaw.startsWith("<@" + botId + "> ") || contentRaw.startsWith("<@!" + botId + "> ")) {
 				return contentRaw.substring(0, contentRaw.indexOf(" ") + 1);
 			}
 		}
 		
-		if(!this.caseSensitivePrefixes) {
-			contentRaw = contentRaw.toLowerCase();
-		}
-		
-		for(String prefix : this.getPrefixes(message)) {
-			if(!this.caseSensitivePrefixes) {
-				prefix = prefix.toLowerCase();
-			}
-			
-			if(contentRaw.startsWith(prefix)) {
-				return prefix;
-			}
-		}
-		
-		return null;
+		return this.getPrefixMatcher(message).match(contentRaw);
 	}
 	
-	protected Map<Object, Object> orderingKeys = new ConcurrentHashMap<>();
-	
-	protected static class QueuedCommand {
-		
-		public QueuedCommand(ICommand command, CommandEvent event, long timeStarted, Object[] arguments) {
-			this.command = command;
-			this.event = event;
-			this.timeStarted = timeStarted;
-			this.arguments = arguments;
-		}
-		
-		public ICommand command;
-		
-		public CommandEvent event;
-		
-		public long timeStarted;
-		
-		public Object[] arguments;
-		
-	}
-	
-	protected Map<Object, BlockingQueue<QueuedCommand>> queuedCommands = Collections.synchronizedMap(new HashMap<>());
 	
 	/**
 	 * Parse the message and execute the command (if any)
@@ -1491,28 +2066,8 @@ public class CommandListener implements EventListener {
 		
 		List<Failure> possibleCommands = new ArrayList<>();
 		
-		/* 
-		 * This accounts for a big part of the execution time and the more commands
-		 * that are registered, including sub commands, the slower it gets.
-		 * 
-		 * This is done to allow commands to be mutable. Meaning that commands
-		 * can change name or sub/parent command and everything would still
-		 * function correctly.
-		 * 
-		 * TODO: Immutable commands (as a performance upgrade)
-		 * An option to have the commands be immutable and that way improve
-		 * performance should be added.
-		 */
-		List<CommandTrigger> commands = this.getCommandStores().stream()
-			.map(CommandStore::getCommands)
-			.flatMap(Set::stream)
-			.map((command) -> command.getAllCommandsRecursiveWithTriggers(message))
-			.flatMap(List::stream)
-			.filter((commandTrigger) -> commandTrigger.getCommand().isAccessible(message, this))
-			.sorted(CommandTriggerComparator.INSTANCE)
-			.collect(Collectors.toList());
-		
-		for(CommandTrigger commandTrigger : commands) {
+		boolean partitioned = this.immutableCommands;
+		for(CommandTrigger commandTrigger : this.getCommandTriggers(message, contentRaw)) {
 			ICommand command = commandTrigger.getCommand();
 			
 			String contentToParse = contentRaw;
@@ -1540,6 +2095,14 @@ public class CommandListener implements EventListener {
 				continue;
 			}
 			
+			/* 
+			 * Checked after the trigger to avoid checking the accessibility of every command,
+			 * the triggers of immutable commands have already been filtered by their access profile
+			 */
+			if(!(partitioned && AccessProfile.isPartitionable(command)) && !command.isAccessible(message, this)) {
+				continue;
+			}
+			
 			CommandEvent commandEvent;
 			try {
 				commandEvent = this.commandParser.parse(this, command, message, prefix, trigger, contentToParse, timeStarted);
@@ -1552,6 +2115,12 @@ public class CommandListener implements EventListener {
 				continue;
 			}
 			
+			if(PendingArgument.isPending(commandEvent.getArguments())) {
+				this.queuePendingCommand(command, commandEvent, prefix, timeStarted, possibleCommands);
+				
+				return commandEvent;
+			}
+			
 			this.queueCommand(command, commandEvent, timeStarted, commandEvent.getArguments());
 			
 			return commandEvent;
@@ -1568,20 +2137,93 @@ public class CommandListener implements EventListener {
 		return null;
 	}
 	
-	private void drainCommandQueue(Object orderingKey, BlockingQueue<QueuedCommand> queue) {
-		QueuedCommand queuedCommand;
-		while((queuedCommand = queue.poll()) != null) {
-			this.executeCommand(queuedCommand.command, queuedCommand.event, queuedCommand.timeStarted, queuedCommand.arguments);
+	/**
+	 * <b style="color: red">Used internally, use at your own risk</b>
+	 * <br><br>
+	 * Queue a command once all of its {@link PendingArgument pending arguments} have been resolved, if any of them are invalid,
+	 * or they do not resolve within the {@link #setAsyncArgumentTimeout(long, TimeUnit) timeout}, the failure is handled
+	 * by the {@link #setMessageParseFailureFunction(TriConsumer) message parse failure function} instead.
+	 * <br><br>
+	 * Once the arguments have been resolved the command is queued from the command executor, meaning that
+	 * commands which are not async are executed on the command executor rather than on the thread which resolved the arguments.
+	 * Async commands with an {@link ICommand#getAsyncOrderingKey(CommandEvent) ordering key} take their place in the order
+	 * straight away, the commands with the same key which come after it wait for its arguments to be resolved and for it to be executed.
+	 * 
+	 * @param command the command to execute
+	 * @param event the context, the pending arguments are replaced in its arguments
+	 * @param prefix the prefix which was used
+	 * @param timeStarted the time the command was received
+	 * @param failures the commands which had already failed to parse the message
+	 */
+	protected void queuePendingCommand(ICommand command, CommandEvent event, String prefix, long timeStarted, List<Failure> failures) {
+		Object[] arguments = event.getArguments();
+		
+		/* The arguments are resolved on the threads of the requests, which should not be used to execute commands */
+		Executor executor = this.getCommandExecutor(command);
+		
+		/* Started straight away, even if the command has to wait for its turn, so that the arguments are resolved in the meantime */
+		CompletableFuture<Void> resolved = PendingArgument.resolve(arguments).orTimeout(this.asyncArgumentTimeout, TimeUnit.MILLISECONDS);
+		
+		Object orderingKey = command.isExecuteAsync() ? command.getAsyncOrderingKey(event) : null;
+		if(orderingKey == null) {
+			resolved.whenCompleteAsync((result, throwable) -> {
+				if(this.isPendingResolved(command, event, prefix, failures, throwable)) {
+					this.queueCommand(command, event, timeStarted, arguments);
+				}
+			}, executor);
+			
+			return;
 		}
 		
-		synchronized(this.queuedCommands) {
-			if(queue.isEmpty()) {
-				this.queuedCommands.remove(orderingKey);
-				return;
+		/* The key is held from now on, rather than from when the arguments have been resolved, so that later commands can not overtake this one */
+		this.orderedExecutor.executeAsync(orderingKey, executor, () -> resolved.handleAsync((result, throwable) -> {
+			if(!this.isPendingResolved(command, event, prefix, failures, throwable)) {
+				return CompletableFuture.completedFuture(null);
+			}
+			
+			CompletableFuture<Void> released = new CompletableFuture<>();
+			
+			Bulkhead bulkhead = this.getBulkhead(command);
+			if(bulkhead == null) {
+				this.executeOrdered(command, event, null, executor, timeStarted, arguments, released);
+			}else if(!bulkhead.acquire(() -> this.executeOrdered(command, event, bulkhead, executor, timeStarted, arguments, released))) {
+				this.forEachCommandEventListener((listener) -> listener.onCommandRejected(command, event));
+				
+				released.complete(null);
+			}
+			
+			return released;
+		}, executor).thenCompose((stage) -> stage));
+	}
+	
+	/* Returns whether or not the pending arguments were resolved, reporting the failure if they were not */
+	private boolean isPendingResolved(ICommand command, CommandEvent event, String prefix, List<Failure> failures, Throwable throwable) {
+		if(throwable == null) {
+			return true;
+		}
+		
+		ParseException exception;
+		if(throwable instanceof ArgumentParseException) {
+			exception = (ArgumentParseException) throwable;
+		}else{
+			/* Timed out, report the first argument which has not been resolved */
+			PendingArgument pending = PendingArgument.getFirstPending(event.getArguments());
+			if(pending == null) {
+				/* Every argument was resolved right as it timed out */
+				return true;
 			}
+			
+			exception = pending.createException();
+		}
+		
+		if(this.messageParseFailureFunction != null) {
+			List<Failure> possibleCommands = new ArrayList<>(failures);
+			possibleCommands.add(new Failure(command, exception));
+			
+			this.messageParseFailureFunction.accept(event.getMessage(), prefix, possibleCommands);
 		}
 		
-		this.drainCommandQueue(orderingKey, queue);
+		return false;
 	}
 	
 	/**
@@ -1590,7 +2232,8 @@ public class CommandListener implements EventListener {
 	 * Queue a command
 	 * <br><br>
 	 * This is similar to {@link #executeCommand(ICommand, CommandEvent, long, Object...)} but it checks if
-	 * the command is async and queues it if it is, otherwise it functions the same way.
+	 * the command is async and queues it if it is, otherwise it functions the same way. If the command has a
+	 * {@link ICommand#getBulkhead() bulkhead} the command waits for, or is rejected by, the bulkhead when it is full.
 	 * 
 	 * @param command the command to execute
 	 * @param event the context
@@ -1602,36 +2245,218 @@ public class CommandListener implements EventListener {
 		Checks.notNull(event, "event");
 		Checks.notNull(arguments, "arguments");
 		
+		Bulkhead bulkhead = this.getBulkhead(command);
 		if(!command.isExecuteAsync()) {
-			this.executeCommand(command, event, timeStarted, arguments);
+			if(bulkhead == null) {
+				this.executeCommandWithTimeout(command, event, null, false, timeStarted, arguments);
+				
+				return;
+			}
+			
+			if(bulkhead.tryAcquire()) {
+				try {
+					this.executeCommandWithTimeout(command, event, null, false, timeStarted, arguments);
+				}finally{
+					this.whenFinished(event, bulkhead::release);
+				}
+				
+				return;
+			}
+			
+			/* 
+			 * Waiting for the bulkhead would block the current thread, the command
+			 * is instead queued and executed asynchronously once it can start
+			 */
+		}
+		
+		if(bulkhead == null) {
+			this.submitCommand(command, event, null, timeStarted, arguments);
 			
 			return;
 		}
 		
+		if(!bulkhead.acquire(() -> this.submitCommand(command, event, bulkhead, timeStarted, arguments))) {
+			this.forEachCommandEventListener((listener) -> listener.onCommandRejected(command, event));
+		}
+	}
+	
+	/* Submits the command to its executor, or the command scheduler, and releases the bulkhead once the command has been executed */
+	protected void submitCommand(ICommand command, CommandEvent event, Bulkhead bulkhead, long timeStarted, Object[] arguments) {
+		Executor executor = this.getCommandExecutor(command);
+		ICommandScheduler commandScheduler = this.commandScheduler;
+		
 		Object orderingKey = command.getAsyncOrderingKey(event);
-		if(orderingKey == null) {
-			this.commandExecutor.execute(() -> this.executeCommand(command, event, timeStarted, arguments));
+		if(orderingKey != null && commandScheduler != null) {
+			/* 
+			 * The command is only scheduled once the previous commands with the same key have finished,
+			 * otherwise it would hold on to a slot of the scheduler, which other users could be using, while it waits
+			 */
+			this.orderedExecutor.executeAsync(orderingKey, executor, () -> {
+				CompletableFuture<Void> released = new CompletableFuture<>();
+				
+				this.executeOrdered(command, event, bulkhead, executor, timeStarted, arguments, released);
+				
+				return released;
+			});
 			
 			return;
 		}
 		
-		if(orderingKey.getClass().isPrimitive() || orderingKey instanceof String) {
-			orderingKey = this.orderingKeys.computeIfAbsent(orderingKey, (key) -> new Object());
+		Consumer<Thread> abandon = null;
+		if(orderingKey != null) {
+			Executor commandExecutor = executor;
+			
+			executor = (task) -> this.orderedExecutor.execute(orderingKey, commandExecutor, task);
+			abandon = (thread) -> this.orderedExecutor.abandon(orderingKey, thread);
 		}
 		
-		Object finalKey = orderingKey;
-		/* TODO: Can we do this without locking here? */
-		synchronized(this.queuedCommands) {
-			boolean created = !this.queuedCommands.containsKey(finalKey);
+		Consumer<Thread> abandonOrdering = abandon;
+		Runnable task = () -> {
+			try {
+				this.executeCommandWithTimeout(command, event, abandonOrdering, true, timeStarted, arguments);
+			}finally{
+				if(bulkhead != null) {
+					this.whenFinished(event, bulkhead::release);
+				}
+			}
+		};
+		
+		boolean scheduled;
+		try {
+			if(commandScheduler != null) {
+				scheduled = commandScheduler.schedule(command, event, executor, task, () -> this.rejectCommand(command, event, bulkhead));
+			}else{
+				executor.execute(task);
+				
+				scheduled = true;
+			}
+		}catch(RuntimeException e) {
+			if(bulkhead != null) {
+				bulkhead.release();
+			}
 			
-			BlockingQueue<QueuedCommand> queue = this.queuedCommands.computeIfAbsent(orderingKey, (key) -> new LinkedBlockingQueue<>());
-			queue.add(new QueuedCommand(command, event, timeStarted, arguments));
+			throw e;
+		}
+		
+		if(!scheduled) {
+			this.rejectCommand(command, event, bulkhead);
+		}
+	}
+	
+	/* 
+	 * Executes the command while its ordering key is held, on the command scheduler if there is one, the released
+	 * future is completed once the command has been executed, or abandoned, and the key can be released
+	 */
+	private void executeOrdered(ICommand command, CommandEvent event, Bulkhead bulkhead, Executor executor, long timeStarted, Object[] arguments, CompletableFuture<Void> released) {
+		Runnable task = () -> {
+			try {
+				this.executeCommandWithTimeout(command, event, (thread) -> released.complete(null), true, timeStarted, arguments);
+			}finally{
+				released.complete(null);
+				
+				if(bulkhead != null) {
+					this.whenFinished(event, bulkhead::release);
+				}
+			}
+		};
+		
+		ICommandScheduler commandScheduler = this.commandScheduler;
+		try {
+			if(commandScheduler == null) {
+				executor.execute(task);
+			}else if(!commandScheduler.schedule(command, event, executor, task, () -> {
+				this.rejectCommand(command, event, bulkhead);
+				
+				released.complete(null);
+			})) {
+				this.rejectCommand(command, event, bulkhead);
+				
+				released.complete(null);
+			}
+		}catch(RuntimeException e) {
+			if(bulkhead != null) {
+				bulkhead.release();
+			}
+			
+			released.completeExceptionally(e);
+			
+			throw e;
+		}
+	}
+	
+	/* Called when the command scheduler rejects a command */
+	private void rejectCommand(ICommand command, CommandEvent event, Bulkhead bulkhead) {
+		if(bulkhead != null) {
+			bulkhead.release();
+		}
+		
+		this.forEachCommandEventListener((listener) -> listener.onCommandRejected(command, event));
+	}
+	
+	/* 
+	 * Executes the command and cancels it if it exceeds its execution timeout, only commands which are executed
+	 * on the command executors are interrupted as the current thread could otherwise be one of JDA's threads.
+	 * The abandon function releases the ordering key held by the thread executing the command, if it holds one.
+	 */
+	protected void executeCommandWithTimeout(ICommand command, CommandEvent event, Consumer<Thread> abandon, boolean interrupt, long timeStarted, Object[] arguments) {
+		long timeout = this.getExecutionTimeout(command);
+		if(timeout <= 0) {
+			this.executeCommand(command, event, timeStarted, arguments);
 			
-			if(!created) {
+			return;
+		}
+		
+		TimedExecution execution = new TimedExecution();
+		
+		ScheduledFuture<?> future = this.timeoutExecutor.schedule(() -> {
+			boolean timedOut = execution.timeout(() -> {
+				/* Done while the command can not finish, otherwise a later task with the same key could be abandoned or interrupted */
+				if(abandon != null) {
+					abandon.accept(execution.thread);
+				}
+				
+				if(interrupt) {
+					execution.thread.interrupt();
+				}
+			});
+			
+			CompletableFuture<?> asyncResult = event.getAsyncResult();
+			if(!timedOut && (asyncResult == null || asyncResult.isDone())) {
 				return;
 			}
 			
-			this.commandExecutor.execute(() -> this.drainCommandQueue(finalKey, queue));
+			LOG.warn("Command \"{}\" with arguments {} exceeded its execution timeout of {} ms", 
+				event.getCommandTrigger(), Arrays.deepToString(arguments), timeout);
+			
+			event.getCancellationToken().cancel();
+			
+			this.forEachCommandEventListener((listener) -> listener.onCommandTimedOut(command, event));
+			
+			if(asyncResult != null) {
+				asyncResult.cancel(false);
+			}
+		}, timeout, TimeUnit.MILLISECONDS);
+		
+		try {
+			this.executeCommand(command, event, timeStarted, arguments);
+		}finally{
+			if(!execution.finish() && interrupt) {
+				/* Clear the interrupt so that it does not affect whatever the thread executes next */
+				Thread.interrupted();
+			}
+			
+			/* A command with an asynchronous result can still time out after its thread has finished */
+			this.whenFinished(event, () -> future.cancel(false));
+		}
+	}
+	
+	/* Runs the action once the command has finished, which is when its asynchronous result has completed if it has one */
+	protected void whenFinished(CommandEvent event, Runnable action) {
+		CompletableFuture<?> asyncResult = event.getAsyncResult();
+		if(asyncResult == null) {
+			action.run();
+		}else{
+			asyncResult.whenComplete((result, throwable) -> action.run());
 		}
 	}
 	
@@ -1692,38 +2517,66 @@ public class CommandListener implements EventListener {
 			}
 			
 			command.execute(event, arguments);
-			
-			this.forEachCommandEventListener((listener) -> listener.onCommandExecuted(command, event));
 		}catch(Throwable e) {
-			if(command.getCooldownDuration() > 0) {
-				/* If the command execution fails then no cooldown should be applied */
-				this.cooldownManager.removeCooldown(actualCommand, event.getMessage());
-			}
+			this.handleExecutionFailure(command, actualCommand, event, timeStarted, arguments, e);
 			
-			if(e instanceof CancelException) {
-				return;
-			}
-			
-			if(e instanceof PermissionException) {
-				LOG.warn("Attempted to execute command \"{}\" with arguments {} but failed due to missing permissions, time elapsed {}, permission {}",
-					event.getCommandTrigger(), Arrays.deepToString(arguments), System.nanoTime() - timeStarted, ((PermissionException) e).getPermission());
-				
-				this.forEachCommandEventListener((listener) -> listener.onCommandExecutionException(command, event, (PermissionException) e));
-				
-				if(this.missingPermissionExceptionFunction != null) {
-					this.missingPermissionExceptionFunction.accept(event, ((PermissionException) e).getPermission());
+			return;
+		}
+		
+		CompletableFuture<?> asyncResult = event.getAsyncResult();
+		if(asyncResult != null) {
+			/* The command has not finished until its asynchronous result has, which is likely to be after this thread has moved on */
+			asyncResult.whenComplete((result, throwable) -> {
+				if(throwable != null) {
+					Throwable cause = throwable;
+					if(cause instanceof CompletionException && cause.getCause() != null) {
+						cause = cause.getCause();
+					}
+					
+					this.handleExecutionFailure(command, actualCommand, event, timeStarted, arguments, cause);
+				}else{
+					this.handleExecutionSuccess(command, event, timeStarted, arguments);
 				}
-				
-				return;
-			}
+			});
+			
+			return;
+		}
+		
+		this.handleExecutionSuccess(command, event, timeStarted, arguments);
+	}
+	
+	protected void handleExecutionSuccess(ICommand command, CommandEvent event, long timeStarted, Object[] arguments) {
+		this.forEachCommandEventListener((listener) -> listener.onCommandExecuted(command, event));
+		
+		LOG.info("Executed command \"{}\" with the arguments {}, time elapsed {}", event.getCommandTrigger(), Arrays.deepToString(arguments), System.nanoTime() - timeStarted);
+	}
+	
+	protected void handleExecutionFailure(ICommand command, ICommand actualCommand, CommandEvent event, long timeStarted, Object[] arguments, Throwable e) {
+		if(command.getCooldownDuration() > 0) {
+			/* If the command execution fails then no cooldown should be applied */
+			this.cooldownManager.removeCooldown(actualCommand, event.getMessage());
+		}
+		
+		/* An asynchronous result is cancelled if the command times out */
+		if(e instanceof CancelException || e instanceof CancellationException) {
+			return;
+		}
+		
+		if(e instanceof PermissionException) {
+			LOG.warn("Attempted to execute command \"{}\" with arguments {} but failed due to missing permissions, time elapsed {}, permission {}",
+				event.getCommandTrigger(), Arrays.deepToString(arguments), System.nanoTime() - timeStarted, ((PermissionException) e).getPermission());
 			
-			this.forEachCommandEventListener((listener) -> listener.onCommandExecutionException(command, event, e));
+			this.forEachCommandEventListener((listener) -> listener.onCommandExecutionException(command, event, (PermissionException) e));
 			
-			LOG.error("Attempted to execute command \"{}\" with arguments {} but failed", event.getCommand().getCommandTrigger(), Arrays.deepToString(event.getArguments()), e);
+			if(this.missingPermissionExceptionFunction != null) {
+				this.missingPermissionExceptionFunction.accept(event, ((PermissionException) e).getPermission());
+			}
 			
 			return;
 		}
 		
-		LOG.info("Executed command \"{}\" with the arguments {}, time elapsed {}", event.getCommandTrigger(), Arrays.deepToString(arguments), System.nanoTime() - timeStarted);
+		this.forEachCommandEventListener((listener) -> listener.onCommandExecutionException(command, event, e));
+		
+		LOG.error("Attempted to execute command \"{}\" with arguments {} but failed", event.getCommand().getCommandTrigger(), Arrays.deepToString(event.getArguments()), e);
 	}
 }
\ No newline at end of file
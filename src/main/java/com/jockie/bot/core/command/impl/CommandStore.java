@@ -369,6 +369,8 @@ public class CommandStore {
 	
 	private Set<ICommand> commands = new HashSet<ICommand>();
 	
+	private volatile long version = 0;
+	
 	/**
 	 * Load all commands from the provided package and its sub-packages
 	 * 
@@ -471,6 +473,7 @@ public class CommandStore {
 		
 		if(object instanceof ICommand) {
 			this.commands.add(((ICommand) object).getTopParent());
+			this.version++;
 			
 			return this;
 		}
@@ -478,6 +481,7 @@ public class CommandStore {
 		if(object.getClass().isAnnotationPresent(Module.class) || object instanceof IModule) {
 			try {
 				this.commands.addAll(CommandStore.loadModule(object));
+				this.version++;
 			}catch(Throwable e) {
 				LOG.warn(CommandStore.getCommandLoadErrorMessage(null, object.getClass(), null), e);
 			}
@@ -490,6 +494,7 @@ public class CommandStore {
 			if(CommandUtility.isInstanceOf(clazz, ICommand.class)) {					
 				try {
 					this.commands.add((ICommand) clazz.getConstructor().newInstance());
+					this.version++;
 				}catch(Throwable e) {
 					LOG.warn(CommandStore.getCommandLoadErrorMessage(null, clazz, null), e);
 				}
@@ -500,6 +505,7 @@ public class CommandStore {
 			if(clazz.isAnnotationPresent(Module.class) || CommandUtility.isInstanceOf(clazz, IModule.class)) {
 				try {
 					this.commands.addAll(CommandStore.loadModule(clazz.getConstructor().newInstance()));
+					this.version++;
 				}catch(Throwable e) {
 					LOG.warn(CommandStore.getCommandLoadErrorMessage(null, clazz, null), e);
 				}
@@ -553,6 +559,8 @@ public class CommandStore {
 			this.commands.remove(command.getTopParent());
 		}
 		
+		this.version++;
+		
 		return this;
 	}
 	
@@ -568,6 +576,28 @@ public class CommandStore {
 		return this.removeCommands(commands.toArray(new ICommand[0]));
 	}
 	
+	/**
+	 * Mark the commands of this store as changed, this should be used if any of the registered 
+	 * commands were modified in a way which changes their triggers, such as adding a sub-command
+	 * or alias, while immutable commands ({@link CommandListener#setImmutableCommands(boolean)}) are used
+	 * 
+	 * @return the {@link CommandStore} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandStore invalidate() {
+		this.version++;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the version of this store, this is changed every time a command is added or removed
+	 * and is used to determine whether or not a {@link CommandDispatchTable} is stale
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+	
 	/**
 	 * @return an unmodifiable set of all the registered commands
 	 */
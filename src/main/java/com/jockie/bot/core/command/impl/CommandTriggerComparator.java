@@ -1,9 +1,11 @@
 package com.jockie.bot.core.command.impl;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -26,6 +28,12 @@ public class CommandTriggerComparator implements Comparator<CommandTrigger> {
 	
 	private final Map<Class<?>, Integer> priorities = new HashMap<>();
 	
+	/* Incremented whenever the priorities change, this invalidates any previously computed sort keys */
+	private volatile int version = 0;
+	
+	/* The computed sort keys, triggers are compared by identity and are re-created from the commands so they are only weakly held */
+	private final Map<CommandTrigger, SortKey> sortKeys = Collections.synchronizedMap(new WeakHashMap<>());
+	
 	private CommandTriggerComparator() {
 		/* 
 		 * Because the String just accepts the content straight up
@@ -60,6 +68,8 @@ public class CommandTriggerComparator implements Comparator<CommandTrigger> {
 			this.priorities.put(type, priority);
 		}
 		
+		this.version++;
+		
 		return this;
 	}
 	
@@ -78,176 +88,202 @@ public class CommandTriggerComparator implements Comparator<CommandTrigger> {
 		return this.priorities.getOrDefault(type, 0);
 	}
 	
-	/* TODO: I think this needs a bit of a clean-up */
+	/**
+	 * Get the sort key of the provided trigger, the key is computed once and then cached for the trigger
+	 * until the priorities ({@link #setPriority(Class, int)}) of this comparator change.
+	 * <br><br>
+	 * The key is based on the arguments the command had when it was first computed, command triggers are
+	 * re-created from the commands ({@link ICommand#getAllCommandsRecursiveWithTriggers(net.dv8tion.jda.api.entities.Message)}),
+	 * which means that changes to the arguments of a command are reflected by any new triggers.
+	 * 
+	 * @param commandTrigger the trigger to get the sort key for
+	 * 
+	 * @return the sort key of the provided trigger
+	 */
+	@Nonnull
+	public SortKey getSortKey(@Nonnull CommandTrigger commandTrigger) {
+		SortKey key = this.sortKeys.get(commandTrigger);
+		if(key != null && key.version == this.version) {
+			return key;
+		}
+		
+		key = new SortKey(this, commandTrigger);
+		this.sortKeys.put(commandTrigger, key);
+		
+		return key;
+	}
+	
 	@Override
 	public int compare(CommandTrigger commandTrigger, CommandTrigger commandTrigger2) {
-		ICommand command = commandTrigger.getCommand(), command2 = commandTrigger2.getCommand();
+		return this.getSortKey(commandTrigger).compareTo(this.getSortKey(commandTrigger2));
+	}
+	
+	/**
+	 * The precomputed specificity of a {@link CommandTrigger}, this contains everything which
+	 * {@link CommandTriggerComparator} needs to order the triggers so that comparing two triggers
+	 * does not require walking their arguments.
+	 */
+	public static final class SortKey implements Comparable<SortKey> {
 		
-		/* Check the trigger length, the longer the more specific so it goes first */
-		if(commandTrigger.getTrigger().length() > commandTrigger2.getTrigger().length()) {
-			return -1;
-		}else if(commandTrigger.getTrigger().length() < commandTrigger2.getTrigger().length()) {
-			return 1;
-		}
+		private final int version;
+		
+		private final int triggerLength;
+		
+		private final boolean arguments;
+		private final int argumentCount;
 		
-		List<IArgument<?>> arguments = command.getArguments(), arguments2 = command2.getArguments();
-		int argumentCount = arguments.size(), argumentCount2 = arguments2.size();
+		/* Whether or not the last argument is endless and whether or not it has an endless amount of arguments */
+		private final boolean endless;
+		private final boolean endlessArguments;
 		
-		if(argumentCount > 0 && argumentCount2 > 0) {
-			IArgument<?> lastArgument = arguments.get(argumentCount - 1), lastArgument2 = arguments2.get(argumentCount2 - 1);
+		/* The priority of each argument, up to the argument count (the last argument is repeated for endless arguments) */
+		private final int[] priorities;
+		
+		private final boolean caseSensitive;
+		
+		/* Only used for DummyCommands, see compareTo */
+		private final ICommand actualCommand;
+		private final int distance;
+		
+		private SortKey(CommandTriggerComparator comparator, CommandTrigger commandTrigger) {
+			ICommand command = commandTrigger.getCommand();
 			
-			boolean endless = false, endless2 = false;
-			boolean endlessArguments = false, endlessArguments2 = false;
+			this.version = comparator.version;
 			
-			/* Update argument count and check for endless arguments */
-			if(lastArgument.isEndless()) {
-				if(lastArgument instanceof IEndlessArgument) {
-					int max = ((IEndlessArgument<?>) lastArgument).getMaxArguments();
-					
-					if(max != -1) {
-						argumentCount += (max - 1);
-					}else{
-						endlessArguments = true;
+			this.triggerLength = commandTrigger.getTrigger().length();
+			this.caseSensitive = command.isCaseSensitive();
+			
+			List<IArgument<?>> arguments = command.getArguments();
+			int argumentCount = arguments.size();
+			
+			boolean endless = false, endlessArguments = false;
+			if(argumentCount > 0) {
+				IArgument<?> lastArgument = arguments.get(argumentCount - 1);
+				
+				/* Update argument count and check for endless arguments */
+				if(lastArgument.isEndless()) {
+					if(lastArgument instanceof IEndlessArgument) {
+						int max = ((IEndlessArgument<?>) lastArgument).getMaxArguments();
+						
+						if(max != -1) {
+							argumentCount += (max - 1);
+						}else{
+							endlessArguments = true;
+						}
 					}
+					
+					endless = true;
 				}
+			}
+			
+			this.arguments = arguments.size() > 0;
+			this.argumentCount = argumentCount;
+			this.endless = endless;
+			this.endlessArguments = endlessArguments;
+			
+			this.priorities = new int[Math.max(0, argumentCount)];
+			for(int i = 0; i < this.priorities.length; i++) {
+				IArgument<?> argument = arguments.get(Math.min(i, arguments.size() - 1));
 				
-				endless = true;
+				this.priorities[i] = comparator.getPriority(argument.getType());
 			}
 			
-			/* Update argument count and check for endless arguments */
-			if(lastArgument2.isEndless()) {
-				if(lastArgument2 instanceof IEndlessArgument) {
-					int max = ((IEndlessArgument<?>) lastArgument2).getMaxArguments();
-					
-					if(max != -1) {
-						argumentCount2 += (max - 1);
-					}else{
-						endlessArguments2 = true;
-					}
+			if(command instanceof DummyCommand) {
+				ICommand actualCommand = ((DummyCommand) command).getActualCommand();
+				List<IArgument<?>> actualArguments = actualCommand.getArguments();
+				
+				int distance = 0;
+				for(int i = 0; i < arguments.size(); i++) {
+					distance += actualArguments.indexOf(arguments.get(i)) - i;
 				}
 				
-				endless2 = true;
+				this.actualCommand = actualCommand;
+				this.distance = distance;
+			}else{
+				this.actualCommand = null;
+				this.distance = 0;
 			}
-			
-			/* Check if the last argument contains an endless amount of arguments */
-			if(!endlessArguments && endlessArguments2) {
-				return -1;
-			}else if(endlessArguments && !endlessArguments2) {
-				return 1;
+		}
+		
+		@Override
+		public int compareTo(SortKey other) {
+			/* Check the trigger length, the longer the more specific so it goes first */
+			if(this.triggerLength != other.triggerLength) {
+				return this.triggerLength > other.triggerLength ? -1 : 1;
 			}
 			
-			/**
-			 * Check how many arguments the command has, the more arguments the more specific it is
-			 * and should therefore be closer.
-			 */
-			if(argumentCount > argumentCount2) {
-				return -1;
-			}else if(argumentCount < argumentCount2) {
-				return 1;
+			if(this.arguments && other.arguments) {
+				/* Check if the last argument contains an endless amount of arguments */
+				if(this.endlessArguments != other.endlessArguments) {
+					return other.endlessArguments ? -1 : 1;
+				}
+				
+				/**
+				 * Check how many arguments the command has, the more arguments the more specific it is
+				 * and should therefore be closer.
+				 */
+				if(this.argumentCount != other.argumentCount) {
+					return this.argumentCount > other.argumentCount ? -1 : 1;
+				}
+				
+				/* 
+				 * Check if the last argument is endless, if it is it will simply accept all the remaining content 
+				 * which means it is less specific and should therefore be further back.
+				 */
+				if(this.endless != other.endless) {
+					return other.endless ? -1 : 1;
+				}
+				
+				/* 
+				 * Check the order of the argument parsers. This was mostly introduced to combat an issue where
+				 * due to the fact that Class#getDeclaredMethods doesn't return the methods in the order they were
+				 * specified in, let alone any order at all, the order of the commands would sometimes be different
+				 * and could cause weird behaviour.
+				 * 
+				 * One example of a weird behaviour is if you have a command, "prune", which takes one argument, amount (Integer),
+				 * and then you have an alternate command implementation which takes a keyword argument of the type String.
+				 * Now if the first method loads first everything works correctly as the argument can be checked if it is an integer 
+				 * and then move to the String variant.
+				 * If the second version is instead loaded first it will always take it as a keyword as the String parser just accepts any content given to it
+				 * and this causes the first version to become effectively inaccessible. 
+				 */
+				for(int i = 0; i < this.priorities.length; i++) {
+					if(this.priorities[i] != other.priorities[i]) {
+						return this.priorities[i] > other.priorities[i] ? 1 : -1;
+					}
+				}
+			}else if(this.arguments != other.arguments) {
+				return this.arguments ? -1 : 1;
 			}
 			
 			/* 
-			 * Check if the last argument is endless, if it is it will simply accept all the remaining content 
-			 * which means it is less specific and should therefore be further back.
+			 * Check for case sensitivity, if it is case sensitive it is more specific and therefore goes first.
+			 * 
+			 * This could be useful if you, for instance, had a command called "ban" and then a case sensitive command called "Ban" 
+			 * to fake ban people.
 			 */
-			if(!endless && endless2) {
-				return -1;
-			}else if(endless && !endless2) {
-				return 1;
+			if(this.caseSensitive != other.caseSensitive) {
+				return this.caseSensitive ? -1 : 1;
 			}
 			
 			/* 
-			 * Check the order of the argument parsers. This was mostly introduced to combat an issue where
-			 * due to the fact that Class#getDeclaredMethods doesn't return the methods in the order they were
-			 * specified in, let alone any order at all, the order of the commands would sometimes be different
-			 * and could cause weird behaviour.
+			 * TODO: This is hacky solution to fix the problem with inconsistent order of optional arguments.
+			 * 
+			 * This works by sorting it by the "distance" the arguments is from their original position, for instance
+			 * let's say the arguments are [optional, optional2 and optional3] and this DummyCommand has optional3 as its argument,
+			 * that would mean that the distance is 2 (2 - 0).
+			 * 
+			 * Why 2 - 0?
+			 * This is because optional3 is at index 2 for the original arguments and index 0 for the DummyCommand.
 			 * 
-			 * One example of a weird behaviour is if you have a command, "prune", which takes one argument, amount (Integer),
-			 * and then you have an alternate command implementation which takes a keyword argument of the type String.
-			 * Now if the first method loads first everything works correctly as the argument can be checked if it is an integer 
-			 * and then move to the String variant.
-			 * If the second version is instead loaded first it will always take it as a keyword as the String parser just accepts any content given to it
-			 * and this causes the first version to become effectively inaccessible. 
+			 * This works, unsure of how well it works but it has been tested with
+			 * [optional, optional2, optional3, optional4] and [optional, required, optional2, required2]
 			 */
-			if(argumentCount == argumentCount2) {
-				for(int i = 0; i < argumentCount; i++) {
-					IArgument<?> argument;
-					if(arguments.size() > i) {
-						argument = arguments.get(i);
-					}else{
-						argument = arguments.get(arguments.size() - 1);
-					}
-					
-					IArgument<?> argument2;
-					if(arguments2.size() > i) {
-						argument2 = arguments2.get(i);
-					}else{
-						argument2 = arguments2.get(arguments2.size() - 1);
-					}
-					
-					int parsePriority = this.getPriority(argument.getType());
-					int parsePriority2 = this.getPriority(argument2.getType());
-					
-					if(parsePriority != parsePriority2) {
-						if(parsePriority > parsePriority2) {
-							return 1;
-						}else if(parsePriority < parsePriority2) {
-							return -1;
-						}
-					}
-				}
+			if(this.actualCommand != null && other.actualCommand != null && this.actualCommand.equals(other.actualCommand)) {
+				return Integer.compare(this.distance, other.distance);
 			}
-		}else if(argumentCount == 0 && argumentCount2 > 0) {
-			return 1;
-		}else if(argumentCount > 0 && argumentCount2 == 0) {
-			return -1;
-		}
-		
-		/* 
-		 * Check for case sensitivity, if it is case sensitive it is more specific and therefore goes first.
-		 * 
-		 * This could be useful if you, for instance, had a command called "ban" and then a case sensitive command called "Ban" 
-		 * to fake ban people.
-		 */
-		if(command.isCaseSensitive() && !command2.isCaseSensitive()) {
-			return -1;
-		}else if(!command.isCaseSensitive() && command2.isCaseSensitive()) {
-			return 1;
-		}
-		
-		/* 
-		 * TODO: This is hacky solution to fix the problem with inconsistent order of optional arguments.
-		 * 
-		 * This works by sorting it by the "distance" the arguments is from their original position, for instance
-		 * let's say the arguments are [optional, optional2 and optional3] and this DummyCommand has optional3 as its argument,
-		 * that would mean that the distance is 2 (2 - 0).
-		 * 
-		 * Why 2 - 0?
-		 * This is because optional3 is at index 2 for the original arguments and index 0 for the DummyCommand.
-		 * 
-		 * This works, unsure of how well it works but it has been tested with
-		 * [optional, optional2, optional3, optional4] and [optional, required, optional2, required2]
-		 */
-		if(command instanceof DummyCommand && command2 instanceof DummyCommand) {
-			ICommand actualCommand = ((DummyCommand) command).getActualCommand();
-			ICommand actualCommand2 = ((DummyCommand) command2).getActualCommand();
 			
-			if(actualCommand.equals(actualCommand2)) {
-				List<IArgument<?>> actualArguments = actualCommand.getArguments();
-				
-				int distance = 0, distance2 = 0;
-				for(int i = 0; i < arguments.size(); i++) {
-					distance += actualArguments.indexOf(arguments.get(i)) - i;
-				}
-				
-				for(int i = 0; i < arguments2.size(); i++) {
-					distance2 += actualArguments.indexOf(arguments2.get(i)) - i;
-				}
-				
-				return Integer.compare(distance, distance2);
-			}
+			return 0;
 		}
-		
-		return 0;
 	}
 }
\ No newline at end of file
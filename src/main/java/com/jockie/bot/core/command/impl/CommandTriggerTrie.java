@@ -0,0 +1,101 @@
+package com.jockie.bot.core.command.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.jockie.bot.core.command.CommandTrigger;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * An index of command triggers keyed on the (lower-cased) words of each trigger,
+ * for instance the trigger "mute all" would be stored under the path ["mute", "all"].
+ * <br><br>
+ * This allows the content of a message to be walked once to find every trigger which
+ * could possibly match it rather than checking the content against every single trigger.
+ * The case sensitivity ({@link com.jockie.bot.core.command.ICommand#isCaseSensitive()}) of the command
+ * is not taken in to account, the triggers returned still need to be checked against the content.
+ */
+public class CommandTriggerTrie {
+	
+	private static class Node {
+		
+		private final Map<String, Node> children = new HashMap<>();
+		
+		private final List<CommandTrigger> triggers = new ArrayList<>(1);
+		
+	}
+	
+	private final Node root = new Node();
+	
+	/**
+	 * @param triggers the triggers to index, the order of these will be kept for triggers with the same path
+	 */
+	public CommandTriggerTrie(@Nonnull List<CommandTrigger> triggers) {
+		Checks.noneNull(triggers, "triggers");
+		
+		for(CommandTrigger trigger : triggers) {
+			Node node = this.root;
+			for(String word : trigger.getTrigger().toLowerCase().split(" ", -1)) {
+				node = node.children.computeIfAbsent(word, (key) -> new Node());
+			}
+			
+			node.triggers.add(trigger);
+		}
+	}
+	
+	/**
+	 * Get all the triggers which could match the start of the provided content,
+	 * a trigger could match if each of its words are at the start of the content
+	 * and the last word is followed by either a space or the end of the content.
+	 * <br><br>
+	 * The longest (most specific) triggers are returned first.
+	 * 
+	 * @param content the content to find the triggers for, this should not include the prefix
+	 * 
+	 * @return the triggers which could match the provided content
+	 */
+	@Nonnull
+	public List<CommandTrigger> find(@Nonnull String content) {
+		Checks.notNull(content, "content");
+		
+		List<Node> path = new ArrayList<>(4);
+		
+		Node node = this.root;
+		for(int start = 0; start <= content.length();) {
+			int end = content.indexOf(' ', start);
+			if(end == -1) {
+				end = content.length();
+			}
+			
+			node = node.children.get(content.substring(start, end).toLowerCase());
+			if(node == null) {
+				break;
+			}
+			
+			path.add(node);
+			
+			start = end + 1;
+		}
+		
+		if(path.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		/*
+		 * A deeper node always has longer triggers than the nodes before it,
+		 * which means it is always more specific and has to be checked first
+		 */
+		List<CommandTrigger> triggers = new ArrayList<>();
+		for(int i = path.size() - 1; i >= 0; i--) {
+			triggers.addAll(path.get(i).triggers);
+		}
+		
+		return triggers;
+	}
+}
\ No newline at end of file
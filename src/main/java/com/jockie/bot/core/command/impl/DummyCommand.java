@@ -18,8 +18,10 @@ import com.jockie.bot.core.command.CommandTrigger;
 import com.jockie.bot.core.command.ICommand;
 import com.jockie.bot.core.command.factory.IComponentFactory;
 import com.jockie.bot.core.command.factory.impl.ComponentFactory;
+import com.jockie.bot.core.command.scheduler.Bulkhead;
 import com.jockie.bot.core.cooldown.ICooldown;
 import com.jockie.bot.core.option.IOption;
+import com.jockie.bot.core.option.OptionTable;
 import com.jockie.bot.core.utility.CommandUtility;
 
 import net.dv8tion.jda.api.Permission;
@@ -39,15 +41,19 @@ public class DummyCommand implements ICommand {
 	public static class AlternativeCommand extends DummyCommand {
 		
 		protected List<IOption<?>> options;
+		protected OptionTable optionTable;
 		
 		protected Method method;
 		protected Object invoker;
 		
+		protected volatile MethodCommandExecutor executor;
+		
 		public AlternativeCommand(ICommand command, Method method, Object invoker) {
 			IComponentFactory componentFactory = ComponentFactory.getDefault();
 			
 			this.arguments = Arrays.asList(componentFactory.createArguments(method));
 			this.options = Arrays.asList(componentFactory.createOptions(method));
+			this.optionTable = OptionTable.compile(this.options);
 			
 			this.command = command;
 			
@@ -56,7 +62,8 @@ public class DummyCommand implements ICommand {
 		}
 		
 		public void execute(CommandEvent event, Object... arguments) throws Throwable {
-			MethodCommandImpl.executeMethodCommand(this, this.invoker, this.method, event, arguments);
+			this.executor = MethodCommandExecutor.update(this.executor, this.method);
+			this.executor.execute(this, this.invoker, event, arguments);
 		}
 		
 		@Nonnull
@@ -64,6 +71,11 @@ public class DummyCommand implements ICommand {
 			return this.options;
 		}
 		
+		@Nonnull
+		public OptionTable getOptionTable() {
+			return this.optionTable;
+		}
+		
 		@Nonnull
 		public String getArgumentInfo() {
 			return ICommand.getArgumentInfo(this);
@@ -286,6 +298,12 @@ public class DummyCommand implements ICommand {
 		return this.command.getOptions();
 	}
 	
+	@Override
+	@Nonnull
+	public OptionTable getOptionTable() {
+		return this.command.getOptionTable();
+	}
+	
 	@Override
 	@Nonnull
 	public UnknownOptionPolicy getUnknownOptionPolicy() {
@@ -339,6 +357,23 @@ public class DummyCommand implements ICommand {
 		return this.command.getAsyncOrderingKey(event);
 	}
 	
+	@Override
+	@Nonnull
+	public AsyncThreadMode getAsyncThreadMode() {
+		return this.command.getAsyncThreadMode();
+	}
+	
+	@Override
+	@Nullable
+	public Bulkhead getBulkhead() {
+		return this.command.getBulkhead();
+	}
+	
+	@Override
+	public long getExecutionTimeout() {
+		return this.command.getExecutionTimeout();
+	}
+	
 	@Override
 	@Nullable
 	public <T> T getProperty(@Nonnull String name, @Nullable T defaultValue) {
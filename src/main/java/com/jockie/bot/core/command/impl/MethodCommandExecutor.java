@@ -0,0 +1,380 @@
+package com.jockie.bot.core.command.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+
+import com.jockie.bot.core.command.Context;
+import com.jockie.bot.core.command.ICommand;
+import com.jockie.bot.core.command.IMethodInvoker;
+import com.jockie.bot.core.command.factory.IMethodInvokerFactory;
+import com.jockie.bot.core.command.factory.impl.MethodInvokerFactory;
+import com.jockie.bot.core.command.manager.IContextManager;
+import com.jockie.bot.core.command.manager.IReturnManager;
+import com.jockie.bot.core.command.manager.impl.ContextManagerFactory;
+import com.jockie.bot.core.option.IOption;
+import com.jockie.bot.core.option.Option;
+import com.jockie.bot.core.option.OptionTable;
+import com.jockie.bot.core.utility.CommandUtility;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * A command method compiled for execution, the parameters of the method are inspected once to create a plan
+ * for how the arguments of each execution are assembled and the method itself is compiled in to an {@link IMethodInvoker}.
+ * Context parameters are resolved through functions compiled by the {@link IContextManager#compileContext(Parameter)}
+ * and options are looked up once per {@link OptionTable} of the command, assembling the arguments is a single pass
+ * over the parameters without any map lookups.
+ * <br><br>
+ * The plan depends on the {@link IContextManager} and its {@link IContextManager#getVersion() version} and the invoker depends on the
+ * {@link IMethodInvokerFactory}, the executor has to be re-compiled if either of these change, see {@link #isCompiledWith(IContextManager, IMethodInvokerFactory)}.
+ */
+public class MethodCommandExecutor {
+	
+	private static final Logger LOG = JDALogger.getLog(MethodCommandExecutor.class);
+	
+	private enum ParameterType {
+		/** A parsed argument which is passed as-is */
+		ARGUMENT,
+		/** A parsed argument which is wrapped in an {@link Optional} */
+		OPTIONAL_ARGUMENT,
+		/** A context parameter, provided by the {@link IContextManager} */
+		CONTEXT,
+		/** An option, annotated with {@link Option} */
+		OPTION;
+	}
+	
+	private static class OptionBinding {
+		
+		private final OptionTable optionTable;
+		private final IOption<?>[] options;
+		
+		private OptionBinding(OptionTable optionTable, IOption<?>[] options) {
+			this.optionTable = optionTable;
+			this.options = options;
+		}
+	}
+	
+	/**
+	 * Compile the provided method with the default {@link IContextManager} and {@link IMethodInvokerFactory}
+	 * 
+	 * @param method the command method to compile
+	 * 
+	 * @return the compiled command method
+	 */
+	@Nonnull
+	public static MethodCommandExecutor compile(@Nonnull Method method) {
+		return MethodCommandExecutor.compile(method, ContextManagerFactory.getDefault(), MethodInvokerFactory.getDefault());
+	}
+	
+	/**
+	 * @param method the command method to compile
+	 * @param contextManager the context manager used to determine and provide the context parameters
+	 * @param invokerFactory the factory used to compile the method
+	 * 
+	 * @return the compiled command method
+	 */
+	@Nonnull
+	public static MethodCommandExecutor compile(@Nonnull Method method, @Nonnull IContextManager contextManager, @Nonnull IMethodInvokerFactory invokerFactory) {
+		return new MethodCommandExecutor(method, contextManager, invokerFactory);
+	}
+	
+	/**
+	 * @param executor the previously compiled executor, may be null
+	 * @param method the command method
+	 * 
+	 * @return the provided executor if it was compiled from the provided method with the current default
+	 * {@link IContextManager} and {@link IMethodInvokerFactory}, otherwise the method compiled again
+	 */
+	@Nonnull
+	public static MethodCommandExecutor update(@Nullable MethodCommandExecutor executor, @Nonnull Method method) {
+		IContextManager contextManager = ContextManagerFactory.getDefault();
+		IMethodInvokerFactory invokerFactory = MethodInvokerFactory.getDefault();
+		
+		if(executor != null && executor.method.equals(method) && executor.isCompiledWith(contextManager, invokerFactory)) {
+			return executor;
+		}
+		
+		return MethodCommandExecutor.compile(method, contextManager, invokerFactory);
+	}
+	
+	private final Method method;
+	
+	private final IContextManager contextManager;
+	private final long contextVersion;
+	
+	private final IMethodInvokerFactory invokerFactory;
+	
+	private final IMethodInvoker methodInvoker;
+	
+	private final Parameter[] parameters;
+	private final ParameterType[] parameterTypes;
+	private final Function<CommandEvent, Object>[] contextFunctions;
+	private final String[] optionNames;
+	
+	private final int argumentCount;
+	private final boolean hasOptions;
+	
+	private volatile OptionBinding optionBinding;
+	
+	@SuppressWarnings("unchecked")
+	private MethodCommandExecutor(Method method, IContextManager contextManager, IMethodInvokerFactory invokerFactory) {
+		Checks.notNull(method, "method");
+		Checks.notNull(contextManager, "contextManager");
+		Checks.notNull(invokerFactory, "invokerFactory");
+		
+		this.method = method;
+		this.contextManager = contextManager;
+		this.contextVersion = contextManager.getVersion();
+		this.invokerFactory = invokerFactory;
+		
+		this.parameters = method.getParameters();
+		this.parameterTypes = new ParameterType[this.parameters.length];
+		this.contextFunctions = new Function[this.parameters.length];
+		this.optionNames = new String[this.parameters.length];
+		
+		Type[] genericTypes = method.getGenericParameterTypes();
+		
+		int argumentCount = 0;
+		boolean hasOptions = false;
+		for(int i = 0; i < this.parameters.length; i++) {
+			Parameter parameter = this.parameters[i];
+			
+			Option option = parameter.getAnnotation(Option.class);
+			if(option != null) {
+				this.parameterTypes[i] = ParameterType.OPTION;
+				this.optionNames[i] = option.value();
+				
+				hasOptions = true;
+			}else if(contextManager.isEnforcedContext(parameter.getParameterizedType()) || parameter.isAnnotationPresent(Context.class)) {
+				this.parameterTypes[i] = ParameterType.CONTEXT;
+				this.contextFunctions[i] = contextManager.compileContext(parameter);
+			}else{
+				/* TODO: Move this to some sort of implementation which will allow anyone to extend upon this idea */
+				Type genericType = genericTypes[i];
+				if(parameter.getType().isAssignableFrom(Optional.class) && genericType instanceof ParameterizedType
+						&& ((ParameterizedType) genericType).getActualTypeArguments().length > 0) {
+					
+					this.parameterTypes[i] = ParameterType.OPTIONAL_ARGUMENT;
+				}else{
+					this.parameterTypes[i] = ParameterType.ARGUMENT;
+				}
+				
+				argumentCount++;
+			}
+		}
+		
+		this.argumentCount = argumentCount;
+		this.hasOptions = hasOptions;
+		
+		this.methodInvoker = invokerFactory.create(method);
+	}
+	
+	/**
+	 * @return the command method this was compiled from
+	 */
+	@Nonnull
+	public Method getMethod() {
+		return this.method;
+	}
+	
+	/**
+	 * @return the amount of parsed arguments the command method takes, this excludes context and option parameters
+	 */
+	public int getArgumentCount() {
+		return this.argumentCount;
+	}
+	
+	/**
+	 * @param contextManager the context manager to check
+	 * @param invokerFactory the invoker factory to check
+	 * 
+	 * @return whether or not this was compiled with the provided context manager, at its current version, and invoker factory
+	 */
+	public boolean isCompiledWith(@Nullable IContextManager contextManager, @Nullable IMethodInvokerFactory invokerFactory) {
+		return this.contextManager == contextManager && this.contextVersion == contextManager.getVersion() && this.invokerFactory == invokerFactory;
+	}
+	
+	/* The options of the option parameters, these are only looked up again if the options of the command change */
+	private IOption<?>[] getOptions(ICommand command) {
+		OptionTable optionTable = command.getOptionTable();
+		
+		OptionBinding binding = this.optionBinding;
+		if(binding != null && binding.optionTable == optionTable) {
+			return binding.options;
+		}
+		
+		IOption<?>[] options = new IOption<?>[this.parameters.length];
+		for(int i = 0; i < options.length; i++) {
+			if(this.optionNames[i] == null) {
+				continue;
+			}
+			
+			for(IOption<?> option : optionTable.getOptions()) {
+				if(option.getName().equals(this.optionNames[i])) {
+					options[i] = option;
+					
+					break;
+				}
+			}
+		}
+		
+		this.optionBinding = new OptionBinding(optionTable, options);
+		
+		return options;
+	}
+	
+	private Object getOptionArgument(CommandEvent event, IOption<?> option, String name) {
+		if(option == null) {
+			throw new IllegalStateException("The option, " + name + ", specified in the annotation does not exist in the command");
+		}
+		
+		Object value = event.getOption(name);
+		if(value != null) {
+			return value;
+		}
+		
+		if(option.hasDefault()) {
+			value = option.getDefault(event);
+			if(value != null) {
+				return value;
+			}
+		}
+		
+		return CommandUtility.getDefaultValue(option.getType());
+	}
+	
+	/**
+	 * Execute the command method
+	 * 
+	 * @param command the command which is being executed
+	 * @param invoker the command method's invoker, if the command method is static this should be null
+	 * @param event the context to execute the command with
+	 * @param args the parsed arguments to execute the command with
+	 * 
+	 * @throws Throwable if the execution of the command fails
+	 */
+	public void execute(@Nonnull ICommand command, @Nullable Object invoker, @Nonnull CommandEvent event, @Nonnull Object... args) throws Throwable {
+		Checks.notNull(command, "command");
+		Checks.notNull(event, "event");
+		Checks.notNull(args, "args");
+		
+		if(args.length != this.argumentCount) {
+			this.handleExecutionFailure(event, args, new IllegalArgumentException("wrong number of arguments"));
+		}
+		
+		IOption<?>[] options = this.hasOptions ? this.getOptions(command) : null;
+		
+		Object[] arguments = new Object[this.parameters.length];
+		for(int i = 0, i2 = 0; i < arguments.length; i++) {
+			switch(this.parameterTypes[i]) {
+				case ARGUMENT: {
+					arguments[i] = args[i2++];
+					
+					break;
+				}
+				case OPTIONAL_ARGUMENT: {
+					arguments[i] = Optional.ofNullable(args[i2++]);
+					
+					break;
+				}
+				case CONTEXT: {
+					Object context = this.contextFunctions[i].apply(event);
+					if(context == null) {
+						throw new IllegalStateException("There is no context available for " + this.parameters[i].getType());
+					}
+					
+					arguments[i] = context;
+					
+					break;
+				}
+				case OPTION: {
+					arguments[i] = this.getOptionArgument(event, options[i], this.optionNames[i]);
+					
+					break;
+				}
+			}
+		}
+		
+		Object object;
+		try {
+			object = this.methodInvoker.invoke(invoker, arguments);
+		}catch(IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+			this.handleExecutionFailure(event, arguments, e);
+			
+			return;
+		}
+		
+		if(object != null) {
+			IReturnManager returnManager = event.getCommandListener().getReturnManager();
+			
+			if(!returnManager.perform(event, object)) {
+				LOG.warn("{} is an unsupported return type for a command method", object.getClass());
+			}
+		}
+	}
+	
+	private void handleExecutionFailure(CommandEvent event, Object[] arguments, Throwable throwable) throws Throwable {
+		if(throwable instanceof IllegalArgumentException) {
+			StringBuilder information = new StringBuilder();
+			information.append("Argument type mismatch for command \"" + event.getCommandTrigger() + "\"\n");
+			
+			information.append("\tArguments provided:\n");
+			for(Object argument : arguments) {
+				if(argument != null) {
+					information.append("\t\t" + argument.getClass().getName() + "\n");
+				}else{
+					information.append("\t\tnull\n");
+				}
+			}
+			
+			information.append("\tArguments expected:\n");
+			for(Class<?> type : this.method.getParameterTypes()) {
+				information.append("\t\t" + type.getName() + "\n");
+			}
+			
+			information.append("\tArgument values: " + Arrays.deepToString(arguments));
+			
+			throw new IllegalStateException(information.toString());
+		}
+		
+		if(throwable instanceof InvocationTargetException) {
+			Throwable cause = throwable.getCause();
+			if(cause == null) {
+				return;
+			}
+			
+			if(event.getCommandListener().isFilterStackTrace()) {
+				List<StackTraceElement> elements = List.of(cause.getStackTrace());
+				
+				int index = -1;
+				for(int i = 0; i < elements.size(); i++) {
+					StackTraceElement element = elements.get(i);
+					if(element.getClassName().equals(this.method.getDeclaringClass().getName()) && element.getMethodName().equals(this.method.getName())) {
+						index = i;
+					}
+				}
+				
+				if(index != -1) {
+					cause.setStackTrace(elements.subList(0, index + 1).toArray(new StackTraceElement[0]));
+				}
+			}
+			
+			throw cause;
+		}
+		
+		throw throwable;
+	}
+}
\ No newline at end of file
@@ -1,24 +1,16 @@
 package com.jockie.bot.core.command.impl;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-import org.slf4j.Logger;
-
 import com.jockie.bot.core.argument.IArgument;
 import com.jockie.bot.core.command.Command;
 import com.jockie.bot.core.command.Command.Async;
@@ -29,30 +21,35 @@ import com.jockie.bot.core.command.Command.Developer;
 import com.jockie.bot.core.command.Command.Hidden;
 import com.jockie.bot.core.command.Command.Nsfw;
 import com.jockie.bot.core.command.Command.Policy;
+import com.jockie.bot.core.command.Command.Timeout;
 import com.jockie.bot.core.command.CommandTrigger;
-import com.jockie.bot.core.command.Context;
 import com.jockie.bot.core.command.ICommand;
 import com.jockie.bot.core.command.IMethodCommand;
 import com.jockie.bot.core.command.factory.IComponentFactory;
 import com.jockie.bot.core.command.factory.impl.ComponentFactory;
-import com.jockie.bot.core.command.manager.IContextManager;
-import com.jockie.bot.core.command.manager.IReturnManager;
-import com.jockie.bot.core.command.manager.impl.ContextManagerFactory;
-import com.jockie.bot.core.option.IOption;
-import com.jockie.bot.core.option.Option;
-import com.jockie.bot.core.utility.CommandUtility;
+import com.jockie.bot.core.command.scheduler.Bulkhead;
 
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.internal.utils.Checks;
-import net.dv8tion.jda.internal.utils.JDALogger;
 
 public class MethodCommandImpl extends AbstractCommand implements IMethodCommand {
 	
-	private static final Logger LOG = JDALogger.getLog(MethodCommandImpl.class);
+	/* 
+	 * The executors compiled by executeMethodCommand, there is no per-command state to keep them in. They are kept
+	 * with the class declaring the method so that they can be collected together with the class once it is unloaded
+	 */
+	private static final ClassValue<Map<Method, MethodCommandExecutor>> EXECUTORS = new ClassValue<>() {
+		@Override
+		protected Map<Method, MethodCommandExecutor> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
 	
 	protected Method method;
 	protected Object invoker;
 	
+	protected volatile MethodCommandExecutor executor;
+	
 	protected List<DummyCommand> dummyCommands = Collections.emptyList();
 	
 	public MethodCommandImpl(String name) {
@@ -166,16 +163,29 @@ public class MethodCommandImpl extends AbstractCommand implements IMethodCommand
 	@Override
 	public void execute(CommandEvent event, Object... arguments) throws Throwable {
 		if(!this.isPassive()) {
-			MethodCommandImpl.executeMethodCommand(this, this.invoker, this.method, event, arguments);
+			this.executor = MethodCommandExecutor.update(this.executor, this.method);
+			this.executor.execute(this, this.invoker, event, arguments);
 		}
 	}
 	
+	protected static Bulkhead createBulkhead(int concurrencyLimit, int concurrencyQueueSize, String name) {
+		if(concurrencyLimit <= 0) {
+			return null;
+		}
+		
+		/* Bulkheads with a name are shared by the command listener which executes the command */
+		return new Bulkhead(name.length() > 0 ? name : null, concurrencyLimit, concurrencyQueueSize);
+	}
+	
 	protected void applyCommandAnnotation(Command annotation) {
 		this.setCooldownDuration(annotation.cooldown(), annotation.cooldownUnit());
 		this.setCooldownScope(annotation.cooldownScope());
 		
 		this.setExecuteAsync(annotation.async());
 		this.setAsyncOrderingKey(annotation.orderingKey().length() > 0 ? annotation.orderingKey() : null);
+		this.setAsyncThreadMode(annotation.threadMode());
+		this.setBulkhead(MethodCommandImpl.createBulkhead(annotation.concurrencyLimit(), annotation.concurrencyQueueSize(), annotation.bulkhead()));
+		this.setExecutionTimeout(annotation.timeout(), annotation.timeoutUnit());
 
 		this.setHidden(annotation.hidden());
 		this.setDeveloper(annotation.developer());
@@ -218,6 +228,17 @@ public class MethodCommandImpl extends AbstractCommand implements IMethodCommand
 			
 			this.setExecuteAsync(async.value());
 			this.setAsyncOrderingKey(async.orderingKey().length() > 0 ? async.orderingKey() : null);
+			this.setAsyncThreadMode(async.threadMode());
+			
+			if(async.concurrencyLimit() > 0) {
+				this.setBulkhead(MethodCommandImpl.createBulkhead(async.concurrencyLimit(), async.concurrencyQueueSize(), async.bulkhead()));
+			}
+		}
+		
+		if(this.method.isAnnotationPresent(Timeout.class)) {
+			Timeout timeout = this.method.getAnnotation(Timeout.class);
+			
+			this.setExecutionTimeout(timeout.value(), timeout.unit());
 		}
 		
 		if(this.method.isAnnotationPresent(Hidden.class)) {
@@ -258,111 +279,10 @@ public class MethodCommandImpl extends AbstractCommand implements IMethodCommand
 		}
 	}
 	
-	private static Set<Parameter> getContextParameters(IContextManager contextManager, Parameter[] parameters) {
-		Set<Parameter> contextParameters = new HashSet<>();
-		for(Parameter parameter : parameters) {
-			if(contextManager.isEnforcedContext(parameter.getParameterizedType())) {
-				contextParameters.add(parameter);
-			}else if(parameter.isAnnotationPresent(Context.class) || parameter.isAnnotationPresent(Option.class)) {
-				contextParameters.add(parameter);
-			}
-		}
-		
-		return contextParameters;
-	}
-	
-	private static Object getContextArgument(CommandEvent event, IContextManager contextManager, List<IOption<?>> options, Parameter parameter) {
-		Option annotation = parameter.getAnnotation(Option.class);
-		if(annotation == null) {
-			Object context = contextManager.getContext(event, parameter);
-			if(context == null) {
-				throw new IllegalStateException("There is no context available for " + parameter.getType());
-			}
-			
-			return context;
-		}
-		
-		IOption<?> option = options.stream()
-			.filter((opt) -> opt.getName().equals(annotation.value()))
-			.findFirst()
-			.orElse(null);
-		
-		if(option == null) {
-			throw new IllegalStateException("The option, " + annotation.value() + ", specified in the annotation does not exist in the command");
-		}
-		
-		Object value = event.getOption(annotation.value());
-		
-		DEFAULT:
-		if(value == null) {
-			if(option.hasDefault()) {
-				value = option.getDefault(event);
-			}
-			
-			if(value != null) {
-				break DEFAULT;
-			}
-			
-			return CommandUtility.getDefaultValue(option.getType());
-		}
-		
-		return value;
-	}
-	
-	private static void handleExecutionFailure(CommandEvent event, Object[] arguments, Method method,Throwable throwable) throws Throwable {
-		if(throwable instanceof IllegalArgumentException) {
-			StringBuilder information = new StringBuilder();
-			information.append("Argument type mismatch for command \"" + event.getCommandTrigger() + "\"\n");
-			
-			information.append("\tArguments provided:\n");
-			for(Object argument : arguments) {
-				if(argument != null) {
-					information.append("\t\t" + argument.getClass().getName() + "\n");
-				}else{
-					information.append("\t\tnull\n");
-				}
-			}
-			
-			information.append("\tArguments expected:\n");
-			for(Class<?> type : method.getParameterTypes()) {
-				information.append("\t\t" + type.getName() + "\n");
-			}
-			
-			information.append("\tArgument values: " + Arrays.deepToString(arguments));
-			
-			throw new IllegalStateException(information.toString());
-		}
-		
-		if(throwable instanceof InvocationTargetException) {
-			Throwable cause = throwable.getCause();
-			if(cause == null) {
-				return;
-			}
-			
-			if(event.getCommandListener().isFilterStackTrace()) {
-				List<StackTraceElement> elements = List.of(cause.getStackTrace());
-				
-				int index = -1;
-				for(int i = 0; i < elements.size(); i++) {
-					StackTraceElement element = elements.get(i);
-					if(element.getClassName().equals(method.getDeclaringClass().getName()) && element.getMethodName().equals(method.getName())) {
-						index = i;
-					}
-				}
-				
-				if(index != -1) {
-					cause.setStackTrace(elements.subList(0, index + 1).toArray(new StackTraceElement[0]));
-				}
-			}
-			
-			throw cause;
-		}
-		
-		throw throwable;
-	}
-	
 	/**
-	 * Execute a command from the provided method
+	 * Execute a command from the provided method, the method is compiled in to a {@link MethodCommandExecutor} the first time it is executed
+	 * and is only compiled again if the default {@link com.jockie.bot.core.command.manager.IContextManager IContextManager}
+	 * or {@link com.jockie.bot.core.command.factory.IMethodInvokerFactory IMethodInvokerFactory} has changed
 	 * 
 	 * @param command the command to execute
 	 * @param invoker the command method's invoker, if commandMethod is static this should be null
@@ -380,63 +300,15 @@ public class MethodCommandImpl extends AbstractCommand implements IMethodCommand
 		Checks.notNull(event, "event");
 		Checks.notNull(args, "args");
 		
-		IContextManager contextManager = ContextManagerFactory.getDefault();
-		
-		Parameter[] parameters = commandMethod.getParameters();
-		Type[] genericTypes = commandMethod.getGenericParameterTypes();
-		
-		Set<Parameter> contextParameters = MethodCommandImpl.getContextParameters(contextManager, parameters);
-		Object[] arguments = new Object[args.length + contextParameters.size()];
-		
-		List<IOption<?>> options = command.getOptions();
+		Map<Method, MethodCommandExecutor> executors = EXECUTORS.get(commandMethod.getDeclaringClass());
 		
-		for(int i = 0, i2 = 0; i < arguments.length; i++) {
-			Parameter parameter = parameters[i];
-			if(contextParameters.contains(parameter)) {
-				arguments[i] = MethodCommandImpl.getContextArgument(event, contextManager, options, parameter);
-				
-				continue;
-			}
-			
-			Object argument = args[i2++];
-			
-			/* TODO: Move this to some sort of implementation which will allow anyone to extend upon this idea */
-			Class<?> type = parameter.getType();
-			if(type.isAssignableFrom(Optional.class)) {
-				Type parameterType = genericTypes[i];
-				
-				/* TODO: Why do we catch the exception here? When would it throw something? */
-				try {
-					Type[] typeArguments = ((ParameterizedType) parameterType).getActualTypeArguments();
-					if(typeArguments.length > 0) {
-						arguments[i] = Optional.ofNullable(argument);
-					}
-				}catch(Throwable e) {
-					LOG.error(e.getMessage(), e);
-				}
-			}
-			
-			if(arguments[i] == null) {
-				arguments[i] = argument;
-			}
+		MethodCommandExecutor executor = executors.get(commandMethod);
+		MethodCommandExecutor updated = MethodCommandExecutor.update(executor, commandMethod);
+		if(updated != executor) {
+			executors.put(commandMethod, updated);
 		}
 		
-		try {
-			if(!commandMethod.canAccess(invoker)) {
-				commandMethod.setAccessible(true);
-			}
-			
-			Object object = commandMethod.invoke(invoker, arguments);
-			if(object != null) {
-				IReturnManager returnManager = event.getCommandListener().getReturnManager();
-				
-				if(!returnManager.perform(event, object)) {
-					LOG.warn("{} is an unsupported return type for a command method", object.getClass());
-				}
-			}
-		}catch(IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			MethodCommandImpl.handleExecutionFailure(event, arguments, commandMethod, e);
-		}
+		updated.execute(command, invoker, event, args);
 	}
 	
 	/**
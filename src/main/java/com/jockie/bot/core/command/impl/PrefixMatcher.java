@@ -0,0 +1,142 @@
+package com.jockie.bot.core.command.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * A compiled set of prefixes which can find the longest prefix at the start of a message in a single pass,
+ * without having to sort the prefixes or lower-case the content of the message.
+ * <br><br>
+ * The longest matching prefix always wins, with the prefixes "hello" and "hello there" the message
+ * "hello there ping" would be matched by "hello there" rather than "hello".
+ */
+public class PrefixMatcher {
+	
+	private static class Node {
+		
+		private char[] keys = new char[0];
+		private Node[] children = new Node[0];
+		
+		/* The prefix which ends at this node, if any */
+		private String prefix;
+		
+		private Node getChild(char character) {
+			for(int i = 0; i < this.keys.length; i++) {
+				if(this.keys[i] == character) {
+					return this.children[i];
+				}
+			}
+			
+			return null;
+		}
+		
+		private Node getOrCreateChild(char character) {
+			Node child = this.getChild(character);
+			if(child != null) {
+				return child;
+			}
+			
+			int length = this.keys.length;
+			
+			this.keys = Arrays.copyOf(this.keys, length + 1);
+			this.children = Arrays.copyOf(this.children, length + 1);
+			
+			this.keys[length] = character;
+			this.children[length] = child = new Node();
+			
+			return child;
+		}
+	}
+	
+	/**
+	 * Compile the provided prefixes
+	 * 
+	 * @param prefixes the prefixes to compile
+	 * @param caseSensitive whether or not the prefixes should be matched case-sensitively
+	 * 
+	 * @return the compiled prefixes
+	 */
+	@Nonnull
+	public static PrefixMatcher compile(@Nonnull Collection<String> prefixes, boolean caseSensitive) {
+		return new PrefixMatcher(prefixes, caseSensitive);
+	}
+	
+	private static char fold(char character, boolean caseSensitive) {
+		return caseSensitive ? character : Character.toLowerCase(character);
+	}
+	
+	private final Node root = new Node();
+	
+	private final List<String> prefixes;
+	
+	private final boolean caseSensitive;
+	
+	private PrefixMatcher(Collection<String> prefixes, boolean caseSensitive) {
+		Checks.noneNull(prefixes, "prefixes");
+		
+		this.prefixes = List.copyOf(prefixes);
+		this.caseSensitive = caseSensitive;
+		
+		for(String prefix : this.prefixes) {
+			char[] characters = prefix.toCharArray();
+			
+			Node node = this.root;
+			for(int i = 0; i < characters.length; i++) {
+				characters[i] = PrefixMatcher.fold(characters[i], caseSensitive);
+				
+				node = node.getOrCreateChild(characters[i]);
+			}
+			
+			node.prefix = new String(characters);
+		}
+	}
+	
+	/**
+	 * @param content the content to get the prefix from
+	 * 
+	 * @return the longest prefix which the provided content starts with,
+	 * this will be lower-cased if the prefixes are not case-sensitive,
+	 * or null if the content does not start with any of the prefixes
+	 */
+	@Nullable
+	public String match(@Nonnull String content) {
+		Checks.notNull(content, "content");
+		
+		Node node = this.root;
+		String prefix = node.prefix;
+		
+		for(int i = 0; i < content.length(); i++) {
+			node = node.getChild(PrefixMatcher.fold(content.charAt(i), this.caseSensitive));
+			if(node == null) {
+				break;
+			}
+			
+			if(node.prefix != null) {
+				prefix = node.prefix;
+			}
+		}
+		
+		return prefix;
+	}
+	
+	/**
+	 * @return the prefixes this was compiled from
+	 */
+	@Nonnull
+	public List<String> getPrefixes() {
+		return this.prefixes;
+	}
+	
+	/**
+	 * @return whether or not the prefixes are matched case-sensitively
+	 */
+	public boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+}
\ No newline at end of file
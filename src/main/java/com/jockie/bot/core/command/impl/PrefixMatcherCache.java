@@ -0,0 +1,194 @@
+package com.jockie.bot.core.command.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * A bounded cache of compiled prefixes ({@link PrefixMatcher}), this is used by the {@link CommandListener}
+ * to avoid calling the prefix function ({@link CommandListener#setPrefixesFunction(Function)}) for every message.
+ * <br><br>
+ * The entries are keyed by {@link #getKey(Message)}, which by default is the id of the guild or, for private messages,
+ * the id of the channel. If the prefix function returns prefixes based on anything else, such as the author,
+ * the key function has to be changed through {@link #setKeyFunction(Function)}.
+ */
+public class PrefixMatcherCache {
+	
+	/**
+	 * The default key function, the id of the guild for guild messages and the id of the channel for private messages
+	 */
+	public static final Function<Message, Object> DEFAULT_KEY_FUNCTION = (message) -> {
+		return message.isFromGuild() ? message.getGuild().getIdLong() : message.getChannel().getIdLong();
+	};
+	
+	private final Cache<Object, PrefixMatcher> cache;
+	
+	/* Incremented before any entry is invalidated, used to detect an invalidation while prefixes are being compiled */
+	private final AtomicLong generation = new AtomicLong();
+	
+	private Function<Message, Object> keyFunction = DEFAULT_KEY_FUNCTION;
+	
+	/**
+	 * @param maximumSize the maximum amount of entries, the least recently used entries are evicted first
+	 * @param expireAfter how long an entry is kept after it was created, 0 or less to never expire the entries
+	 * @param unit the unit of expireAfter
+	 */
+	public PrefixMatcherCache(long maximumSize, long expireAfter, @Nonnull TimeUnit unit) {
+		Checks.positive(maximumSize, "maximumSize");
+		Checks.notNull(unit, "unit");
+		
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+			.maximumSize(maximumSize);
+		
+		if(expireAfter > 0) {
+			builder.expireAfterWrite(expireAfter, unit);
+		}
+		
+		this.cache = builder.build();
+	}
+	
+	/**
+	 * @param maximumSize the maximum amount of entries, the least recently used entries are evicted first
+	 */
+	public PrefixMatcherCache(long maximumSize) {
+		this(maximumSize, 0, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * @param function the function used to get the key of a message,
+	 * messages with the same key are expected to have the same prefixes.
+	 * If the function returns null the prefixes of that message will not be cached
+	 * 
+	 * @return the {@link PrefixMatcherCache} instance, useful for chaining
+	 */
+	@Nonnull
+	public PrefixMatcherCache setKeyFunction(@Nonnull Function<Message, Object> function) {
+		Checks.notNull(function, "function");
+		
+		this.keyFunction = function;
+		this.invalidateAll();
+		
+		return this;
+	}
+	
+	/**
+	 * @return the function used to get the key of a message
+	 */
+	@Nonnull
+	public Function<Message, Object> getKeyFunction() {
+		return this.keyFunction;
+	}
+	
+	/**
+	 * @param message the message to get the key for
+	 * 
+	 * @return the key of the provided message
+	 */
+	@Nullable
+	public Object getKey(@Nonnull Message message) {
+		return this.keyFunction.apply(message);
+	}
+	
+	/**
+	 * Get the cached prefixes for the provided message,
+	 * or compile and cache them if they are not cached
+	 * 
+	 * @param message the message to get the prefixes for
+	 * @param compileFunction the function used to compile the prefixes if they are not cached
+	 * 
+	 * @return the compiled prefixes
+	 */
+	@Nonnull
+	public PrefixMatcher get(@Nonnull Message message, @Nonnull Function<Message, PrefixMatcher> compileFunction) {
+		Checks.notNull(message, "message");
+		Checks.notNull(compileFunction, "compileFunction");
+		
+		Object key = this.getKey(message);
+		if(key == null) {
+			return compileFunction.apply(message);
+		}
+		
+		PrefixMatcher matcher = this.cache.getIfPresent(key);
+		if(matcher == null) {
+			long generation = this.generation.get();
+			
+			/* Not done atomically as the compile function may call a slow, user provided, function */
+			matcher = compileFunction.apply(message);
+			
+			this.cache.put(key, matcher);
+			
+			/* 
+			 * The prefixes may have been invalidated while they were being compiled, in which case the compiled prefixes
+			 * could be outdated and are removed again. Any invalidation after this check removes them itself
+			 */
+			if(this.generation.get() != generation) {
+				this.cache.asMap().remove(key, matcher);
+			}
+		}
+		
+		return matcher;
+	}
+	
+	/**
+	 * Invalidate the cached prefixes for the provided key,
+	 * this should be called whenever the prefixes for the key change
+	 * 
+	 * @param key the key to invalidate
+	 * 
+	 * @return the {@link PrefixMatcherCache} instance, useful for chaining
+	 */
+	@Nonnull
+	public PrefixMatcherCache invalidate(@Nonnull Object key) {
+		Checks.notNull(key, "key");
+		
+		this.generation.incrementAndGet();
+		this.cache.invalidate(key);
+		
+		return this;
+	}
+	
+	/**
+	 * Invalidate the cached prefixes for the provided guild or channel,
+	 * this is only relevant for the default key function
+	 * 
+	 * @param snowflake the guild or channel to invalidate the prefixes for
+	 * 
+	 * @return the {@link PrefixMatcherCache} instance, useful for chaining
+	 */
+	@Nonnull
+	public PrefixMatcherCache invalidate(@Nonnull ISnowflake snowflake) {
+		Checks.notNull(snowflake, "snowflake");
+		
+		return this.invalidate((Object) snowflake.getIdLong());
+	}
+	
+	/**
+	 * Invalidate all the cached prefixes
+	 * 
+	 * @return the {@link PrefixMatcherCache} instance, useful for chaining
+	 */
+	@Nonnull
+	public PrefixMatcherCache invalidateAll() {
+		this.generation.incrementAndGet();
+		this.cache.invalidateAll();
+		
+		return this;
+	}
+	
+	/**
+	 * @return the approximate amount of cached entries
+	 */
+	public long size() {
+		return this.cache.size();
+	}
+}
\ No newline at end of file
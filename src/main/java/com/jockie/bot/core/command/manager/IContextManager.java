@@ -3,6 +3,7 @@ package com.jockie.bot.core.command.manager;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -45,6 +46,28 @@ public interface IContextManager {
 	@Nullable
 	public <T> T getContext(@Nonnull CommandEvent event, @Nonnull Parameter parameter);
 	
+	/**
+	 * Compile how the context of the provided parameter is resolved, this allows the lookup of the context provider
+	 * to be done once rather than every time the context is requested. The returned function is the equivalent of
+	 * {@link #getContext(CommandEvent, Parameter)} but is only valid as long as {@link #getVersion()} does not change.
+	 * 
+	 * @param parameter the parameter to compile the context of
+	 * 
+	 * @return a function which gets the context of the provided parameter from an event
+	 */
+	@Nonnull
+	public default Function<CommandEvent, Object> compileContext(@Nonnull Parameter parameter) {
+		return (event) -> this.getContext(event, parameter);
+	}
+	
+	/**
+	 * @return a number which changes every time a context is registered, unregistered or changed,
+	 * anything compiled with {@link #compileContext(Parameter)} has to be compiled again when this changes
+	 */
+	public default long getVersion() {
+		return 0L;
+	}
+	
 	/**
 	 * @param type the type of the context
 	 * 
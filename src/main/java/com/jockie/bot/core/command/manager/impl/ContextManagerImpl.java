@@ -2,12 +2,14 @@ package com.jockie.bot.core.command.manager.impl;
 
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -121,10 +123,57 @@ public class ContextManagerImpl implements IContextManager {
 		this.unregisterContext(PrivateChannelImpl.class);
 	}
 	
-	private Map<Type, ContextProvider<?>> contextProviders = new HashMap<>();
+	/* 
+	 * The providers found through inheritance for each type, this is a snapshot of the providers which handle
+	 * inheritance and is replaced whenever the contexts change, which means that looking up a context never has to lock.
+	 * This is not a ClassValue as the resolved providers would keep the manager reachable from every type it has resolved.
+	 */
+	private static class InheritanceResolver {
+		
+		private final long version;
+		
+		private final List<ContextProvider<?>> handleInheritance;
+		
+		private final Map<Class<?>, Optional<ContextProvider<?>>> resolved = new ConcurrentHashMap<>();
+		
+		private InheritanceResolver(long version, Set<ContextProvider<?>> handleInheritance) {
+			this.version = version;
+			this.handleInheritance = List.copyOf(handleInheritance);
+		}
+		
+		private Optional<ContextProvider<?>> get(Class<?> type) {
+			/* Checked before computeIfAbsent as it locks even if the type has already been resolved */
+			Optional<ContextProvider<?>> provider = this.resolved.get(type);
+			if(provider != null) {
+				return provider;
+			}
+			
+			return this.resolved.computeIfAbsent(type, this::resolve);
+		}
+		
+		private Optional<ContextProvider<?>> resolve(Class<?> type) {
+			for(ContextProvider<?> inheritenceProvider : this.handleInheritance) {
+				Class<?> providerType = (Class<?>) inheritenceProvider.getType();
+				
+				if(CommandUtility.isInstanceOf(providerType, type)) {
+					return Optional.of(inheritenceProvider);
+				}
+			}
+			
+			return Optional.empty();
+		}
+	}
 	
-	private Set<ContextProvider<?>> handleInheritance = new LinkedHashSet<>();
-	private Map<Type, Type> inheritanceCache = new HashMap<>();
+	private Map<Type, ContextProvider<?>> contextProviders = new ConcurrentHashMap<>();
+	
+	private Set<ContextProvider<?>> handleInheritance = new CopyOnWriteArraySet<>();
+	
+	private volatile InheritanceResolver inheritanceResolver = new InheritanceResolver(0L, Set.of());
+	
+	/* Has to be called after every change to the contexts */
+	private synchronized void invalidate() {
+		this.inheritanceResolver = new InheritanceResolver(this.inheritanceResolver.version + 1, this.handleInheritance);
+	}
 	
 	@SuppressWarnings("unchecked")
 	private <T> ContextProvider<T> getContextProvider(Type type) {
@@ -154,16 +203,7 @@ public class ContextManagerImpl implements IContextManager {
 			return null;
 		}
 		
-		Class<?> firstType = (Class<?>) type;
-		for(ContextProvider<?> inheritenceProvider : this.handleInheritance) {
-			Class<?> secondType = (Class<?>) inheritenceProvider.getType();
-			
-			if(CommandUtility.isInstanceOf(secondType, firstType)) {
-				return inheritenceProvider;
-			}
-		}
-		
-		return null;
+		return this.inheritanceResolver.get((Class<?>) type).orElse(null);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -195,18 +235,11 @@ public class ContextManagerImpl implements IContextManager {
 		}
 		
 		if(!initialProvider) {
-			Type cachedType = this.inheritanceCache.get(type);
-			if(cachedType != null) {
-				provider = this.getContextProvider(cachedType);
-				return this.getContext(event, provider, cachedType, parameter);
-			}
-			
 			provider = (ContextProvider<T>) this.getInheritenceProvider(type);
 			if(provider == null) {
 				return null;
 			}
 			
-			this.inheritanceCache.put(type, provider.getType());
 			return this.getContext(event, provider, type, parameter);
 		}
 		
@@ -225,6 +258,62 @@ public class ContextManagerImpl implements IContextManager {
 		return this.getContext(event, null, parameter.getParameterizedType(), parameter);
 	}
 	
+	private static Function<CommandEvent, Object> compileContext(ContextProvider<?> provider, Type type, Parameter parameter) {
+		if(provider == null) {
+			return null;
+		}
+		
+		TriFunction<CommandEvent, Parameter, Type, ?> parameterizedFunction = provider.getParameterizedContextFunction();
+		if(parameterizedFunction != null) {
+			return (event) -> parameterizedFunction.apply(event, parameter, type);
+		}
+		
+		BiFunction<CommandEvent, Type, ?> function = provider.getContextFunction();
+		if(function != null) {
+			return (event) -> function.apply(event, type);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * The provider of the context is looked up once, including any provider found through inheritance,
+	 * the returned function calls the function of that provider directly.
+	 */
+	@Override
+	@Nonnull
+	public Function<CommandEvent, Object> compileContext(@Nonnull Parameter parameter) {
+		Checks.notNull(parameter, "parameter");
+		
+		Type type = parameter.getParameterizedType();
+		
+		Function<CommandEvent, Object> function = ContextManagerImpl.compileContext(this.getContextProvider(type), type, parameter);
+		if(function == null) {
+			function = ContextManagerImpl.compileContext(this.getInheritenceProvider(type), type, parameter);
+		}
+		
+		Function<CommandEvent, Object> contextFunction = function != null ? function : (event) -> null;
+		if(!(type instanceof Class)) {
+			return contextFunction;
+		}
+		
+		/* The command depends on the event, see getContextProvider(CommandEvent, Type) */
+		Class<?> clazz = (Class<?>) type;
+		return (event) -> {
+			ICommand command = event.getCommand();
+			if(clazz.isInstance(command)) {
+				return command;
+			}
+			
+			return contextFunction.apply(event);
+		};
+	}
+	
+	@Override
+	public long getVersion() {
+		return this.inheritanceResolver.version;
+	}
+	
 	public boolean isEnforcedContext(@Nonnull Type type) {
 		Checks.notNull(type, "type");
 		
@@ -237,13 +326,16 @@ public class ContextManagerImpl implements IContextManager {
 	}
 	
 	@Nonnull
-	public ContextManagerImpl setEnforcedContext(@Nonnull Type type, boolean enforced) {
+	public synchronized ContextManagerImpl setEnforcedContext(@Nonnull Type type, boolean enforced) {
+		Checks.notNull(type, "type");
+		
 		ContextProvider<?> provider = this.getContextProvider(type);
 		if(provider == null) {
 			throw new IllegalArgumentException(type.getTypeName() + " is not a registered context");
 		}
 		
 		provider.setEnforced(enforced);
+		this.invalidate();
 		
 		return this;
 	}
@@ -260,7 +352,7 @@ public class ContextManagerImpl implements IContextManager {
 	}
 	
 	@Nonnull
-	public ContextManagerImpl setHandleInheritance(@Nonnull Type type, boolean handle) {
+	public synchronized ContextManagerImpl setHandleInheritance(@Nonnull Type type, boolean handle) {
 		Checks.notNull(type, "type");
 		
 		if(!(type instanceof Class)) {
@@ -280,27 +372,23 @@ public class ContextManagerImpl implements IContextManager {
 			this.handleInheritance.remove(provider);
 		}
 		
-		/* Re-compute cache */
-		for(Entry<Type, Type> entry : this.inheritanceCache.entrySet()) {
-			provider = this.getInheritenceProvider(entry.getKey());
-			
-			this.inheritanceCache.put(entry.getKey(), provider != null ? provider.getType() : null);
-		}
+		this.invalidate();
 		
 		return this;
 	}
 	
 	@Nonnull
-	public ContextManagerImpl unregisterContext(@Nonnull Type type) {
+	public synchronized ContextManagerImpl unregisterContext(@Nonnull Type type) {
 		Checks.notNull(type, "type");
 		
 		this.handleInheritance.remove(this.contextProviders.remove(type));
+		this.invalidate();
 		
 		return this;
 	}
 	
 	@Nonnull
-	public <T> ContextManagerImpl registerContext(@Nonnull Type type, @Nonnull TriFunction<CommandEvent, Parameter, Type, T> function) {
+	public synchronized <T> ContextManagerImpl registerContext(@Nonnull Type type, @Nonnull TriFunction<CommandEvent, Parameter, Type, T> function) {
 		Checks.notNull(type, "type");
 		Checks.notNull(function, "function");
 		
@@ -309,9 +397,10 @@ public class ContextManagerImpl implements IContextManager {
 			provider.setContextFunction(function);
 		}else{
 			this.contextProviders.put(type, new ContextProvider<>(type, function));
-			this.inheritanceCache.remove(type);
 		}
 		
+		this.invalidate();
+		
 		return this;
 	}
 	
@@ -323,7 +412,7 @@ public class ContextManagerImpl implements IContextManager {
 	}
 	
 	@Nonnull
-	public <T> ContextManagerImpl registerContext(@Nonnull Type type, @Nonnull BiFunction<CommandEvent, Type, T> function) {
+	public synchronized <T> ContextManagerImpl registerContext(@Nonnull Type type, @Nonnull BiFunction<CommandEvent, Type, T> function) {
 		Checks.notNull(type, "type");
 		Checks.notNull(function, "function");
 		
@@ -334,6 +423,8 @@ public class ContextManagerImpl implements IContextManager {
 			this.contextProviders.put(type, new ContextProvider<>(type, function));
 		}
 		
+		this.invalidate();
+		
 		return this;
 	}
 	
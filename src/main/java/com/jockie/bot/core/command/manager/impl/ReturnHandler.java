@@ -8,9 +8,9 @@ class ReturnHandler<T> {
 	
 	private Class<?> type;
 	
-	private BiConsumer<CommandEvent, T> returnHandler;
+	private volatile BiConsumer<CommandEvent, T> returnHandler;
 	
-	private boolean handleInheritence;
+	private volatile boolean handleInheritence;
 	
 	public ReturnHandler(Class<?> type, BiConsumer<CommandEvent, T> returnHandler) {
 		this.type = type;
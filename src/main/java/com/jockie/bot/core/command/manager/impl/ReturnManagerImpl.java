@@ -1,27 +1,35 @@
 package com.jockie.bot.core.command.manager.impl;
 
 import java.io.File;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.BiConsumer;
 
 import javax.annotation.Nonnull;
 
+import org.slf4j.Logger;
+
 import com.jockie.bot.core.command.impl.CommandEvent;
 import com.jockie.bot.core.command.manager.IReturnManager;
 import com.jockie.bot.core.utility.CommandUtility;
 
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
 
 public class ReturnManagerImpl implements IReturnManager {
 	
+	private static final Logger LOG = JDALogger.getLog(ReturnManagerImpl.class);
+	
 	public ReturnManagerImpl() {
 		this.registerDefaultHandlers();
 	}
@@ -43,12 +51,112 @@ public class ReturnManagerImpl implements IReturnManager {
 			.setHandleInheritance(FileUpload.class, true);
 		
 		this.registerHandler(File.class, (event, value) -> event.replyFile(value).queue());
+		
+		/* Asynchronous results are handled once they complete, without blocking the thread which executed the command */
+		this.registerHandler(CompletionStage.class, (event, value) -> this.performAsync(event, value))
+			.setHandleInheritance(CompletionStage.class, true);
+		
+		/* 
+		 * Only the completion of the action is waited for, its result is not handled as the action itself is usually the response,
+		 * handling the message of event.reply("...") would reply a second time
+		 */
+		this.registerHandler(RestAction.class, (event, value) -> event.setAsyncResult(value.submit()))
+			.setHandleInheritance(RestAction.class, true);
+	}
+	
+	/**
+	 * Defer the completion of the command to the provided stage ({@link CommandEvent#setAsyncResult(CompletionStage)})
+	 * and handle its result, the same way as if it had been returned by the command, once it completes
+	 * 
+	 * @param event the context of the command
+	 * @param stage the asynchronous result of the command
+	 */
+	protected void performAsync(@Nonnull CommandEvent event, @Nonnull CompletionStage<?> stage) {
+		event.setAsyncResult(stage.thenAccept((value) -> {
+			/* The command timed out, or was otherwise cancelled, while its result was being computed */
+			if(event.isCancelled()) {
+				return;
+			}
+			
+			if(value != null && !this.perform(event, value)) {
+				LOG.warn("{} is an unsupported asynchronous result type for a command", value.getClass());
+			}
+		}));
+	}
+	
+	/**
+	 * The handlers resolved for each type, this is a snapshot of the registered handlers which is replaced
+	 * whenever they change, which means that {@link #perform(CommandEvent, Object)} never has to lock.
+	 * <br><br>
+	 * This is not a {@link ClassValue} as the resolved handlers reference the manager's handlers, which would keep
+	 * the manager, and anything it references, reachable from every type it has resolved.
+	 */
+	protected static class HandlerResolver {
+		
+		protected final long version;
+		
+		protected final Map<Class<?>, ReturnHandler<?>> returnHandlers;
+		protected final List<ReturnHandler<?>> handleInheritance;
+		
+		protected final Map<Class<?>, Optional<ReturnHandler<?>>> resolved = new ConcurrentHashMap<>();
+		
+		protected HandlerResolver(long version, Map<Class<?>, ReturnHandler<?>> returnHandlers, Set<ReturnHandler<?>> handleInheritance) {
+			this.version = version;
+			this.returnHandlers = Map.copyOf(returnHandlers);
+			this.handleInheritance = List.copyOf(handleInheritance);
+		}
+		
+		protected Optional<ReturnHandler<?>> get(Class<?> type) {
+			/* Checked before computeIfAbsent as it locks even if the type has already been resolved */
+			Optional<ReturnHandler<?>> handler = this.resolved.get(type);
+			if(handler != null) {
+				return handler;
+			}
+			
+			return this.resolved.computeIfAbsent(type, this::resolve);
+		}
+		
+		protected Optional<ReturnHandler<?>> resolve(Class<?> type) {
+			ReturnHandler<?> handler = this.returnHandlers.get(type);
+			if(handler != null) {
+				return Optional.of(handler);
+			}
+			
+			for(ReturnHandler<?> inheritanceHandler : this.handleInheritance) {
+				if(CommandUtility.isInstanceOf(type, inheritanceHandler.getType())) {
+					return Optional.of(inheritanceHandler);
+				}
+			}
+			
+			return Optional.empty();
+		}
 	}
 	
-	protected Map<Class<?>, ReturnHandler<?>> returnHandlers = new HashMap<>();
+	/* 
+	 * The registered handlers, these are only read by perform through the handlerResolver snapshot,
+	 * invalidateHandlers has to be called after any change made to them for it to take effect
+	 */
+	protected final Map<Class<?>, ReturnHandler<?>> returnHandlers = new ConcurrentHashMap<>();
 	
-	protected Set<ReturnHandler<?>> handleInheritance = new LinkedHashSet<>();
-	protected Map<Class<?>, Class<?>> inheritanceCache = new HashMap<>();
+	protected final Set<ReturnHandler<?>> handleInheritance = new CopyOnWriteArraySet<>();
+	
+	protected volatile HandlerResolver handlerResolver = new HandlerResolver(0L, Map.of(), Set.of());
+	
+	/**
+	 * Replace the resolved handlers, this has to be called after every change to the registered handlers,
+	 * including changes made directly to {@link #returnHandlers} or {@link #handleInheritance}, as {@link #perform(CommandEvent, Object)}
+	 * only uses the handlers which were registered the last time this was called
+	 */
+	protected synchronized void invalidateHandlers() {
+		this.handlerResolver = new HandlerResolver(this.handlerResolver.version + 1, this.returnHandlers, this.handleInheritance);
+	}
+	
+	/**
+	 * @return the version of the resolved handlers, this changes every time a handler is registered, unregistered or changed
+	 */
+	public long getVersion() {
+		return this.handlerResolver.version;
+	}
 	
 	@SuppressWarnings("unchecked")
 	protected <T> ReturnHandler<T> getReturnHandler(Class<?> type) {
@@ -74,26 +182,7 @@ public class ReturnManagerImpl implements IReturnManager {
 		Checks.notNull(event, "event");
 		Checks.notNull(object, "object");
 		
-		Class<?> type = object.getClass();
-		
-		ReturnHandler<T> handler = this.getReturnHandler(type);
-		if(handler != null) {
-			handler.getReturnHandler().accept(event, object);
-			
-			return true;
-		}
-		
-		Class<?> cachedType = this.inheritanceCache.get(type);
-		if(cachedType != null) {
-			handler = this.getReturnHandler(cachedType);
-			handler.getReturnHandler().accept(event, object);
-			
-			return true;
-		}
-		
-		handler = (ReturnHandler<T>) this.getInheritanceHandler(type);
-		this.inheritanceCache.put(type, handler != null ? handler.getType() : null);
-		
+		ReturnHandler<T> handler = (ReturnHandler<T>) this.handlerResolver.get(object.getClass()).orElse(null);
 		if(handler != null) {
 			handler.getReturnHandler().accept(event, object);
 			
@@ -104,16 +193,17 @@ public class ReturnManagerImpl implements IReturnManager {
 	}
 	
 	@Nonnull
-	public ReturnManagerImpl unregisterHandler(@Nonnull Class<?> type) {
+	public synchronized ReturnManagerImpl unregisterHandler(@Nonnull Class<?> type) {
 		Checks.notNull(type, "type");
 		
 		this.handleInheritance.remove(this.returnHandlers.remove(type));
+		this.invalidateHandlers();
 		
 		return this;
 	}
 	
 	@Nonnull
-	public <T> ReturnManagerImpl registerHandler(@Nonnull Class<T> type, @Nonnull BiConsumer<CommandEvent, T> function) {
+	public synchronized <T> ReturnManagerImpl registerHandler(@Nonnull Class<T> type, @Nonnull BiConsumer<CommandEvent, T> function) {
 		Checks.notNull(type, "type");
 		Checks.notNull(function, "function");
 		
@@ -122,9 +212,10 @@ public class ReturnManagerImpl implements IReturnManager {
 			handler.setReturnHandler(function);
 		}else{
 			this.returnHandlers.put(type, new ReturnHandler<T>(type, function));
-			this.inheritanceCache.remove(type);
 		}
 		
+		this.invalidateHandlers();
+		
 		return this;
 	}
 	
@@ -140,7 +231,7 @@ public class ReturnManagerImpl implements IReturnManager {
 	}
 	
 	@Nonnull
-	public ReturnManagerImpl setHandleInheritance(@Nonnull Class<?> type, boolean handle) {
+	public synchronized ReturnManagerImpl setHandleInheritance(@Nonnull Class<?> type, boolean handle) {
 		Checks.notNull(type, "type");
 		
 		ReturnHandler<?> handler = this.returnHandlers.get(type);
@@ -156,12 +247,7 @@ public class ReturnManagerImpl implements IReturnManager {
 			this.handleInheritance.remove(handler);
 		}
 		
-		/* Re-compute cache */
-		for(Entry<Class<?>, Class<?>> entry : this.inheritanceCache.entrySet()) {
-			handler = this.getInheritanceHandler(entry.getKey());
-			
-			this.inheritanceCache.put(entry.getKey(), handler != null ? handler.getType() : null);
-		}
+		this.invalidateHandlers();
 		
 		return this;
 	}
@@ -26,4 +26,14 @@ public interface ICommandParser {
 	 */
 	public CommandEvent parse(CommandListener listener, ICommand command, Message message, String prefix, String trigger, String contentToParse, long timeStarted) throws ParseException;
 	
+	/**
+	 * Whether or not this parser handles arguments with a default value ({@link com.jockie.bot.core.argument.IArgument#hasDefault()}) itself,
+	 * if it does the {@link com.jockie.bot.core.command.impl.DummyCommand DummyCommands} generated for the optional arguments
+	 * will not be attempted by the {@link CommandListener}.
+	 * 
+	 * @return whether or not this parser handles optional arguments
+	 */
+	public default boolean isHandleOptionalArguments() {
+		return false;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package com.jockie.bot.core.command.parser;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jockie.bot.core.argument.IArgument;
+import com.jockie.bot.core.command.exception.parser.ArgumentParseException;
+import com.jockie.bot.core.parser.ParsedResult;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * Stored in place of an argument by the command parser when the argument was parsed by an
+ * {@link com.jockie.bot.core.parser.IAsyncParser asynchronous parser}, every pending argument is
+ * replaced with the actual value by {@link #resolve(Object[])} before the command is executed.
+ * <br><br>
+ * <b style="color: red">Used internally, use at your own risk</b>
+ */
+public class PendingArgument {
+	
+	/**
+	 * @param arguments the parsed arguments
+	 * 
+	 * @return whether or not any of the arguments are pending
+	 */
+	public static boolean isPending(@Nonnull Object[] arguments) {
+		return PendingArgument.getFirstPending(arguments) != null;
+	}
+	
+	/**
+	 * @param arguments the parsed arguments
+	 * 
+	 * @return the first argument which is still pending or null if there is no such argument
+	 */
+	@Nullable
+	public static PendingArgument getFirstPending(@Nonnull Object[] arguments) {
+		Checks.notNull(arguments, "arguments");
+		
+		for(Object argument : arguments) {
+			if(argument instanceof PendingArgument) {
+				return (PendingArgument) argument;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Resolve every pending argument concurrently, each pending argument is replaced, in the provided array,
+	 * with the actual value as soon as it completes.
+	 * 
+	 * @param arguments the parsed arguments
+	 * 
+	 * @return a future which completes once every pending argument has been replaced or exceptionally,
+	 * with an {@link ArgumentParseException}, as soon as any of them is invalid or fails
+	 */
+	@Nonnull
+	public static CompletableFuture<Void> resolve(@Nonnull Object[] arguments) {
+		Checks.notNull(arguments, "arguments");
+		
+		int pending = 0;
+		for(Object argument : arguments) {
+			if(argument instanceof PendingArgument) {
+				pending++;
+			}
+		}
+		
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		if(pending == 0) {
+			future.complete(null);
+			
+			return future;
+		}
+		
+		/* Completing the counter publishes every value written to the array to whoever observes the future */
+		AtomicInteger remaining = new AtomicInteger(pending);
+		for(int i = 0; i < arguments.length; i++) {
+			if(!(arguments[i] instanceof PendingArgument)) {
+				continue;
+			}
+			
+			PendingArgument argument = (PendingArgument) arguments[i];
+			int index = i;
+			
+			argument.result.whenComplete((result, throwable) -> {
+				if(throwable != null || result == null || !result.isValid() || result.isPending()) {
+					future.completeExceptionally(argument.createException());
+					
+					return;
+				}
+				
+				arguments[index] = result.getObject();
+				
+				if(remaining.decrementAndGet() == 0) {
+					future.complete(null);
+				}
+			});
+		}
+		
+		return future;
+	}
+	
+	private final ParseContext context;
+	private final IArgument<?> argument;
+	private final String content;
+	
+	private final CompletionStage<? extends ParsedResult<?>> result;
+	
+	public PendingArgument(@Nonnull ParseContext context, @Nonnull IArgument<?> argument, @Nonnull String content, @Nonnull CompletionStage<? extends ParsedResult<?>> result) {
+		Checks.notNull(context, "context");
+		Checks.notNull(argument, "argument");
+		Checks.notNull(content, "content");
+		Checks.notNull(result, "result");
+		
+		this.context = context;
+		this.argument = argument;
+		this.content = content;
+		this.result = result;
+	}
+	
+	/**
+	 * @return the context the argument was parsed in
+	 */
+	@Nonnull
+	public ParseContext getContext() {
+		return this.context;
+	}
+	
+	/**
+	 * @return the argument which is pending
+	 */
+	@Nonnull
+	public IArgument<?> getArgument() {
+		return this.argument;
+	}
+	
+	/**
+	 * @return the content which was parsed
+	 */
+	@Nonnull
+	public String getContent() {
+		return this.content;
+	}
+	
+	/**
+	 * @return the stage which completes with the actual result
+	 */
+	@Nonnull
+	public CompletionStage<? extends ParsedResult<?>> getResult() {
+		return this.result;
+	}
+	
+	/**
+	 * @return the exception which describes the argument failing to parse
+	 */
+	@Nonnull
+	public ArgumentParseException createException() {
+		return new ArgumentParseException(this.context, this.argument, this.content);
+	}
+}
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.jockie.bot.core.command.parser.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,10 +34,16 @@ import com.jockie.bot.core.command.impl.CommandEvent;
 import com.jockie.bot.core.command.impl.CommandListener;
 import com.jockie.bot.core.command.parser.ICommandParser;
 import com.jockie.bot.core.command.parser.ParseContext;
+import com.jockie.bot.core.command.parser.PendingArgument;
 import com.jockie.bot.core.option.IOption;
+import com.jockie.bot.core.option.OptionTable;
+import com.jockie.bot.core.option.ParsedOptions;
 import com.jockie.bot.core.parser.ParsedResult;
+import com.jockie.bot.core.utility.CommandUtility;
+import com.jockie.bot.core.utility.QuoteCharacterTable;
 import com.jockie.bot.core.utility.StringUtility;
 import com.jockie.bot.core.utility.StringUtility.QuoteCharacter;
+import com.jockie.bot.core.utility.StringView;
 
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.internal.utils.Checks;
@@ -86,11 +94,18 @@ public class CommandParserImpl implements ICommandParser {
 		DEFAULT_OPTION_PREFIXES = Collections.unmodifiableList(defaultOptionPrefixes);
 	}
 	
-	protected Set<QuoteCharacter> quoteCharacters = new LinkedHashSet<>();
+	/* Only changed through the quote character setters, which re-compile the table */
+	private Set<QuoteCharacter> quoteCharacters = new LinkedHashSet<>();
+	private volatile QuoteCharacterTable quoteCharacterTable;
+	
 	protected Set<String> optionPrefixes = new LinkedHashSet<>();
 	
+	protected boolean handleOptionalArguments = false;
+	
 	public CommandParserImpl() {
-		DEFAULT_QUOTE_CHARACTERS.forEach(this::addQuoteCharacter);
+		this.quoteCharacters.addAll(DEFAULT_QUOTE_CHARACTERS);
+		this.updateQuoteCharacterTable();
+		
 		DEFAULT_OPTION_PREFIXES.forEach(this::addOptionPrefix);
 	}
 	
@@ -155,6 +170,7 @@ public class CommandParserImpl implements ICommandParser {
 		Checks.noneNull(quoteCharacters, "quoteCharacters");
 		
 		this.quoteCharacters = new LinkedHashSet<>(quoteCharacters);
+		this.updateQuoteCharacterTable();
 		
 		return this;
 	}
@@ -189,7 +205,9 @@ public class CommandParserImpl implements ICommandParser {
 	public CommandParserImpl addQuoteCharacter(@Nonnull QuoteCharacter quoteCharacter) {
 		Checks.notNull(quoteCharacter, "quote");
 		
-		this.quoteCharacters.add(quoteCharacter);
+		if(this.quoteCharacters.add(quoteCharacter)) {
+			this.updateQuoteCharacterTable();
+		}
 		
 		return this;
 	}
@@ -212,9 +230,7 @@ public class CommandParserImpl implements ICommandParser {
 	 */
 	@Nonnull
 	public CommandParserImpl removeQuoteCharacter(char start, char end) {
-		this.quoteCharacters.remove(new QuoteCharacter(start, end));
-		
-		return this;
+		return this.removeQuoteCharacter(new QuoteCharacter(start, end));
 	}
 	
 	/**
@@ -224,7 +240,9 @@ public class CommandParserImpl implements ICommandParser {
 	 */
 	@Nonnull
 	public CommandParserImpl removeQuoteCharacter(@Nullable QuoteCharacter quoteCharacter) {
-		this.quoteCharacters.remove(quoteCharacter);
+		if(this.quoteCharacters.remove(quoteCharacter)) {
+			this.updateQuoteCharacterTable();
+		}
 		
 		return this;
 	}
@@ -237,15 +255,58 @@ public class CommandParserImpl implements ICommandParser {
 		return Collections.unmodifiableSet(this.quoteCharacters);
 	}
 	
+	/**
+	 * @return the quote characters compiled for lookup by their start character,
+	 * this is rebuilt whenever the quote characters are changed
+	 */
+	@Nonnull
+	public QuoteCharacterTable getQuoteCharacterTable() {
+		return this.quoteCharacterTable;
+	}
+	
+	private void updateQuoteCharacterTable() {
+		this.quoteCharacterTable = QuoteCharacterTable.compile(this.quoteCharacters);
+	}
+	
+	/**
+	 * When enabled arguments with a default value ({@link IArgument#hasDefault()}) are handled by the parser,
+	 * if an optional argument can not be parsed it is skipped and given its default value, this is done with
+	 * backtracking which prefers to parse as many of the arguments as possible, earliest first.
+	 * <br><br>
+	 * This replaces the {@link com.jockie.bot.core.command.impl.DummyCommand DummyCommands} which are otherwise generated
+	 * for every combination of optional arguments, a command with 6 optional arguments would for instance have 63 of those
+	 * per trigger, each of which is a separate parse attempt.
+	 * 
+	 * @param handleOptionalArguments whether or not optional arguments should be handled by the parser
+	 * 
+	 * @return the {@link CommandParserImpl} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandParserImpl setHandleOptionalArguments(boolean handleOptionalArguments) {
+		this.handleOptionalArguments = handleOptionalArguments;
+		
+		return this;
+	}
+	
+	@Override
+	public boolean isHandleOptionalArguments() {
+		return this.handleOptionalArguments;
+	}
+	
 	/**
 	 * @return a map of all the options which can be used by the author of the message
+	 * 
+	 * @deprecated this serves as compatibility for earlier versions, the parser looks the options up
+	 * through the {@link ICommand#getOptionTable() option table} of the command instead, prefer {@link #isDeveloperOptionsAllowed(CommandListener, OptionTable, Message)}
 	 */
+	@Deprecated
 	@Nonnull
 	protected Map<String, IOption<?>> getValidOptions(@Nonnull CommandListener listener, @Nonnull ICommand command, @Nonnull Message message) {
-		boolean developer = listener.isDeveloper(message.getAuthor());
+		OptionTable optionTable = command.getOptionTable();
+		boolean developer = this.isDeveloperOptionsAllowed(listener, optionTable, message);
 		
 		Map<String, IOption<?>> validOptions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-		for(IOption<?> option : command.getOptions()) {
+		for(IOption<?> option : optionTable.getOptions()) {
 			if(option.isDeveloper() && !developer) {
 				continue;
 			}
@@ -259,6 +320,15 @@ public class CommandParserImpl implements ICommandParser {
 		return validOptions;
 	}
 	
+	/**
+	 * @return whether or not the developer options of the command ({@link IOption#isDeveloper()})
+	 * can be used by the author of the message
+	 */
+	protected boolean isDeveloperOptionsAllowed(@Nonnull CommandListener listener, @Nonnull OptionTable optionTable, @Nonnull Message message) {
+		/* No need to check whether the author is a developer if there are no developer options */
+		return optionTable.hasDeveloperOptions() && listener.isDeveloper(message.getAuthor());
+	}
+	
 	private String findOptionPrefix(String messageContent, int index) {
 		if(messageContent.charAt(index) != ' ') {
 			return null;
@@ -299,13 +369,20 @@ public class CommandParserImpl implements ICommandParser {
 	 */
 	@Nonnull
 	protected Map<String, Object> parseOptions(@Nonnull ParseContext context, @Nonnull CommandListener listener, @Nonnull ICommand command, @Nonnull Message message, @Nonnull String messageContent, @Nonnull StringBuilder builder) throws ParseException {
-		Map<String, IOption<?>> validOptions = this.getValidOptions(listener, command, message);
-		Map<String, Object> options = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		OptionTable optionTable = command.getOptionTable();
+		boolean developer = this.isDeveloperOptionsAllowed(listener, optionTable, message);
+		
+		Map<String, Object> options = new ParsedOptions();
 		
-		for(int i = 0; i < messageContent.length(); i++) {			
+		/* 
+		 * Options can only start at a space, which means only the spaces have to be checked,
+		 * the content in between the options is appended as a whole rather than character by character
+		 */
+		int appendFrom = 0;
+		for(int i = messageContent.indexOf(' '); i != -1; i = messageContent.indexOf(' ', i)) {
 			String prefix = this.findOptionPrefix(messageContent, i);
 			if(prefix == null) {
-				builder.append(messageContent.charAt(i));
+				i += 1;
 				
 				continue;
 			}
@@ -324,7 +401,7 @@ public class CommandParserImpl implements ICommandParser {
 				String valueContent = content.substring(equalIndex + 1, content.length());
 				
 				String temp = null;
-				for(QuoteCharacter quote : this.quoteCharacters) {
+				for(QuoteCharacter quote : this.quoteCharacterTable.get(valueContent, 0)) {
 					temp = StringUtility.parseWrapped(valueContent, quote.start, quote.end);
 					if(temp != null) {
 						length += equalIndex + 1 + temp.length();
@@ -351,7 +428,7 @@ public class CommandParserImpl implements ICommandParser {
 				}
 			}
 			
-			IOption<?> option = validOptions.get(stringOption);
+			IOption<?> option = optionTable.get(stringOption, developer);
 			Object value = null;
 			
 			PARSE_OPTION:
@@ -370,16 +447,18 @@ public class CommandParserImpl implements ICommandParser {
 				}
 				
 				ParsedResult<?> parsedArgument = option.parse(context, stringValue);
-				if(!parsedArgument.isValid()) {
+				/* Options are parsed before the command is known to be valid, pending results are not supported */
+				if(!parsedArgument.isValid() || parsedArgument.isPending()) {
 					switch(command.getOptionParsingFailurePolicy()) {
 						case FAIL: throw new OptionParseException(context, option, stringValue);
 						case INCLUDE: {
-							builder.append(messageContent.charAt(i));
+							i += 1;
 							
 							continue;
 						}
 						case IGNORE: {
-							i += length;
+							builder.append(messageContent, appendFrom, i);
+							appendFrom = i += length + 1;
 							
 							continue;
 						}
@@ -395,14 +474,15 @@ public class CommandParserImpl implements ICommandParser {
 				switch(command.getUnknownOptionPolicy()) {
 					case ADD: break;
 					case IGNORE: {
-						i += length;
+						builder.append(messageContent, appendFrom, i);
+						appendFrom = i += length + 1;
 						
 						continue;
 					}
 					/* The specified option does not exist */
 					case FAIL: throw new UnknownOptionException(context, content);
 					case INCLUDE: {
-						builder.append(messageContent.charAt(i));
+						i += 1;
 						
 						continue;
 					}
@@ -437,7 +517,12 @@ public class CommandParserImpl implements ICommandParser {
 				options.put(stringOption, value);
 			}
 			
-			i += length;
+			builder.append(messageContent, appendFrom, i);
+			appendFrom = i += length + 1;
+		}
+		
+		if(appendFrom < messageContent.length()) {
+			builder.append(messageContent, appendFrom, messageContent.length());
 		}
 		
 		return options;
@@ -453,7 +538,7 @@ public class CommandParserImpl implements ICommandParser {
 		 * Handle command as key-value, this is null if it could not parse the entire
 		 * string as a key-value map
 		 */
-		Map<String, String> map = StringUtility.asMap(messageContent, this.quoteCharacters);
+		Map<String, String> map = StringUtility.asMap(messageContent, this.quoteCharacterTable);
 		if(map == null) {
 			return null;
 		}
@@ -461,6 +546,8 @@ public class CommandParserImpl implements ICommandParser {
 		Object[] parsedArguments = new Object[arguments.size()];
 		String[] parsedArgumentsAsString = new String[parsedArguments.length];
 		
+		boolean[] omitted = new boolean[parsedArguments.length];
+		
 		int argumentCount = 0;
 		
 		for(int i = 0; i < arguments.size(); i++) {
@@ -468,6 +555,13 @@ public class CommandParserImpl implements ICommandParser {
 			
 			/* Missing argument */
 			if(!map.containsKey(argument.getName())) {
+				if(this.handleOptionalArguments && argument.hasDefault()) {
+					omitted[argumentCount] = true;
+					argumentCount += 1;
+					
+					continue;
+				}
+				
 				throw new MissingRequiredArgumentException(context, argument);
 			}
 			
@@ -485,7 +579,7 @@ public class CommandParserImpl implements ICommandParser {
 				throw new ArgumentParseException(context, argument, value);
 			}
 			
-			parsedArguments[argumentCount] = parsedArgument.getObject();
+			parsedArguments[argumentCount] = parsedArgument.isPending() ? new PendingArgument(context, argument, value, parsedArgument.getPending()) : parsedArgument.getObject();
 			parsedArgumentsAsString[argumentCount] = value;
 			
 			argumentCount += 1;
@@ -498,113 +592,220 @@ public class CommandParserImpl implements ICommandParser {
 			return null;
 		}
 		
-		return this.createCommandEvent(context, options, parsedArguments, parsedArgumentsAsString, ArgumentParsingType.NAMED, messageContent);
+		CommandEvent event = this.createCommandEvent(context, options, parsedArguments, parsedArgumentsAsString, ArgumentParsingType.NAMED, messageContent);
+		
+		return this.applyDefaultArguments(context, options, event, arguments, omitted);
 	}
 	
-	@Nullable
-	protected CommandEvent parsePositional(ICommand command, List<IArgument<?>> arguments, ParseContext context, String messageContent, Map<String, Object> options) throws ParseException {
-		Object[] parsedArguments = new Object[arguments.size()];
-		String[] parsedArgumentsAsString = new String[parsedArguments.length];
+	/**
+	 * The remaining content of a positionally parsed command, this is an offset in to the content
+	 * rather than a copy of the remaining content so that every argument does not have to copy it.
+	 */
+	protected static class ContentCursor {
 		
-		int argumentCount = 0;
+		private String content;
+		private int offset;
 		
-		for(int i = 0; i < arguments.size(); i++) {
-			IArgument<?> argument = arguments.get(i);
+		public ContentCursor(@Nonnull String content) {
+			this.content = content;
+			this.offset = 0;
+		}
+		
+		/**
+		 * @return the content, the remaining content starts at {@link #getOffset()}
+		 */
+		@Nonnull
+		public String getContent() {
+			return this.content;
+		}
+		
+		/**
+		 * @return the offset in to {@link #getContent()} where the remaining content starts
+		 */
+		public int getOffset() {
+			return this.offset;
+		}
+		
+		/**
+		 * @return whether or not there is any remaining content
+		 */
+		public boolean isEmpty() {
+			return this.offset >= this.content.length();
+		}
+		
+		/**
+		 * @return a copy of the remaining content
+		 */
+		@Nonnull
+		public String getRemaining() {
+			return this.content.substring(this.offset);
+		}
+		
+		/**
+		 * @param content the content
+		 * @param offset the offset in to the content where the remaining content starts
+		 * 
+		 * @return the {@link ContentCursor} instance, useful for chaining
+		 */
+		@Nonnull
+		public ContentCursor set(@Nonnull String content, int offset) {
+			this.content = content;
+			this.offset = offset;
 			
-			if(!messageContent.isEmpty()) {
-				if(messageContent.charAt(0) == ' ') {
-					ArgumentTrimType trimType = command.getArgumentTrimType();
-					if(trimType != ArgumentTrimType.NONE && !(argument.isEndless() && trimType != ArgumentTrimType.STRICT)) {
-						messageContent = StringUtility.stripLeading(messageContent);
-					}else{
-						messageContent = messageContent.substring(1);
+			return this;
+		}
+	}
+	
+	/**
+	 * Parse a single positional argument from the start of the remaining content, the cursor is
+	 * only moved past the argument if it was parsed successfully
+	 * 
+	 * @param command the command which is being parsed
+	 * @param argument the argument to parse
+	 * @param context the parse context
+	 * @param cursor the remaining content
+	 * @param parsedArguments the array to store the parsed argument in
+	 * @param parsedArgumentsAsString the array to store the raw content of the argument in
+	 * @param argumentIndex the index to store the argument at
+	 * 
+	 * @throws ParseException if the argument could not be parsed
+	 */
+	protected void parsePositionalArgument(ICommand command, IArgument<?> argument, ParseContext context, ContentCursor cursor, 
+			Object[] parsedArguments, String[] parsedArgumentsAsString, int argumentIndex) throws ParseException {
+		
+		String messageContent = cursor.getContent();
+		int offset = cursor.getOffset();
+		int length = messageContent.length();
+		
+		if(offset < length) {
+			if(messageContent.charAt(offset) == ' ') {
+				ArgumentTrimType trimType = command.getArgumentTrimType();
+				if(trimType != ArgumentTrimType.NONE && !(argument.isEndless() && trimType != ArgumentTrimType.STRICT)) {
+					while(offset < length && messageContent.charAt(offset) == ' ') {
+						offset++;
 					}
 				}else{
-					/* 
-					 * It gets here if an argument is parsed with quotes and there is a 
-					 * value directly after the quotes without any spacing, like !add "15"5
-					 */
-					
-					/* The argument for some reason does not start with a space */
-					throw new ArgumentParseException(context, argument, messageContent);
+					offset += 1;
 				}
+			}else{
+				/* 
+				 * It gets here if an argument is parsed with quotes and there is a 
+				 * value directly after the quotes without any spacing, like !add "15"5
+				 */
+				
+				/* The argument for some reason does not start with a space */
+				throw new ArgumentParseException(context, argument, messageContent.substring(offset));
 			}
+		}
+		
+		ParsedResult<?> parsedArgument;
+		String content = null;
+		
+		String contentLeft = messageContent;
+		int offsetLeft;
+		
+		if(argument.getParser().isHandleAll()) {
+			parsedArgument = argument.parse(context, content = messageContent.substring(offset));
 			
-			ParsedResult<?> parsedArgument;
-			String content = null;
-			if(argument.getParser().isHandleAll()) {
-				parsedArgument = argument.parse(context, content = messageContent);
-				
-				String contentLeft = parsedArgument.getContentLeft();
-				if(contentLeft != null) {
-					messageContent = contentLeft;
-				}else{
-					messageContent = "";
-				}
-			}else if(argument.isEndless()) {
-				if(messageContent.length() == 0 && !argument.acceptEmpty()) {
-					/* There is no more content and the argument does not accept no content */
-					throw new OutOfContentException(context, argument);
-				}
-				
-				parsedArgument = argument.parse(context, content = messageContent);
-				messageContent = "";
+			/* Continue from the view of the content which was left, if there is one, rather than copying it */
+			CharSequence view = parsedArgument.getContentLeftView();
+			if(view instanceof StringView && ((StringView) view).getEnd() == ((StringView) view).getString().length()) {
+				contentLeft = ((StringView) view).getString();
+				offsetLeft = ((StringView) view).getStart();
 			}else{
-				if(!messageContent.isEmpty()) {
-					/* TODO: Is this even worth having? Not quite sure if I like the implementation */
-					if(argument instanceof IEndlessArgument) {
-						content = StringUtility.parseWrapped(messageContent, '[', ']');
-						if(content != null) {
-							messageContent = messageContent.substring(content.length());
-							content = StringUtility.unwrap(content, '[', ']');
+				contentLeft = view != null ? view.toString() : "";
+				offsetLeft = 0;
+			}
+		}else if(argument.isEndless()) {
+			if(offset >= length && !argument.acceptEmpty()) {
+				/* There is no more content and the argument does not accept no content */
+				throw new OutOfContentException(context, argument);
+			}
+			
+			parsedArgument = argument.parse(context, content = messageContent.substring(offset));
+			offsetLeft = length;
+		}else{
+			int end = -1;
+			if(offset < length) {
+				/* TODO: Is this even worth having? Not quite sure if I like the implementation */
+				if(argument instanceof IEndlessArgument) {
+					end = StringUtility.indexOfWrapEnd(messageContent, offset, '[', ']');
+					if(end != -1) {
+						content = StringUtility.unwrap(messageContent.substring(offset, end + 1), '[', ']');
+						
+						if(command.getArgumentTrimType() == ArgumentTrimType.STRICT) {
+							content = StringUtility.strip(content);
+						}
+					}
+				}else if(argument.acceptQuote()) {
+					for(QuoteCharacter quote : this.quoteCharacterTable.get(messageContent.charAt(offset))) {
+						end = StringUtility.indexOfWrapEnd(messageContent, offset, quote.start, quote.end);
+						if(end != -1) {
+							content = StringUtility.unwrap(messageContent.substring(offset, end + 1), quote.start, quote.end);
 							
 							if(command.getArgumentTrimType() == ArgumentTrimType.STRICT) {
 								content = StringUtility.strip(content);
 							}
-						}
-					}else if(argument.acceptQuote()) {
-						for(QuoteCharacter quote : this.quoteCharacters) {
-							content = StringUtility.parseWrapped(messageContent, quote.start, quote.end);
-							if(content != null) {
-								messageContent = messageContent.substring(content.length());
-								content = StringUtility.unwrap(content, quote.start, quote.end);
-								
-								if(command.getArgumentTrimType() == ArgumentTrimType.STRICT) {
-									content = StringUtility.strip(content);
-								}
-								
-								break;
-							}
+							
+							break;
 						}
 					}
 				}
-				
-				if(content == null) {
-					int index = messageContent.indexOf(' ');
-					content = messageContent.substring(0, index != -1 ? index : messageContent.length());
-					
-					messageContent = messageContent.substring(content.length());
-				}
-				
-				/* There is no more content and the argument does not accept no content */
-				if(content.isEmpty() && !argument.acceptEmpty()) {
-					throw new OutOfContentException(context, argument);
-				}
-				
-				parsedArgument = argument.parse(context, content);
 			}
 			
-			if(parsedArgument.isValid()) {
-				parsedArguments[argumentCount] = parsedArgument.getObject();
-				parsedArgumentsAsString[argumentCount] = content;
+			if(content == null) {
+				int index = messageContent.indexOf(' ', offset);
+				end = index != -1 ? index : length;
 				
-				argumentCount += 1;
+				content = messageContent.substring(offset, end);
+				offsetLeft = end;
 			}else{
-				/* The content does not make for a valid argument */
-				throw new ArgumentParseException(context, argument, content);
+				offsetLeft = end + 1;
+			}
+			
+			/* There is no more content and the argument does not accept no content */
+			if(content.isEmpty() && !argument.acceptEmpty()) {
+				throw new OutOfContentException(context, argument);
+			}
+			
+			parsedArgument = argument.parse(context, content);
+		}
+		
+		if(!parsedArgument.isValid()) {
+			/* The content does not make for a valid argument */
+			throw new ArgumentParseException(context, argument, content);
+		}
+		
+		parsedArguments[argumentIndex] = parsedArgument.isPending() ? new PendingArgument(context, argument, content, parsedArgument.getPending()) : parsedArgument.getObject();
+		parsedArgumentsAsString[argumentIndex] = content;
+		
+		cursor.set(contentLeft, offsetLeft);
+	}
+	
+	@Nullable
+	protected CommandEvent parsePositional(ICommand command, List<IArgument<?>> arguments, ParseContext context, String messageContent, Map<String, Object> options) throws ParseException {
+		if(this.handleOptionalArguments) {
+			for(IArgument<?> argument : arguments) {
+				if(argument.hasDefault()) {
+					return this.parsePositionalOptional(command, arguments, context, messageContent, options);
+				}
 			}
 		}
 		
+		Object[] parsedArguments = new Object[arguments.size()];
+		String[] parsedArgumentsAsString = new String[parsedArguments.length];
+		
+		int argumentCount = 0;
+		
+		ContentCursor cursor = new ContentCursor(messageContent);
+		for(int i = 0; i < arguments.size(); i++) {
+			this.parsePositionalArgument(command, arguments.get(i), context, cursor, parsedArguments, parsedArgumentsAsString, argumentCount);
+			
+			argumentCount += 1;
+		}
+		
+		messageContent = cursor.getRemaining();
+		
 		/* There is more content than the arguments could handle */
 		if(!messageContent.isEmpty()) {
 			if(command.getContentOverflowPolicy() == ContentOverflowPolicy.FAIL) {
@@ -623,6 +824,171 @@ public class CommandParserImpl implements ICommandParser {
 		return this.createCommandEvent(context, options, parsedArguments, parsedArgumentsAsString, ArgumentParsingType.POSITIONAL, messageContent);
 	}
 	
+	private static class OptionalParseState {
+		
+		private final ICommand command;
+		private final List<IArgument<?>> arguments;
+		private final ParseContext context;
+		
+		/* The content which was given to the parser, the remaining content is usually an offset in to this */
+		private final String content;
+		
+		private final Object[] parsedArguments;
+		private final String[] parsedArgumentsAsString;
+		private final boolean[] omitted;
+		
+		/* The remaining content each argument has already been attempted with, these can not succeed a second time */
+		private final List<Set<Object>> attempted;
+		
+		/* The first failure, this is the failure of parsing every argument */
+		private ParseException exception;
+		
+		private OptionalParseState(ICommand command, List<IArgument<?>> arguments, ParseContext context, String content) {
+			this.command = command;
+			this.arguments = arguments;
+			this.context = context;
+			
+			this.content = content;
+			
+			this.parsedArguments = new Object[arguments.size()];
+			this.parsedArgumentsAsString = new String[arguments.size()];
+			this.omitted = new boolean[arguments.size()];
+			
+			this.attempted = new ArrayList<>(arguments.size());
+			for(int i = 0; i < arguments.size(); i++) {
+				this.attempted.add(new HashSet<>());
+			}
+		}
+		
+		private Object getKey(ContentCursor cursor) {
+			/* Parsers which handle all the content may return content which is not part of the original content */
+			if(cursor.getContent() == this.content) {
+				return cursor.getOffset();
+			}
+			
+			return cursor.getRemaining();
+		}
+		
+		private void fail(ParseException exception) {
+			if(this.exception == null) {
+				this.exception = exception;
+			}
+		}
+	}
+	
+	/**
+	 * Parse the arguments positionally, skipping optional arguments ({@link IArgument#hasDefault()}) which can not be parsed
+	 * 
+	 * @see #setHandleOptionalArguments(boolean)
+	 */
+	@Nullable
+	protected CommandEvent parsePositionalOptional(ICommand command, List<IArgument<?>> arguments, ParseContext context, String messageContent, Map<String, Object> options) throws ParseException {
+		OptionalParseState state = new OptionalParseState(command, arguments, context, messageContent);
+		
+		String contentOverflow = this.parsePositionalOptional(state, 0, new ContentCursor(messageContent));
+		if(contentOverflow == null) {
+			throw state.exception;
+		}
+		
+		CommandEvent event = this.createCommandEvent(context, options, state.parsedArguments, state.parsedArgumentsAsString, ArgumentParsingType.POSITIONAL, contentOverflow);
+		
+		return this.applyDefaultArguments(context, options, event, arguments, state.omitted);
+	}
+	
+	/* Returns the content overflow, or null if the remaining arguments could not be parsed from the content */
+	private String parsePositionalOptional(OptionalParseState state, int index, ContentCursor cursor) {
+		if(index == state.arguments.size()) {
+			String contentOverflow = cursor.getRemaining();
+			
+			/* There is more content than the arguments could handle */
+			if(!contentOverflow.isEmpty() && state.command.getContentOverflowPolicy() == ContentOverflowPolicy.FAIL) {
+				state.fail(new ContentOverflowException(state.context, contentOverflow));
+				
+				return null;
+			}
+			
+			return contentOverflow;
+		}
+		
+		/* 
+		 * A successful attempt returns straight away, which means that getting to the same argument
+		 * with the same content a second time is guaranteed to fail. This bounds the amount of attempts
+		 * to the amount of arguments times the amount of different contents rather than every combination.
+		 */
+		if(!state.attempted.get(index).add(state.getKey(cursor))) {
+			return null;
+		}
+		
+		IArgument<?> argument = state.arguments.get(index);
+		
+		String content = cursor.getContent();
+		int offset = cursor.getOffset();
+		
+		try {
+			this.parsePositionalArgument(state.command, argument, state.context, cursor, state.parsedArguments, state.parsedArgumentsAsString, index);
+			
+			state.omitted[index] = false;
+			
+			String contentOverflow = this.parsePositionalOptional(state, index + 1, cursor);
+			if(contentOverflow != null) {
+				return contentOverflow;
+			}
+		}catch(ParseException e) {
+			state.fail(e);
+		}
+		
+		if(!argument.hasDefault()) {
+			return null;
+		}
+		
+		state.omitted[index] = true;
+		state.parsedArguments[index] = null;
+		state.parsedArgumentsAsString[index] = null;
+		
+		return this.parsePositionalOptional(state, index + 1, cursor.set(content, offset));
+	}
+	
+	/**
+	 * Create an event where the omitted arguments of the provided event have their default value ({@link IArgument#getDefault(CommandEvent)}),
+	 * the raw argument ({@link CommandEvent#getRawArguments()}) of an omitted argument is null. The default values are given the provided event,
+	 * in which the omitted arguments are null, the arguments of the provided event are not modified.
+	 * 
+	 * @param context the parse context
+	 * @param options the parsed options
+	 * @param event the event to apply the default arguments to
+	 * @param arguments the arguments of the command
+	 * @param omitted which of the arguments were omitted
+	 * 
+	 * @return the event with the default arguments applied, or the provided event if no arguments were omitted
+	 */
+	protected CommandEvent applyDefaultArguments(ParseContext context, Map<String, Object> options, CommandEvent event, List<IArgument<?>> arguments, boolean[] omitted) {
+		Object[] appliedArguments = null;
+		for(int i = 0; i < omitted.length; i++) {
+			if(!omitted[i]) {
+				continue;
+			}
+			
+			IArgument<?> argument = arguments.get(i);
+			
+			Object value = argument.getDefault(event);
+			if(value == null) {
+				value = CommandUtility.getDefaultValue(argument.getType());
+			}
+			
+			if(appliedArguments == null) {
+				appliedArguments = Arrays.copyOf(event.getArguments(), omitted.length);
+			}
+			
+			appliedArguments[i] = value;
+		}
+		
+		if(appliedArguments == null) {
+			return event;
+		}
+		
+		return this.createCommandEvent(context, options, appliedArguments, event.getRawArguments(), event.getParsingType(), event.getContentOverflow());
+	}
+	
 	protected CommandEvent createCommandEvent(ParseContext context, Map<String, Object> options, Object[] parsedArguments, String[] parsedArgumentsAsString, ArgumentParsingType parsingType, String contentOverflow) {
 		CommandListener listener = context.getCommandListener();
 		Message message = context.getMessage();
@@ -0,0 +1,168 @@
+package com.jockie.bot.core.command.scheduler;
+
+import java.util.ArrayDeque;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+
+import com.jockie.bot.core.command.ICommand;
+import com.jockie.bot.core.command.impl.CommandListener;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * Limits the amount of concurrent executions of the commands which use it ({@link ICommand#getBulkhead()}),
+ * this can be used to isolate heavy commands from lightweight ones, either per command or shared between several commands.
+ * A bulkhead with a {@link #getName() name} is shared by every command of a {@link CommandListener} which uses a bulkhead
+ * with the same name, see {@link CommandListener#getBulkhead(ICommand)}.
+ * <br><br>
+ * Once the limit has been reached up to {@link #getMaxQueued()} executions will wait for a running execution to finish,
+ * any further executions are rejected. A bulkhead with a max queue size of 0 never queues and always rejects when full.
+ */
+public class Bulkhead {
+	
+	private static final Logger LOG = JDALogger.getLog(Bulkhead.class);
+	
+	private final String name;
+	
+	private final int maxConcurrency;
+	private final int maxQueued;
+	
+	private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+	
+	private int running = 0;
+	
+	/**
+	 * @param maxConcurrency the maximum amount of concurrent executions
+	 * @param maxQueued the maximum amount of executions which can wait for a running execution to finish
+	 */
+	public Bulkhead(int maxConcurrency, int maxQueued) {
+		this(null, maxConcurrency, maxQueued);
+	}
+	
+	/**
+	 * @param name the name to share the bulkhead by, or null to not share it
+	 * @param maxConcurrency the maximum amount of concurrent executions
+	 * @param maxQueued the maximum amount of executions which can wait for a running execution to finish
+	 */
+	public Bulkhead(@Nullable String name, int maxConcurrency, int maxQueued) {
+		Checks.positive(maxConcurrency, "maxConcurrency");
+		Checks.notNegative(maxQueued, "maxQueued");
+		
+		this.name = name;
+		this.maxConcurrency = maxConcurrency;
+		this.maxQueued = maxQueued;
+	}
+	
+	/**
+	 * Try to start an execution without waiting, if this returns true {@link #release()} has to be called once the execution has finished
+	 * 
+	 * @return whether or not the execution could be started
+	 */
+	public synchronized boolean tryAcquire() {
+		/* Anything already waiting has to go first */
+		if(this.running < this.maxConcurrency && this.queue.isEmpty()) {
+			this.running++;
+			
+			return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Start an execution, if the limit has been reached the execution waits for a running execution to finish.
+	 * <br><br>
+	 * The provided callback is called once the execution can start, either straight away on the current thread
+	 * or on the thread which calls {@link #release()} and should therefore not block, {@link #release()} has to
+	 * be called once the execution has finished.
+	 * 
+	 * @param onAcquired the callback which starts the execution
+	 * 
+	 * @return false if the limit has been reached and the queue is full, in which case the callback will not be called
+	 */
+	public boolean acquire(@Nonnull Runnable onAcquired) {
+		Checks.notNull(onAcquired, "onAcquired");
+		
+		synchronized(this) {
+			if(this.running >= this.maxConcurrency || !this.queue.isEmpty()) {
+				if(this.queue.size() >= this.maxQueued) {
+					return false;
+				}
+				
+				this.queue.addLast(onAcquired);
+				
+				return true;
+			}
+			
+			this.running++;
+		}
+		
+		onAcquired.run();
+		
+		return true;
+	}
+	
+	/**
+	 * Finish an execution, if there are any waiting executions the next one is started on the current thread
+	 */
+	public void release() {
+		Runnable next;
+		synchronized(this) {
+			next = this.queue.pollFirst();
+			if(next == null) {
+				this.running--;
+				
+				return;
+			}
+		}
+		
+		/* The finished execution's slot is handed over to the next execution */
+		try {
+			next.run();
+		}catch(Throwable e) {
+			LOG.error("Uncaught exception when starting a queued execution", e);
+		}
+	}
+	
+	/**
+	 * @return the name the bulkhead is shared by, or null if it is not shared
+	 * 
+	 * @see CommandListener#getBulkhead(ICommand)
+	 */
+	@Nullable
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * @return the maximum amount of concurrent executions
+	 */
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+	
+	/**
+	 * @return the maximum amount of executions which can wait for a running execution to finish
+	 */
+	public int getMaxQueued() {
+		return this.maxQueued;
+	}
+	
+	/**
+	 * @return the amount of executions which are currently running
+	 */
+	public synchronized int getRunningCount() {
+		return this.running;
+	}
+	
+	/**
+	 * @return the amount of executions which are currently waiting for a running execution to finish
+	 */
+	public synchronized int getQueuedCount() {
+		return this.queue.size();
+	}
+}
\ No newline at end of file
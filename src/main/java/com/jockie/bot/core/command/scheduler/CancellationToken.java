@@ -0,0 +1,103 @@
+package com.jockie.bot.core.command.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+
+import com.jockie.bot.core.command.exception.CancelException;
+import com.jockie.bot.core.command.impl.CommandEvent;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * Signals that the execution of a command has been cancelled, for instance because it exceeded its
+ * execution timeout ({@link CommandEvent#getCancellationToken()}). Cancellation is cooperative, long-running
+ * commands should check {@link #isCancelled()}, or call {@link #throwIfCancelled()}, every now and then and
+ * stop executing once it has been cancelled.
+ */
+public class CancellationToken {
+	
+	private static final Logger LOG = JDALogger.getLog(CancellationToken.class);
+	
+	private volatile boolean cancelled = false;
+	
+	/* Guarded by this, null once the token has been cancelled */
+	private List<Runnable> callbacks = new ArrayList<>();
+	
+	/**
+	 * @return whether or not the execution has been cancelled
+	 */
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+	
+	/**
+	 * @throws CancelException if the execution has been cancelled, this stops the
+	 * execution of the command the same way as {@link CommandEvent#cancel()}
+	 */
+	public void throwIfCancelled() {
+		if(this.cancelled) {
+			throw new CancelException();
+		}
+	}
+	
+	/**
+	 * Register a callback which is called when the execution is cancelled, this can for instance be used to
+	 * abort requests the command is waiting on. The callback is called on the thread which cancels the execution,
+	 * or straight away on the current thread if the execution has already been cancelled.
+	 * 
+	 * @param callback the callback to call when the execution is cancelled
+	 * 
+	 * @return the {@link CancellationToken} instance, useful for chaining
+	 */
+	@Nonnull
+	public CancellationToken onCancel(@Nonnull Runnable callback) {
+		Checks.notNull(callback, "callback");
+		
+		synchronized(this) {
+			if(this.callbacks != null) {
+				this.callbacks.add(callback);
+				
+				return this;
+			}
+		}
+		
+		callback.run();
+		
+		return this;
+	}
+	
+	/**
+	 * Cancel the execution, this does not stop the command by itself but signals the command that it should stop
+	 * 
+	 * @return false if the execution had already been cancelled
+	 */
+	public boolean cancel() {
+		List<Runnable> callbacks;
+		synchronized(this) {
+			if(this.callbacks == null) {
+				return false;
+			}
+			
+			callbacks = this.callbacks;
+			
+			this.callbacks = null;
+			this.cancelled = true;
+		}
+		
+		for(Runnable callback : callbacks) {
+			/* One failing callback should not prevent the others from being called */
+			try {
+				callback.run();
+			}catch(Throwable e) {
+				LOG.error("Uncaught exception in cancellation callback", e);
+			}
+		}
+		
+		return true;
+	}
+}
\ No newline at end of file
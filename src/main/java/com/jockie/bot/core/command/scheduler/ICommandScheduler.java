@@ -0,0 +1,54 @@
+package com.jockie.bot.core.command.scheduler;
+
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nonnull;
+
+import com.jockie.bot.core.command.ICommand;
+import com.jockie.bot.core.command.impl.CommandEvent;
+import com.jockie.bot.core.command.impl.CommandEventListener;
+import com.jockie.bot.core.command.impl.CommandListener;
+
+/**
+ * Decides when, and if, async commands ({@link ICommand#isExecuteAsync()}) are executed, this can be used to
+ * bound the amount of commands which are executing or waiting to be executed and to share the executor fairly.
+ * 
+ * @see CommandListener#setCommandScheduler(ICommandScheduler)
+ */
+public interface ICommandScheduler {
+	
+	/**
+	 * Schedule a command to be executed, the task must eventually be executed on the provided executor
+	 * unless the command is rejected
+	 * 
+	 * @param command the command which is being executed
+	 * @param event the context of the command
+	 * @param executor the executor which the task should be executed on
+	 * @param task the task which executes the command
+	 * 
+	 * @return true if the command was scheduled, false if it was rejected in which case
+	 * {@link CommandEventListener#onCommandRejected(ICommand, CommandEvent)} is called
+	 */
+	public boolean schedule(@Nonnull ICommand command, @Nonnull CommandEvent event, @Nonnull Executor executor, @Nonnull Runnable task);
+	
+	/**
+	 * Schedule a command to be executed, the task must eventually be executed on the provided executor
+	 * unless the command is rejected, if the command is rejected after it has been scheduled, for instance because
+	 * the executor rejected the task, the rejected task is executed instead of the task.
+	 * <br><br>
+	 * By default this calls {@link #schedule(ICommand, CommandEvent, Executor, Runnable)} and never executes the rejected task
+	 * 
+	 * @param command the command which is being executed
+	 * @param event the context of the command
+	 * @param executor the executor which the task should be executed on
+	 * @param task the task which executes the command
+	 * @param rejected the task which rejects the command if it is rejected after it has been scheduled
+	 * 
+	 * @return true if the command was scheduled, false if it was rejected in which case
+	 * {@link CommandEventListener#onCommandRejected(ICommand, CommandEvent)} is called
+	 */
+	public default boolean schedule(@Nonnull ICommand command, @Nonnull CommandEvent event, @Nonnull Executor executor, @Nonnull Runnable task, @Nonnull Runnable rejected) {
+		return this.schedule(command, event, executor, task);
+	}
+	
+}
\ No newline at end of file
@@ -0,0 +1,341 @@
+package com.jockie.bot.core.command.scheduler.impl;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ToIntFunction;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+
+import com.jockie.bot.core.command.ICommand;
+import com.jockie.bot.core.command.impl.CommandEvent;
+import com.jockie.bot.core.command.scheduler.ICommandScheduler;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * A bounded {@link ICommandScheduler} which shares the executor fairly between guilds and users.
+ * <br><br>
+ * At most {@link #getMaxConcurrency()} commands are executing at the same time, a command is executing until its
+ * {@link CommandEvent#getAsyncResult() asynchronous result} has completed if it has one, any other commands are queued
+ * and once a command finishes the next command is picked with a weighted round-robin over the guilds which have queued commands,
+ * each guild gets to start as many commands as its {@link #setWeightFunction(ToIntFunction) weight} before the next guild is picked,
+ * and within a guild a plain round-robin over the users which have queued commands. Private messages are treated as if
+ * they were all from the same guild, meaning that users in private messages are still fair towards each other.
+ * <br><br>
+ * This means that a guild, or user, flooding commands only delays its own commands while everyone else keeps
+ * getting their commands executed. Commands are rejected when there are already {@link #getMaxQueued()} commands queued in total
+ * or {@link #getMaxQueuedPerUser()} commands queued for the user, or when the executor rejects them.
+ */
+public class CommandSchedulerImpl implements ICommandScheduler {
+	
+	private static final Logger LOG = JDALogger.getLog(CommandSchedulerImpl.class);
+	
+	/* The key of the queue which all private messages are queued in, snowflakes are never 0 */
+	private static final long PRIVATE_KEY = 0L;
+	
+	private static class ScheduledCommand {
+		
+		private final CommandEvent event;
+		
+		private final Executor executor;
+		private final Runnable task;
+		private final Runnable rejected;
+		
+		private ScheduledCommand(CommandEvent event, Executor executor, Runnable task, Runnable rejected) {
+			this.event = event;
+			this.executor = executor;
+			this.task = task;
+			this.rejected = rejected;
+		}
+	}
+	
+	private static class UserQueue {
+		
+		private final long userId;
+		
+		private final ArrayDeque<ScheduledCommand> commands = new ArrayDeque<>();
+		
+		private UserQueue(long userId) {
+			this.userId = userId;
+		}
+	}
+	
+	private static class GuildQueue {
+		
+		private final long guildId;
+		private final int weight;
+		
+		private final Map<Long, UserQueue> users = new HashMap<>();
+		
+		/* The users which have queued commands, in the order they will be picked */
+		private final ArrayDeque<UserQueue> activeUsers = new ArrayDeque<>();
+		
+		/* The amount of commands this guild can still start before the next guild is picked */
+		private int credit = 0;
+		
+		private GuildQueue(long guildId, int weight) {
+			this.guildId = guildId;
+			this.weight = weight;
+		}
+		
+		private ScheduledCommand poll() {
+			UserQueue user = this.activeUsers.pollFirst();
+			
+			ScheduledCommand command = user.commands.pollFirst();
+			if(user.commands.isEmpty()) {
+				this.users.remove(user.userId);
+			}else{
+				this.activeUsers.addLast(user);
+			}
+			
+			return command;
+		}
+		
+		private boolean isEmpty() {
+			return this.activeUsers.isEmpty();
+		}
+	}
+	
+	private final int maxConcurrency;
+	private final int maxQueued;
+	private final int maxQueuedPerUser;
+	
+	private final Map<Long, GuildQueue> guilds = new HashMap<>();
+	
+	/* The guilds which have queued commands, in the order they will be picked */
+	private final ArrayDeque<GuildQueue> activeGuilds = new ArrayDeque<>();
+	
+	private int running = 0;
+	private int queued = 0;
+	
+	private volatile ToIntFunction<Guild> weightFunction = (guild) -> 1;
+	
+	/**
+	 * @param maxConcurrency the maximum amount of commands which can be executing at the same time
+	 * @param maxQueued the maximum amount of commands which can be waiting to be executed
+	 * @param maxQueuedPerUser the maximum amount of commands which can be waiting to be executed for a single user
+	 */
+	public CommandSchedulerImpl(int maxConcurrency, int maxQueued, int maxQueuedPerUser) {
+		Checks.positive(maxConcurrency, "maxConcurrency");
+		Checks.notNegative(maxQueued, "maxQueued");
+		Checks.notNegative(maxQueuedPerUser, "maxQueuedPerUser");
+		
+		this.maxConcurrency = maxConcurrency;
+		this.maxQueued = maxQueued;
+		this.maxQueuedPerUser = maxQueuedPerUser;
+	}
+	
+	/**
+	 * Set the function used to get the weight of a guild, a guild with a weight of 2 gets to start
+	 * twice as many commands as a guild with a weight of 1 when both of them have commands queued.
+	 * The weight is only computed when a guild, which does not already have any queued commands, queues a command.
+	 * <br><br>
+	 * The guild is null for commands from private messages.
+	 * <br><br>
+	 * Default: every guild has a weight of 1
+	 * 
+	 * @param weightFunction the function used to get the weight of a guild, the weight must be at least 1
+	 * 
+	 * @return the {@link CommandSchedulerImpl} instance, useful for chaining
+	 */
+	@Nonnull
+	public CommandSchedulerImpl setWeightFunction(@Nonnull ToIntFunction<Guild> weightFunction) {
+		Checks.notNull(weightFunction, "weightFunction");
+		
+		this.weightFunction = weightFunction;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the function used to get the weight of a guild
+	 * 
+	 * @see #setWeightFunction(ToIntFunction)
+	 */
+	@Nonnull
+	public ToIntFunction<Guild> getWeightFunction() {
+		return this.weightFunction;
+	}
+	
+	/**
+	 * @return the maximum amount of commands which can be executing at the same time
+	 */
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+	
+	/**
+	 * @return the maximum amount of commands which can be waiting to be executed
+	 */
+	public int getMaxQueued() {
+		return this.maxQueued;
+	}
+	
+	/**
+	 * @return the maximum amount of commands which can be waiting to be executed for a single user
+	 */
+	public int getMaxQueuedPerUser() {
+		return this.maxQueuedPerUser;
+	}
+	
+	/**
+	 * @return the amount of commands which are currently executing
+	 */
+	public synchronized int getRunningCount() {
+		return this.running;
+	}
+	
+	/**
+	 * @return the amount of commands which are currently waiting to be executed
+	 */
+	public synchronized int getQueuedCount() {
+		return this.queued;
+	}
+	
+	@Override
+	public boolean schedule(@Nonnull ICommand command, @Nonnull CommandEvent event, @Nonnull Executor executor, @Nonnull Runnable task) {
+		return this.schedule(command, event, executor, task, () -> LOG.warn("The executor rejected a scheduled command, the command was dropped"));
+	}
+	
+	@Override
+	public boolean schedule(@Nonnull ICommand command, @Nonnull CommandEvent event, @Nonnull Executor executor, @Nonnull Runnable task, @Nonnull Runnable rejected) {
+		Checks.notNull(command, "command");
+		Checks.notNull(event, "event");
+		Checks.notNull(executor, "executor");
+		Checks.notNull(task, "task");
+		Checks.notNull(rejected, "rejected");
+		
+		ScheduledCommand scheduledCommand = new ScheduledCommand(event, executor, task, rejected);
+		
+		Guild guild = event.isFromGuild() ? event.getGuild() : null;
+		long guildId = guild != null ? guild.getIdLong() : PRIVATE_KEY;
+		long userId = event.getAuthor().getIdLong();
+		
+		synchronized(this) {
+			/* Anything already queued has to go first, otherwise the command can be started straight away */
+			if(this.queued == 0 && this.running < this.maxConcurrency) {
+				this.running++;
+			}else{
+				if(this.queued >= this.maxQueued) {
+					return false;
+				}
+				
+				GuildQueue guildQueue = this.guilds.get(guildId);
+				if(guildQueue == null) {
+					int weight = this.weightFunction.applyAsInt(guild);
+					Checks.check(weight > 0, "The weight of a guild must be at least 1");
+					
+					guildQueue = new GuildQueue(guildId, weight);
+				}
+				
+				UserQueue userQueue = guildQueue.users.get(userId);
+				if((userQueue != null ? userQueue.commands.size() : 0) >= this.maxQueuedPerUser) {
+					return false;
+				}
+				
+				if(guildQueue.isEmpty()) {
+					this.guilds.put(guildId, guildQueue);
+					this.activeGuilds.addLast(guildQueue);
+				}
+				
+				if(userQueue == null) {
+					userQueue = new UserQueue(userId);
+					
+					guildQueue.users.put(userId, userQueue);
+					guildQueue.activeUsers.addLast(userQueue);
+				}
+				
+				userQueue.commands.addLast(scheduledCommand);
+				this.queued++;
+				
+				return true;
+			}
+		}
+		
+		this.start(scheduledCommand);
+		
+		return true;
+	}
+	
+	/* Must be called while holding the lock, returns null if there are no queued commands */
+	private ScheduledCommand poll() {
+		GuildQueue guild = this.activeGuilds.peekFirst();
+		if(guild == null) {
+			return null;
+		}
+		
+		if(guild.credit == 0) {
+			guild.credit = guild.weight;
+		}
+		
+		ScheduledCommand command = guild.poll();
+		guild.credit--;
+		
+		if(guild.isEmpty()) {
+			this.activeGuilds.pollFirst();
+			this.guilds.remove(guild.guildId);
+		}else if(guild.credit == 0) {
+			this.activeGuilds.addLast(this.activeGuilds.pollFirst());
+		}
+		
+		this.queued--;
+		
+		return command;
+	}
+	
+	/* Called when a command finishes, the command's slot is either handed over to the next command or released */
+	private synchronized ScheduledCommand next() {
+		ScheduledCommand next = this.poll();
+		if(next == null) {
+			this.running--;
+		}
+		
+		return next;
+	}
+	
+	/* The slot of a command is held until it has finished, which is when its asynchronous result has completed if it has one */
+	private void finish(CommandEvent event) {
+		CompletableFuture<?> asyncResult = event.getAsyncResult();
+		if(asyncResult == null || asyncResult.isDone()) {
+			this.start(this.next());
+		}else{
+			asyncResult.whenComplete((result, throwable) -> this.start(this.next()));
+		}
+	}
+	
+	private void start(ScheduledCommand command) {
+		while(command != null) {
+			ScheduledCommand current = command;
+			
+			try {
+				current.executor.execute(() -> {
+					try {
+						current.task.run();
+					}finally{
+						this.finish(current.event);
+					}
+				});
+				
+				return;
+			}catch(RejectedExecutionException e) {
+				/* The command is rejected rather than executed on the current thread, which could be one of JDA's threads */
+				try {
+					current.rejected.run();
+				}catch(Throwable throwable) {
+					LOG.error("Uncaught exception while rejecting a scheduled command", throwable);
+				}
+			}
+			
+			/* Handed over iteratively rather than recursively as every queued command may be rejected */
+			command = this.next();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,732 @@
+package com.jockie.bot.core.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+
+import com.jockie.bot.core.command.impl.CommandListener;
+import com.jockie.bot.core.utility.ArgumentUtility;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateNameEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.update.GuildMemberUpdateNicknameEvent;
+import net.dv8tion.jda.api.events.role.RoleCreateEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import net.dv8tion.jda.api.events.user.update.GenericUserUpdateEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateDiscriminatorEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateGlobalNameEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateNameEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * An index of the names of the members, roles and text channels of every guild, this is used by the Discord parsers
+ * to look entities up by name without scanning the cache of the guild. Each guild is indexed from its cache, in the background, the first
+ * time it is looked up and is then kept up to date from the events of the guild, meaning that the index has to receive
+ * the events of every shard, this is done automatically when it is set through {@link CommandListener#setGuildNameIndex(GuildNameIndex)}.
+ * Lookups go through the cache of the guild until it has been indexed.
+ * <br><br>
+ * Members which are added to the cache without an event, such as when they are loaded lazily or chunked, are not indexed until a lookup
+ * which does not find them in the index finds them by scanning the cache of the guild, this is only done while the cache of the guild holds more members than the index.
+ * <br><br>
+ * The lookups return the same entities as the equivalent methods in {@link ArgumentUtility}, unless the {@link #setFuzzyFallback(boolean) fuzzy fallback}
+ * is enabled in which case a lookup, ignoring case, which does not find anything falls back to the best matching name,
+ * such as a name which starts with the content or is misspelled.
+ */
+public class GuildNameIndex implements EventListener {
+	
+	private static final Logger LOG = JDALogger.getLog(GuildNameIndex.class);
+	
+	protected static class GuildEntry {
+		
+		protected final long guildId;
+		
+		/* Only changed while holding the lock of the entry, lookups go through the cache of the guild until it is set */
+		protected volatile boolean indexed = false;
+		
+		protected final NameMap members;
+		protected final NameMap tags = new NameMap();
+		protected final NameMap roles;
+		protected final NameMap textChannels;
+		
+		protected GuildEntry(long guildId, boolean searchable) {
+			this.guildId = guildId;
+			
+			this.members = new NameMap(searchable);
+			this.roles = new NameMap(searchable);
+			this.textChannels = new NameMap(searchable);
+		}
+	}
+	
+	protected final Map<Long, GuildEntry> guilds = new ConcurrentHashMap<>();
+	
+	/* The guilds each user has been indexed in, used to update the names of a user without going through every guild */
+	protected final Map<Long, Set<Long>> userGuilds = new ConcurrentHashMap<>();
+	
+	protected final boolean searchable;
+	
+	protected volatile int maxCandidates = 1000;
+	
+	protected volatile boolean fuzzyFallback = false;
+	
+	public GuildNameIndex() {
+		this(false);
+	}
+	
+	/**
+	 * @param searchable whether or not the names should also be indexed for {@link NameMap#search(String, int, int) searching},
+	 * this enables the search methods, such as {@link #searchMembers(Guild, String, int)}, and allows the {@link #setFuzzyFallback(boolean) fuzzy fallback}
+	 * to be enabled. This uses additional memory for every distinct name.
+	 */
+	public GuildNameIndex(boolean searchable) {
+		this.searchable = searchable;
+	}
+	
+	/**
+	 * @return whether or not the names are indexed for searching
+	 * 
+	 * @see #GuildNameIndex(boolean)
+	 */
+	public boolean isSearchable() {
+		return this.searchable;
+	}
+	
+	/**
+	 * Set whether or not the lookups by name, which are used by the parsers, should fall back to the best matching name when no entity has the name,
+	 * as long as the best match is unambiguous. This means that an argument such as "jo" can resolve to a member named "John",
+	 * which may not be wanted for commands such as ban. Only lookups which ignore case fall back to the best match.
+	 * <br><br>
+	 * Default: false
+	 * 
+	 * @param fuzzyFallback whether or not lookups by name should fall back to the best matching name
+	 * 
+	 * @return the {@link GuildNameIndex} instance, useful for chaining
+	 * 
+	 * @throws IllegalStateException if the fallback is enabled and the index is not {@link #isSearchable() searchable}
+	 */
+	@Nonnull
+	public GuildNameIndex setFuzzyFallback(boolean fuzzyFallback) {
+		if(fuzzyFallback && !this.searchable) {
+			throw new IllegalStateException("The index is not searchable");
+		}
+		
+		this.fuzzyFallback = fuzzyFallback;
+		
+		return this;
+	}
+	
+	/**
+	 * @return whether or not the lookups by name fall back to the best matching name
+	 * 
+	 * @see #setFuzzyFallback(boolean)
+	 */
+	public boolean isFuzzyFallback() {
+		return this.fuzzyFallback;
+	}
+	
+	/**
+	 * Set the maximum amount of candidates a single search considers, this bounds how long a search
+	 * can take in guilds with a lot of similar names at the cost of possibly missing some matches.
+	 * <br><br>
+	 * Default: 1000
+	 * 
+	 * @param maxCandidates the maximum amount of candidates a single search considers
+	 * 
+	 * @return the {@link GuildNameIndex} instance, useful for chaining
+	 */
+	@Nonnull
+	public GuildNameIndex setMaxCandidates(int maxCandidates) {
+		Checks.positive(maxCandidates, "maxCandidates");
+		
+		this.maxCandidates = maxCandidates;
+		
+		return this;
+	}
+	
+	/**
+	 * @return the maximum amount of candidates a single search considers
+	 * 
+	 * @see #setMaxCandidates(int)
+	 */
+	public int getMaxCandidates() {
+		return this.maxCandidates;
+	}
+	
+	/**
+	 * Get the index of a guild, the guild is indexed from its cache in the background if it has not been indexed yet
+	 * 
+	 * @param guild the guild to get the index of
+	 * 
+	 * @return the index of the guild, or null if the guild has not been indexed yet,
+	 * the index has to be synchronized on while it is being used
+	 */
+	@Nullable
+	protected GuildEntry getEntry(@Nonnull Guild guild) {
+		GuildEntry entry = this.getOrCreateEntry(guild, true);
+		
+		return entry.indexed ? entry : null;
+	}
+	
+	/**
+	 * Get the index of a guild, the guild is indexed from its cache on the current thread if it has not been indexed yet
+	 * 
+	 * @param guild the guild to get the index of
+	 * 
+	 * @return the index of the guild, the index has to be synchronized on while it is being used
+	 */
+	@Nonnull
+	protected GuildEntry awaitEntry(@Nonnull Guild guild) {
+		GuildEntry entry = this.getOrCreateEntry(guild, false);
+		
+		/* Waits for the guild to be indexed if another thread is indexing it */
+		this.index(guild, entry);
+		
+		return entry;
+	}
+	
+	private GuildEntry getOrCreateEntry(Guild guild, boolean background) {
+		GuildEntry entry = this.guilds.get(guild.getIdLong());
+		if(entry != null) {
+			return entry;
+		}
+		
+		/*
+		 * The entry is published before the cache is read, any update to the cache which happens before the entry is published
+		 * is included when the cache is read and any event after it is applied once the guild has been indexed
+		 */
+		GuildEntry created = new GuildEntry(guild.getIdLong(), this.searchable);
+		
+		entry = this.guilds.putIfAbsent(guild.getIdLong(), created);
+		if(entry != null) {
+			return entry;
+		}
+		
+		if(background) {
+			/* Going through the cache of a large guild takes a while, it is done in the background rather than on the thread of the lookup */
+			CompletableFuture.runAsync(() -> this.index(guild, created)).exceptionally((throwable) -> {
+				LOG.error("Failed to index guild {}", guild.getIdLong(), throwable);
+				
+				/* The guild is indexed again the next time it is looked up */
+				this.guilds.remove(guild.getIdLong(), created);
+				
+				return null;
+			});
+		}
+		
+		return created;
+	}
+	
+	/* Does nothing if the guild has already been indexed */
+	private void index(Guild guild, GuildEntry entry) {
+		synchronized(entry) {
+			if(entry.indexed) {
+				return;
+			}
+			
+			guild.getMemberCache().forEach((member) -> this.putMember(entry, member));
+			guild.getRoleCache().forEach((role) -> entry.roles.put(role.getIdLong(), role.getName()));
+			guild.getTextChannelCache().forEach((channel) -> entry.textChannels.put(channel.getIdLong(), channel.getName()));
+			
+			entry.indexed = true;
+		}
+	}
+	
+	/* Must be called while holding the lock of the entry */
+	protected void putMember(GuildEntry entry, Member member) {
+		User user = member.getUser();
+		long id = user.getIdLong();
+		
+		entry.members.put(id, member.getEffectiveName());
+		entry.tags.put(id, user.getName() + "#" + user.getDiscriminator());
+		
+		this.userGuilds.compute(id, (key, guilds) -> {
+			if(guilds == null) {
+				guilds = ConcurrentHashMap.newKeySet();
+			}
+			
+			guilds.add(entry.guildId);
+			
+			return guilds;
+		});
+	}
+	
+	/* Must be called while holding the lock of the entry */
+	protected void removeMember(GuildEntry entry, long id) {
+		entry.members.remove(id);
+		entry.tags.remove(id);
+		
+		this.removeUserGuild(id, entry.guildId);
+	}
+	
+	private void removeUserGuild(long id, long guildId) {
+		this.userGuilds.computeIfPresent(id, (key, guilds) -> {
+			guilds.remove(guildId);
+			
+			return guilds.isEmpty() ? null : guilds;
+		});
+	}
+	
+	private static <T> List<T> resolve(Set<Long> ids, LongFunction<T> getter) {
+		if(ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		List<T> entities = new ArrayList<>(ids.size());
+		for(long id : ids) {
+			/* The entity may have been removed from the cache without an event, such as when members are unloaded */
+			T entity = getter.apply(id);
+			if(entity != null) {
+				entities.add(entity);
+			}
+		}
+		
+		return entities;
+	}
+	
+	/* Must be called while holding the lock of the entry the map belongs to */
+	private <T> List<T> search(NameMap names, String query, int limit, LongFunction<T> getter) {
+		List<T> entities = new ArrayList<>();
+		for(NameMap.Match match : names.search(query, limit, this.maxCandidates)) {
+			entities.addAll(GuildNameIndex.resolve(match.getIds(), getter));
+			if(entities.size() >= limit) {
+				return new ArrayList<>(entities.subList(0, limit));
+			}
+		}
+		
+		return entities;
+	}
+	
+	/* 
+	 * The best match is only used if it is unambiguous, meaning that it is a single entity which matches better than
+	 * anything else, otherwise the lookup fails the same way as it would without searching.
+	 * 
+	 * Must be called while holding the lock of the entry the map belongs to.
+	 */
+	protected <T> List<T> resolveBest(NameMap names, String query, LongFunction<T> getter) {
+		List<NameMap.Match> matches = names.search(query, 2, this.maxCandidates);
+		if(matches.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		NameMap.Match best = matches.get(0);
+		if(matches.size() > 1) {
+			NameMap.Match next = matches.get(1);
+			if(best.getType() == next.getType() && best.getDistance() == next.getDistance()) {
+				return Collections.emptyList();
+			}
+		}
+		
+		List<T> entities = GuildNameIndex.resolve(best.getIds(), getter);
+		
+		return entities.size() == 1 ? entities : Collections.emptyList();
+	}
+	
+	/**
+	 * Search for the members whose effective name is the most similar to the query, see {@link NameMap#search(String, int, int)}
+	 * 
+	 * @param guild the guild to search for the members in
+	 * @param query the name to search for
+	 * @param limit the maximum amount of members to return
+	 * 
+	 * @return the best matching members, best first, this waits for the guild to be indexed if it has not been indexed yet
+	 * 
+	 * @throws IllegalStateException if the index is not {@link #isSearchable() searchable}
+	 */
+	@Nonnull
+	public List<Member> searchMembers(@Nonnull Guild guild, @Nonnull String query, int limit) {
+		Checks.notNull(guild, "guild");
+		
+		if(!this.searchable) {
+			throw new IllegalStateException("The index is not searchable");
+		}
+		
+		GuildEntry entry = this.awaitEntry(guild);
+		synchronized(entry) {
+			return this.search(entry.members, query, limit, guild::getMemberById);
+		}
+	}
+	
+	/**
+	 * Search for the roles whose name is the most similar to the query, see {@link NameMap#search(String, int, int)}
+	 * 
+	 * @param guild the guild to search for the roles in
+	 * @param query the name to search for
+	 * @param limit the maximum amount of roles to return
+	 * 
+	 * @return the best matching roles, best first, this waits for the guild to be indexed if it has not been indexed yet
+	 * 
+	 * @throws IllegalStateException if the index is not {@link #isSearchable() searchable}
+	 */
+	@Nonnull
+	public List<Role> searchRoles(@Nonnull Guild guild, @Nonnull String query, int limit) {
+		Checks.notNull(guild, "guild");
+		
+		if(!this.searchable) {
+			throw new IllegalStateException("The index is not searchable");
+		}
+		
+		GuildEntry entry = this.awaitEntry(guild);
+		synchronized(entry) {
+			return this.search(entry.roles, query, limit, guild::getRoleById);
+		}
+	}
+	
+	/**
+	 * Search for the text channels whose name is the most similar to the query, see {@link NameMap#search(String, int, int)}
+	 * 
+	 * @param guild the guild to search for the text channels in
+	 * @param query the name to search for
+	 * @param limit the maximum amount of text channels to return
+	 * 
+	 * @return the best matching text channels, best first, this waits for the guild to be indexed if it has not been indexed yet
+	 * 
+	 * @throws IllegalStateException if the index is not {@link #isSearchable() searchable}
+	 */
+	@Nonnull
+	public List<TextChannel> searchTextChannels(@Nonnull Guild guild, @Nonnull String query, int limit) {
+		Checks.notNull(guild, "guild");
+		
+		if(!this.searchable) {
+			throw new IllegalStateException("The index is not searchable");
+		}
+		
+		GuildEntry entry = this.awaitEntry(guild);
+		synchronized(entry) {
+			return this.search(entry.textChannels, query, limit, guild::getTextChannelById);
+		}
+	}
+	
+	/**
+	 * Get members by id, mention, effective name or tag
+	 * If a member was found by id it will not check for names
+	 * 
+	 * @param guild the guild to search for the members in
+	 * @param value the mention, id or tag of the member to search for
+	 * @param ignoreCase whether or not the name should be case sensitive
+	 * 
+	 * @return the found members
+	 * 
+	 * @see ArgumentUtility#getMembersByIdOrName(Guild, String, boolean)
+	 */
+	@Nonnull
+	public List<Member> getMembersByIdOrName(@Nonnull Guild guild, @Nonnull String value, boolean ignoreCase) {
+		Checks.notNull(guild, "guild");
+		Checks.notNull(value, "value");
+		
+		{
+			Member member = ArgumentUtility.getMemberById(guild, value);
+			if(member != null) {
+				return List.of(member);
+			}
+		}
+		
+		Matcher matcher = ArgumentUtility.USER_NAME_PATTERN.matcher(value);
+		if(matcher.matches()) {
+			Member member = this.getMemberByTag(guild, matcher.group(1), matcher.group(2));
+			if(member != null) {
+				return List.of(member);
+			}
+		}
+		
+		GuildEntry entry = this.getEntry(guild);
+		if(entry == null) {
+			return ArgumentUtility.getMembersByIdOrName(guild, value, ignoreCase);
+		}
+		
+		List<Member> named;
+		boolean complete;
+		
+		synchronized(entry) {
+			named = GuildNameIndex.resolve(entry.members.get(value), guild::getMemberById);
+			complete = guild.getMemberCache().size() <= entry.members.size();
+		}
+		
+		if(!ignoreCase) {
+			named.removeIf((member) -> !member.getEffectiveName().equals(value));
+		}
+		
+		if(!named.isEmpty()) {
+			return named;
+		}
+		
+		/* 
+		 * Members can be added to the cache without an event, such as when they are loaded lazily or chunked,
+		 * those have not been indexed and can only be found by scanning the cache, they are indexed once they have been found
+		 */
+		if(!complete) {
+			named = ArgumentUtility.getMembersByIdOrName(guild, value, ignoreCase);
+			if(!named.isEmpty()) {
+				synchronized(entry) {
+					for(Member member : named) {
+						this.putMember(entry, member);
+					}
+				}
+				
+				return named;
+			}
+		}
+		
+		if(ignoreCase && this.fuzzyFallback) {
+			synchronized(entry) {
+				return this.resolveBest(entry.members, value, guild::getMemberById);
+			}
+		}
+		
+		return named;
+	}
+	
+	/**
+	 * Get roles by id, mention or name
+	 * If a role was found by id it will not check for names
+	 * 
+	 * @param guild the guild to search for the roles in
+	 * @param value the mention, id or name of the role to search for
+	 * @param ignoreCase whether or not the name should be case sensitive
+	 * 
+	 * @return the found roles
+	 * 
+	 * @see ArgumentUtility#getRolesByIdOrName(Guild, String, boolean)
+	 */
+	@Nonnull
+	public List<Role> getRolesByIdOrName(@Nonnull Guild guild, @Nonnull String value, boolean ignoreCase) {
+		Checks.notNull(guild, "guild");
+		Checks.notNull(value, "value");
+		
+		Role role = ArgumentUtility.getRoleById(guild, value);
+		if(role != null) {
+			return List.of(role);
+		}
+		
+		GuildEntry entry = this.getEntry(guild);
+		if(entry == null) {
+			return ArgumentUtility.getRolesByIdOrName(guild, value, ignoreCase);
+		}
+		
+		List<Role> roles;
+		
+		synchronized(entry) {
+			roles = GuildNameIndex.resolve(entry.roles.get(value), guild::getRoleById);
+			if(roles.isEmpty() && ignoreCase && this.fuzzyFallback) {
+				return this.resolveBest(entry.roles, value, guild::getRoleById);
+			}
+		}
+		
+		if(!ignoreCase) {
+			roles.removeIf((a) -> !a.getName().equals(value));
+		}
+		
+		return roles;
+	}
+	
+	/**
+	 * Get text channels by id, mention or name
+	 * If a text channel was found by id it will not check for names
+	 * 
+	 * @param guild the guild to search for the text channels in
+	 * @param value the mention, id or name of the text channel to search for
+	 * @param ignoreCase whether or not the name should be case sensitive
+	 * 
+	 * @return the found text channels
+	 * 
+	 * @see ArgumentUtility#getTextChannelsByIdOrName(Guild, String, boolean)
+	 */
+	@Nonnull
+	public List<TextChannel> getTextChannelsByIdOrName(@Nonnull Guild guild, @Nonnull String value, boolean ignoreCase) {
+		Checks.notNull(guild, "guild");
+		Checks.notNull(value, "value");
+		
+		TextChannel channel = ArgumentUtility.getTextChannelById(guild, value);
+		if(channel != null) {
+			return List.of(channel);
+		}
+		
+		GuildEntry entry = this.getEntry(guild);
+		if(entry == null) {
+			return ArgumentUtility.getTextChannelsByIdOrName(guild, value, ignoreCase);
+		}
+		
+		List<TextChannel> channels;
+		
+		synchronized(entry) {
+			channels = GuildNameIndex.resolve(entry.textChannels.get(value), guild::getTextChannelById);
+			if(channels.isEmpty() && ignoreCase && this.fuzzyFallback) {
+				return this.resolveBest(entry.textChannels, value, guild::getTextChannelById);
+			}
+		}
+		
+		if(!ignoreCase) {
+			channels.removeIf((a) -> !a.getName().equals(value));
+		}
+		
+		return channels;
+	}
+	
+	/**
+	 * Get the member with the provided tag, this does not fall back to the effective name
+	 * 
+	 * @param guild the guild to search for the member in
+	 * @param name the name of the user
+	 * @param discriminator the discriminator of the user
+	 * 
+	 * @return the found member, may be null
+	 */
+	@Nullable
+	public Member getMemberByTag(@Nonnull Guild guild, @Nonnull String name, @Nonnull String discriminator) {
+		Checks.notNull(guild, "guild");
+		Checks.notNull(name, "name");
+		Checks.notNull(discriminator, "discriminator");
+		
+		GuildEntry entry = this.getEntry(guild);
+		
+		Iterable<Member> tagged;
+		if(entry != null) {
+			synchronized(entry) {
+				tagged = GuildNameIndex.resolve(entry.tags.get(name + "#" + discriminator), guild::getMemberById);
+			}
+		}else{
+			tagged = guild.getMemberCache();
+		}
+		
+		for(Member member : tagged) {
+			User user = member.getUser();
+			if(user.getDiscriminator().equals(discriminator) && user.getName().equals(name)) {
+				return member;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * @return the amount of guilds which have been, or are being, indexed
+	 */
+	public int getIndexedGuildCount() {
+		return this.guilds.size();
+	}
+	
+	/**
+	 * Remove the index of a guild, the guild is indexed again the next time it is looked up
+	 * 
+	 * @param guildId the id of the guild
+	 */
+	public void invalidate(long guildId) {
+		this.guilds.remove(guildId);
+	}
+	
+	/* Events for guilds which have not been indexed are ignored, the guild is indexed from the cache once it is looked up */
+	private void update(Guild guild, Consumer<GuildEntry> update) {
+		GuildEntry entry = this.guilds.get(guild.getIdLong());
+		if(entry == null) {
+			return;
+		}
+		
+		synchronized(entry) {
+			update.accept(entry);
+		}
+	}
+	
+	private void updateUser(JDA jda, User user) {
+		long id = user.getIdLong();
+		
+		Set<Long> guildIds = this.userGuilds.get(id);
+		if(guildIds == null) {
+			return;
+		}
+		
+		for(long guildId : guildIds) {
+			GuildEntry entry = this.guilds.get(guildId);
+			if(entry == null) {
+				/* The guild has been invalidated since the user was indexed in it */
+				this.removeUserGuild(id, guildId);
+				
+				continue;
+			}
+			
+			/* The guild may be on another shard, that shard updates it when it receives the event */
+			Guild guild = jda.getGuildById(guildId);
+			Member member = guild != null ? guild.getMemberById(id) : null;
+			if(member == null) {
+				continue;
+			}
+			
+			synchronized(entry) {
+				if(entry.members.contains(id)) {
+					this.putMember(entry, member);
+				}
+			}
+		}
+	}
+	
+	@Override
+	public void onEvent(@Nonnull GenericEvent event) {
+		if(event instanceof GuildMemberJoinEvent) {
+			Member member = ((GuildMemberJoinEvent) event).getMember();
+			
+			this.update(member.getGuild(), (entry) -> this.putMember(entry, member));
+		}else if(event instanceof GuildMemberUpdateNicknameEvent) {
+			Member member = ((GuildMemberUpdateNicknameEvent) event).getMember();
+			
+			this.update(member.getGuild(), (entry) -> this.putMember(entry, member));
+		}else if(event instanceof GuildMemberRemoveEvent) {
+			GuildMemberRemoveEvent removeEvent = (GuildMemberRemoveEvent) event;
+			
+			this.update(removeEvent.getGuild(), (entry) -> this.removeMember(entry, removeEvent.getUser().getIdLong()));
+		}else if(event instanceof UserUpdateNameEvent || event instanceof UserUpdateGlobalNameEvent || event instanceof UserUpdateDiscriminatorEvent) {
+			this.updateUser(event.getJDA(), ((GenericUserUpdateEvent<?>) event).getUser());
+		}else if(event instanceof RoleCreateEvent) {
+			Role role = ((RoleCreateEvent) event).getRole();
+			
+			this.update(role.getGuild(), (entry) -> entry.roles.put(role.getIdLong(), role.getName()));
+		}else if(event instanceof RoleUpdateNameEvent) {
+			Role role = ((RoleUpdateNameEvent) event).getRole();
+			
+			this.update(role.getGuild(), (entry) -> entry.roles.put(role.getIdLong(), role.getName()));
+		}else if(event instanceof RoleDeleteEvent) {
+			Role role = ((RoleDeleteEvent) event).getRole();
+			
+			this.update(role.getGuild(), (entry) -> entry.roles.remove(role.getIdLong()));
+		}else if(event instanceof ChannelCreateEvent || event instanceof ChannelUpdateNameEvent) {
+			Channel channel = event instanceof ChannelCreateEvent ? ((ChannelCreateEvent) event).getChannel() : ((ChannelUpdateNameEvent) event).getChannel();
+			if(channel instanceof TextChannel) {
+				TextChannel textChannel = (TextChannel) channel;
+				
+				this.update(textChannel.getGuild(), (entry) -> entry.textChannels.put(textChannel.getIdLong(), textChannel.getName()));
+			}
+		}else if(event instanceof ChannelDeleteEvent) {
+			Channel channel = ((ChannelDeleteEvent) event).getChannel();
+			if(channel instanceof TextChannel) {
+				TextChannel textChannel = (TextChannel) channel;
+				
+				this.update(textChannel.getGuild(), (entry) -> entry.textChannels.remove(textChannel.getIdLong()));
+			}
+		}else if(event instanceof GuildLeaveEvent) {
+			this.invalidate(((GuildLeaveEvent) event).getGuild().getIdLong());
+		}
+	}
+}
\ No newline at end of file
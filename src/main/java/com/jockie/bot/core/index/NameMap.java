@@ -0,0 +1,411 @@
+package com.jockie.bot.core.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * Maps case-folded names to the ids of the entities which have that name, with an optional search index
+ * which supports prefix, contains and misspelled (edit distance) matches.
+ * <br><br>
+ * This is not thread-safe, every access has to be synchronized externally.
+ */
+public class NameMap {
+	
+	/**
+	 * Fold a name the same way as {@link String#equalsIgnoreCase(String)} compares characters,
+	 * two names are equal ignoring case if, and only if, their folded names are equal
+	 * 
+	 * @param name the name to fold
+	 * 
+	 * @return the folded name
+	 */
+	@Nonnull
+	public static String fold(@Nonnull String name) {
+		char[] characters = null;
+		for(int i = 0; i < name.length(); i++) {
+			char character = name.charAt(i);
+			char folded = Character.toLowerCase(Character.toUpperCase(character));
+			if(folded == character) {
+				continue;
+			}
+			
+			/* Only copy the name if it has any characters which have to be folded */
+			if(characters == null) {
+				characters = name.toCharArray();
+			}
+			
+			characters[i] = folded;
+		}
+		
+		return characters != null ? new String(characters) : name;
+	}
+	
+	/* Packs the three characters starting at the index in to a single key */
+	private static long trigram(String name, int index) {
+		return ((long) name.charAt(index) << 32) | ((long) name.charAt(index + 1) << 16) | name.charAt(index + 2);
+	}
+	
+	/**
+	 * The edit distance between two names, stops early and returns a value greater than the max
+	 * distance as soon as the distance is known to exceed it
+	 * 
+	 * @param first the first name
+	 * @param second the second name
+	 * @param maxDistance the maximum distance of interest
+	 * 
+	 * @return the edit distance between the two names, or a value greater than the max distance
+	 */
+	public static int distance(@Nonnull String first, @Nonnull String second, int maxDistance) {
+		if(Math.abs(first.length() - second.length()) > maxDistance) {
+			return maxDistance + 1;
+		}
+		
+		int[] previous = new int[second.length() + 1];
+		int[] current = new int[second.length() + 1];
+		for(int j = 0; j < previous.length; j++) {
+			previous[j] = j;
+		}
+		
+		for(int i = 1; i <= first.length(); i++) {
+			current[0] = i;
+			
+			int rowMinimum = i;
+			for(int j = 1; j <= second.length(); j++) {
+				int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+				
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				rowMinimum = Math.min(rowMinimum, current[j]);
+			}
+			
+			if(rowMinimum > maxDistance) {
+				return maxDistance + 1;
+			}
+			
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		
+		return previous[second.length()];
+	}
+	
+	/**
+	 * How a name matched a search, ordered from the best to the worst kind of match
+	 */
+	public static enum MatchType {
+		/** The name is the same as the query, ignoring case */
+		EXACT,
+		/** The name starts with the query */
+		PREFIX,
+		/** The name contains the query */
+		CONTAINS,
+		/** The name is within a few edits of the query */
+		SIMILAR;
+	}
+	
+	/**
+	 * A name which matched a search
+	 */
+	public static class Match implements Comparable<Match> {
+		
+		private final String name;
+		private final MatchType type;
+		private final int distance;
+		private final Set<Long> ids;
+		
+		private Match(String name, MatchType type, int distance, Set<Long> ids) {
+			this.name = name;
+			this.type = type;
+			this.distance = distance;
+			this.ids = ids;
+		}
+		
+		/**
+		 * @return the folded name which matched
+		 */
+		@Nonnull
+		public String getName() {
+			return this.name;
+		}
+		
+		/**
+		 * @return how the name matched
+		 */
+		@Nonnull
+		public MatchType getType() {
+			return this.type;
+		}
+		
+		/**
+		 * @return how far the name is from the query within its {@link #getType() type}, lower is better.
+		 * This is the amount of extra characters for prefix and contains matches and the edit distance for similar matches
+		 */
+		public int getDistance() {
+			return this.distance;
+		}
+		
+		/**
+		 * @return the ids of the entities with the name, this is a view and has to be copied if it is used after the lock is released
+		 */
+		@Nonnull
+		public Set<Long> getIds() {
+			return this.ids;
+		}
+		
+		@Override
+		public int compareTo(Match other) {
+			int compare = this.type.compareTo(other.type);
+			if(compare != 0) {
+				return compare;
+			}
+			
+			compare = Integer.compare(this.distance, other.distance);
+			if(compare != 0) {
+				return compare;
+			}
+			
+			return this.name.compareTo(other.name);
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("Match{name=%s, type=%s, distance=%s, ids=%s}", this.name, this.type, this.distance, this.ids);
+		}
+	}
+	
+	private final Map<String, Set<Long>> ids = new HashMap<>();
+	private final Map<Long, String> names = new HashMap<>();
+	
+	/* Only maintained if the map is searchable */
+	private final NavigableSet<String> sortedNames;
+	private final Map<Long, Set<String>> trigrams;
+	
+	public NameMap() {
+		this(false);
+	}
+	
+	/**
+	 * @param searchable whether or not the map should maintain the index used by {@link #search(String, int, int)},
+	 * this uses additional memory for every distinct name
+	 */
+	public NameMap(boolean searchable) {
+		this.sortedNames = searchable ? new TreeSet<>() : null;
+		this.trigrams = searchable ? new HashMap<>() : null;
+	}
+	
+	/**
+	 * @return whether or not {@link #search(String, int, int)} can be used
+	 */
+	public boolean isSearchable() {
+		return this.sortedNames != null;
+	}
+	
+	/**
+	 * Add an entity or update the name of an entity
+	 * 
+	 * @param id the id of the entity
+	 * @param name the name of the entity
+	 */
+	public void put(long id, @Nonnull String name) {
+		String key = NameMap.fold(name);
+		
+		String previous = this.names.put(id, key);
+		if(previous != null) {
+			if(previous.equals(key)) {
+				return;
+			}
+			
+			this.removeId(previous, id);
+		}
+		
+		Set<Long> ids = this.ids.get(key);
+		if(ids == null) {
+			ids = new HashSet<>(2);
+			
+			this.ids.put(key, ids);
+			this.addName(key);
+		}
+		
+		ids.add(id);
+	}
+	
+	/**
+	 * @param id the id of the entity to remove
+	 */
+	public void remove(long id) {
+		String previous = this.names.remove(id);
+		if(previous != null) {
+			this.removeId(previous, id);
+		}
+	}
+	
+	private void removeId(String key, long id) {
+		Set<Long> ids = this.ids.get(key);
+		if(ids != null && ids.remove(id) && ids.isEmpty()) {
+			this.ids.remove(key);
+			this.removeName(key);
+		}
+	}
+	
+	private void addName(String key) {
+		if(this.sortedNames == null) {
+			return;
+		}
+		
+		this.sortedNames.add(key);
+		for(int i = 0; i + 3 <= key.length(); i++) {
+			this.trigrams.computeIfAbsent(NameMap.trigram(key, i), (k) -> new HashSet<>(4)).add(key);
+		}
+	}
+	
+	private void removeName(String key) {
+		if(this.sortedNames == null) {
+			return;
+		}
+		
+		this.sortedNames.remove(key);
+		for(int i = 0; i + 3 <= key.length(); i++) {
+			long trigram = NameMap.trigram(key, i);
+			
+			Set<String> names = this.trigrams.get(trigram);
+			if(names != null && names.remove(key) && names.isEmpty()) {
+				this.trigrams.remove(trigram);
+			}
+		}
+	}
+	
+	/**
+	 * @param id the id of the entity
+	 * 
+	 * @return whether or not the entity is in the map
+	 */
+	public boolean contains(long id) {
+		return this.names.containsKey(id);
+	}
+	
+	/**
+	 * @param name the name to get the entities of, ignoring case
+	 * 
+	 * @return the ids of the entities with the provided name, this is a view and has to be copied if it is used after the lock is released
+	 */
+	@Nonnull
+	public Set<Long> get(@Nonnull String name) {
+		return this.ids.getOrDefault(NameMap.fold(name), Collections.emptySet());
+	}
+	
+	/**
+	 * @return the amount of entities in the map
+	 */
+	public int size() {
+		return this.names.size();
+	}
+	
+	/**
+	 * Search for the names which are the most similar to the query, ignoring case. The names are ranked
+	 * by their {@link MatchType match type} and then by their {@link Match#getDistance() distance} to the query.
+	 * <br><br>
+	 * Names within a few edits of the query are found through the three character sequences they share with the query,
+	 * meaning that short queries, shorter than 3 characters, only find exact and prefix matches. To bound how long a search takes,
+	 * at most the provided amount of candidates are considered, any further candidates are ignored.
+	 * 
+	 * @param query the query to search for
+	 * @param limit the maximum amount of matches to return
+	 * @param maxCandidates the maximum amount of candidates to consider
+	 * 
+	 * @return the best matches, best first
+	 * 
+	 * @throws IllegalStateException if the map is not {@link #isSearchable() searchable}
+	 */
+	@Nonnull
+	public List<Match> search(@Nonnull String query, int limit, int maxCandidates) {
+		Checks.notNull(query, "query");
+		Checks.positive(limit, "limit");
+		Checks.positive(maxCandidates, "maxCandidates");
+		
+		if(!this.isSearchable()) {
+			throw new IllegalStateException("The name map is not searchable");
+		}
+		
+		String key = NameMap.fold(query);
+		
+		Map<String, Match> matches = new HashMap<>();
+		
+		Set<Long> exact = this.ids.get(key);
+		if(exact != null) {
+			matches.put(key, new Match(key, MatchType.EXACT, 0, exact));
+		}
+		
+		int candidates = 0;
+		
+		/* The names are sorted, every name which starts with the query is in this range */
+		for(String name : this.sortedNames.subSet(key, false, key + Character.MAX_VALUE, false)) {
+			if(++candidates > maxCandidates) {
+				break;
+			}
+			
+			matches.put(name, new Match(name, MatchType.PREFIX, name.length() - key.length(), this.ids.get(name)));
+		}
+		
+		int queryTrigrams = key.length() - 2;
+		if(queryTrigrams > 0 && candidates < maxCandidates) {
+			Map<String, Integer> shared = new HashMap<>();
+			
+			COUNT:
+			for(int i = 0; i < queryTrigrams; i++) {
+				Set<String> names = this.trigrams.get(NameMap.trigram(key, i));
+				if(names == null) {
+					continue;
+				}
+				
+				for(String name : names) {
+					if(++candidates > maxCandidates) {
+						break COUNT;
+					}
+					
+					shared.merge(name, 1, Integer::sum);
+				}
+			}
+			
+			int maxDistance = Math.max(1, key.length() / 4);
+			for(Map.Entry<String, Integer> entry : shared.entrySet()) {
+				String name = entry.getKey();
+				if(matches.containsKey(name)) {
+					continue;
+				}
+				
+				int index = name.indexOf(key);
+				if(index != -1) {
+					matches.put(name, new Match(name, MatchType.CONTAINS, name.length() - key.length(), this.ids.get(name)));
+					
+					continue;
+				}
+				
+				/* A single edit changes at most 3 of the query's trigrams, skip the names which can not be close enough */
+				if(queryTrigrams - entry.getValue() > maxDistance * 3) {
+					continue;
+				}
+				
+				int distance = NameMap.distance(key, name, maxDistance);
+				if(distance <= maxDistance) {
+					matches.put(name, new Match(name, MatchType.SIMILAR, distance, this.ids.get(name)));
+				}
+			}
+		}
+		
+		List<Match> ranked = new ArrayList<>(matches.values());
+		Collections.sort(ranked);
+		
+		return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+	}
+}
\ No newline at end of file
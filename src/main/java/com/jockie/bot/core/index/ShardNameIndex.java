@@ -0,0 +1,504 @@
+package com.jockie.bot.core.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+
+import com.jockie.bot.core.command.impl.CommandListener;
+import com.jockie.bot.core.utility.ArgumentUtility;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message.MentionType;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.update.GuildUpdateNameEvent;
+import net.dv8tion.jda.api.events.user.update.GenericUserUpdateEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateDiscriminatorEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateNameEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * An index of the users and guilds of every shard, this is used by the user and guild parsers to look users and guilds up
+ * by id or name with a single lookup rather than going through the cache of every shard. The index is kept up to date from the events
+ * of the shards, meaning that the index has to receive the events of every shard, this is done automatically when it is set
+ * through {@link CommandListener#setShardNameIndex(ShardNameIndex)}.
+ * <br><br>
+ * Building the index goes through the cache of every shard, this can be done up front with {@link #index(ShardManager)}, otherwise it is built
+ * in the background the first time anything is looked up and lookups go through the cache of every shard until it has been built.
+ * <br><br>
+ * The index keeps track of every shard which caches a user, a user is only removed once none of them do.
+ * Users can be added to the cache without an event, for instance when the members of a guild are loaded lazily, these are still found by id
+ * but can only be found by name if lookups which do not find a user are allowed to {@link #setCacheFallback(boolean) fall back} to the cache of every shard.
+ * Other than that the lookups return the same entities as the equivalent methods in {@link ArgumentUtility}.
+ */
+public class ShardNameIndex implements EventListener {
+	
+	private static final Logger LOG = JDALogger.getLog(ShardNameIndex.class);
+	
+	/* The names of an indexed user and the shards which cache it, only replaced through compute on the users map */
+	private static class UserEntry {
+		
+		private final String name;
+		private final String tag;
+		
+		private final Set<Integer> shards;
+		
+		private UserEntry(String name, String tag, Set<Integer> shards) {
+			this.name = name;
+			this.tag = tag;
+			this.shards = shards;
+		}
+	}
+	
+	/* The name of an indexed guild and the shard it belongs to, only replaced through compute on the guilds map */
+	private static class GuildEntry {
+		
+		private final String name;
+		private final int shardId;
+		
+		private GuildEntry(String name, int shardId) {
+			this.name = name;
+			this.shardId = shardId;
+		}
+	}
+	
+	private static void addName(Map<String, Set<Long>> names, String name, long id) {
+		/* Done in compute so that a concurrent removal can not drop the set the id is being added to */
+		names.compute(NameMap.fold(name), (key, ids) -> {
+			if(ids == null) {
+				ids = ConcurrentHashMap.newKeySet(2);
+			}
+			
+			ids.add(id);
+			
+			return ids;
+		});
+	}
+	
+	private static void removeName(Map<String, Set<Long>> names, String name, long id) {
+		names.computeIfPresent(NameMap.fold(name), (key, ids) -> {
+			ids.remove(id);
+			
+			return ids.isEmpty() ? null : ids;
+		});
+	}
+	
+	private final Map<Long, UserEntry> users = new ConcurrentHashMap<>();
+	private final Map<Long, GuildEntry> guilds = new ConcurrentHashMap<>();
+	
+	/* The ids of the entities by their folded name, a lookup by name is a single probe */
+	private final Map<String, Set<Long>> userNames = new ConcurrentHashMap<>();
+	private final Map<String, Set<Long>> userTags = new ConcurrentHashMap<>();
+	private final Map<String, Set<Long>> guildNames = new ConcurrentHashMap<>();
+	
+	/* Events are ignored until the index has started being built */
+	private final AtomicBoolean indexing = new AtomicBoolean(false);
+	
+	/* Lookups go through the cache of every shard until the index has been built */
+	private volatile boolean indexed = false;
+	
+	private volatile boolean cacheFallback = false;
+	
+	/**
+	 * Set whether or not lookups which do not find a user in the index should go through the cache of every shard,
+	 * users which are added to the cache without an event can only be found this way.
+	 * <br><br>
+	 * Default: false
+	 * 
+	 * @param cacheFallback whether or not lookups should fall back to the cache of every shard
+	 * 
+	 * @return the {@link ShardNameIndex} instance, useful for chaining
+	 */
+	@Nonnull
+	public ShardNameIndex setCacheFallback(boolean cacheFallback) {
+		this.cacheFallback = cacheFallback;
+		
+		return this;
+	}
+	
+	/**
+	 * @return whether or not lookups which do not find a user in the index should go through the cache of every shard
+	 * 
+	 * @see #setCacheFallback(boolean)
+	 */
+	public boolean isCacheFallback() {
+		return this.cacheFallback;
+	}
+	
+	private void putUser(int shardId, User user) {
+		this.users.compute(user.getIdLong(), (id, entry) -> {
+			/* The name is read while holding the lock of the id so that a concurrent update can not be overwritten with an older name */
+			String name = user.getName();
+			String tag = name + "#" + user.getDiscriminator();
+			
+			Set<Integer> shards;
+			if(entry == null) {
+				shards = Set.of(shardId);
+			}else if(entry.shards.contains(shardId)) {
+				shards = entry.shards;
+			}else{
+				Set<Integer> added = new HashSet<>(entry.shards);
+				added.add(shardId);
+				
+				shards = Set.copyOf(added);
+			}
+			
+			if(entry == null || !entry.name.equals(name)) {
+				if(entry != null) {
+					ShardNameIndex.removeName(this.userNames, entry.name, id);
+				}
+				
+				ShardNameIndex.addName(this.userNames, name, id);
+			}
+			
+			if(entry == null || !entry.tag.equals(tag)) {
+				if(entry != null) {
+					ShardNameIndex.removeName(this.userTags, entry.tag, id);
+				}
+				
+				ShardNameIndex.addName(this.userTags, tag, id);
+			}
+			
+			return new UserEntry(name, tag, shards);
+		});
+	}
+	
+	/* The user is only removed from the index once no shard caches it */
+	private void removeUser(int shardId, long id) {
+		this.users.computeIfPresent(id, (key, entry) -> {
+			if(!entry.shards.contains(shardId)) {
+				return entry;
+			}
+			
+			if(entry.shards.size() > 1) {
+				Set<Integer> shards = new HashSet<>(entry.shards);
+				shards.remove(shardId);
+				
+				return new UserEntry(entry.name, entry.tag, Set.copyOf(shards));
+			}
+			
+			ShardNameIndex.removeName(this.userNames, entry.name, id);
+			ShardNameIndex.removeName(this.userTags, entry.tag, id);
+			
+			return null;
+		});
+	}
+	
+	private void putGuild(int shardId, Guild guild) {
+		this.guilds.compute(guild.getIdLong(), (id, entry) -> {
+			String name = guild.getName();
+			
+			if(entry == null || !entry.name.equals(name)) {
+				if(entry != null) {
+					ShardNameIndex.removeName(this.guildNames, entry.name, id);
+				}
+				
+				ShardNameIndex.addName(this.guildNames, name, id);
+			}
+			
+			return new GuildEntry(name, shardId);
+		});
+	}
+	
+	private void removeGuild(long id) {
+		this.guilds.computeIfPresent(id, (key, entry) -> {
+			ShardNameIndex.removeName(this.guildNames, entry.name, id);
+			
+			return null;
+		});
+	}
+	
+	/* Copies the ids with the provided name, the ids are resolved after the copy as resolving them may remove them */
+	private static List<Long> getIds(Map<String, Set<Long>> names, String name) {
+		Set<Long> ids = names.get(NameMap.fold(name));
+		
+		return ids != null ? new ArrayList<>(ids) : List.of();
+	}
+	
+	/**
+	 * Build the index from the cache of every shard, this goes through the cache of every shard and should therefore
+	 * be done up front, such as once the shards have started, rather than on the thread of an event.
+	 * This does nothing if the index has already been, or is being, built.
+	 * 
+	 * @param shardManager the shard manager to index
+	 */
+	public void index(@Nonnull ShardManager shardManager) {
+		Checks.notNull(shardManager, "shardManager");
+		
+		/* Events are applied from here on, any update to the cache before this is included in the cache */
+		if(!this.indexing.compareAndSet(false, true)) {
+			return;
+		}
+		
+		try {
+			for(JDA shard : shardManager.getShardCache()) {
+				int shardId = shard.getShardInfo().getShardId();
+				
+				shard.getUserCache().forEach((user) -> this.putUser(shardId, user));
+				shard.getGuildCache().forEach((guild) -> this.putGuild(shardId, guild));
+			}
+		}finally{
+			this.indexed = true;
+		}
+	}
+	
+	/* Returns false if the index has not been built yet, in which case it is built in the background */
+	private boolean isIndexed(ShardManager shardManager) {
+		if(this.indexed) {
+			return true;
+		}
+		
+		if(!this.indexing.get()) {
+			CompletableFuture.runAsync(() -> this.index(shardManager)).exceptionally((throwable) -> {
+				LOG.error("Failed to build the shard name index", throwable);
+				
+				return null;
+			});
+		}
+		
+		return false;
+	}
+	
+	/* Removes the shards which no longer cache the user, and the user once none of them do */
+	private User resolveUser(ShardManager shardManager, long id) {
+		UserEntry entry = this.users.get(id);
+		if(entry == null) {
+			return null;
+		}
+		
+		for(int shardId : entry.shards) {
+			JDA shard = shardManager.getShardById(shardId);
+			
+			User user = shard != null ? shard.getUserById(id) : null;
+			if(user != null) {
+				return user;
+			}
+			
+			this.removeUser(shardId, id);
+		}
+		
+		return null;
+	}
+	
+	/* Removes the guild if it is no longer cached by the shard it was indexed from */
+	private Guild resolveGuild(ShardManager shardManager, long id) {
+		GuildEntry entry = this.guilds.get(id);
+		if(entry == null) {
+			return null;
+		}
+		
+		JDA shard = shardManager.getShardById(entry.shardId);
+		Guild guild = shard != null ? shard.getGuildById(id) : null;
+		if(guild == null) {
+			this.removeGuild(id);
+		}
+		
+		return guild;
+	}
+	
+	/**
+	 * Get a user by id
+	 * 
+	 * @param shardManager the shard manager to search for the user in
+	 * @param id the id of the user
+	 * 
+	 * @return the found user, may be null
+	 */
+	@Nullable
+	public User getUserById(@Nonnull ShardManager shardManager, long id) {
+		Checks.notNull(shardManager, "shardManager");
+		
+		if(!this.isIndexed(shardManager)) {
+			return shardManager.getUserById(id);
+		}
+		
+		User user = this.resolveUser(shardManager, id);
+		if(user == null) {
+			/* Looking a user up by id only takes a lookup per shard, the user is indexed if it was cached without an event */
+			user = shardManager.getUserById(id);
+			if(user != null) {
+				this.putUser(user.getJDA().getShardInfo().getShardId(), user);
+			}
+		}
+		
+		return user;
+	}
+	
+	/**
+	 * Get users by id, mention, name or tag.
+	 * If a user is found by id it will not check for names
+	 * 
+	 * @param shardManager the shard manager instance to search for the users in
+	 * @param value the id or name of the user to search for
+	 * @param ignoreCase whether or not the name should be case sensitive
+	 * 
+	 * @return the found users
+	 * 
+	 * @see ArgumentUtility#getUsersByIdOrName(ShardManager, String, boolean)
+	 */
+	@Nonnull
+	public List<User> getUsersByIdOrName(@Nonnull ShardManager shardManager, @Nonnull String value, boolean ignoreCase) {
+		Checks.notNull(shardManager, "shardManager");
+		Checks.notNull(value, "value");
+		
+		if(!this.isIndexed(shardManager)) {
+			return ArgumentUtility.getUsersByIdOrName(shardManager, value, ignoreCase);
+		}
+		
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.USER);
+		if(id != -1L) {
+			User user = this.getUserById(shardManager, id);
+			if(user != null) {
+				return List.of(user);
+			}
+		}
+		
+		Matcher matcher = ArgumentUtility.USER_NAME_PATTERN.matcher(value);
+		if(matcher.matches()) {
+			String name = matcher.group(1);
+			String descriminator = matcher.group(2);
+			
+			for(long userId : ShardNameIndex.getIds(this.userTags, value)) {
+				User user = this.resolveUser(shardManager, userId);
+				if(user != null && user.getDiscriminator().equals(descriminator) && user.getName().equals(name)) {
+					return List.of(user);
+				}
+			}
+		}
+		
+		List<User> named = new ArrayList<>();
+		for(long userId : ShardNameIndex.getIds(this.userNames, value)) {
+			User user = this.resolveUser(shardManager, userId);
+			if(user != null && (ignoreCase || user.getName().equals(value))) {
+				named.add(user);
+			}
+		}
+		
+		if(named.isEmpty() && this.cacheFallback) {
+			return ArgumentUtility.getUsersByIdOrName(shardManager, value, ignoreCase);
+		}
+		
+		return named;
+	}
+	
+	/**
+	 * Get guilds by id or name.
+	 * If a guild is found by id it will not check for names
+	 * 
+	 * @param shardManager the shard manager instance to search for the guilds in
+	 * @param value the id or name of the guild to search for
+	 * @param ignoreCase whether or not the name should be case sensitive
+	 * 
+	 * @return the found guilds
+	 * 
+	 * @see ArgumentUtility#getGuildsByIdOrName(ShardManager, String, boolean)
+	 */
+	@Nonnull
+	public List<Guild> getGuildsByIdOrName(@Nonnull ShardManager shardManager, @Nonnull String value, boolean ignoreCase) {
+		Checks.notNull(shardManager, "shardManager");
+		Checks.notNull(value, "value");
+		
+		if(!this.isIndexed(shardManager)) {
+			return ArgumentUtility.getGuildsByIdOrName(shardManager, value, ignoreCase);
+		}
+		
+		long id = ArgumentUtility.parseSnowflake(value);
+		if(id != -1L) {
+			Guild guild = this.resolveGuild(shardManager, id);
+			if(guild != null) {
+				return List.of(guild);
+			}
+		}
+		
+		/* Guilds are never added to the cache without an event, there is no need to fall back to the cache */
+		List<Guild> named = new ArrayList<>();
+		for(long guildId : ShardNameIndex.getIds(this.guildNames, value)) {
+			Guild guild = this.resolveGuild(shardManager, guildId);
+			if(guild != null && (ignoreCase || guild.getName().equals(value))) {
+				named.add(guild);
+			}
+		}
+		
+		return named;
+	}
+	
+	/**
+	 * @return whether or not the index has been built, lookups go through the cache of every shard until it has
+	 * 
+	 * @see #index(ShardManager)
+	 */
+	public boolean isIndexed() {
+		return this.indexed;
+	}
+	
+	/**
+	 * @return the amount of users which have been indexed
+	 */
+	public int getIndexedUserCount() {
+		return this.users.size();
+	}
+	
+	/**
+	 * @return the amount of guilds which have been indexed
+	 */
+	public int getIndexedGuildCount() {
+		return this.guilds.size();
+	}
+	
+	@Override
+	public void onEvent(@Nonnull GenericEvent event) {
+		if(!this.indexing.get()) {
+			return;
+		}
+		
+		if(event instanceof GuildMemberJoinEvent) {
+			this.putUser(event.getJDA().getShardInfo().getShardId(), ((GuildMemberJoinEvent) event).getUser());
+		}else if(event instanceof GuildMemberRemoveEvent) {
+			long id = ((GuildMemberRemoveEvent) event).getUser().getIdLong();
+			
+			/* The user is only removed from the cache of the shard once it no longer shares any guild with it */
+			if(event.getJDA().getUserById(id) == null) {
+				this.removeUser(event.getJDA().getShardInfo().getShardId(), id);
+			}
+		}else if(event instanceof UserUpdateNameEvent || event instanceof UserUpdateDiscriminatorEvent) {
+			this.putUser(event.getJDA().getShardInfo().getShardId(), ((GenericUserUpdateEvent<?>) event).getUser());
+		}else if(event instanceof GuildReadyEvent || event instanceof GuildJoinEvent) {
+			/* Shards which start after the index was built are indexed as their guilds become ready */
+			Guild guild = event instanceof GuildReadyEvent ? ((GuildReadyEvent) event).getGuild() : ((GuildJoinEvent) event).getGuild();
+			int shardId = event.getJDA().getShardInfo().getShardId();
+			
+			this.putGuild(shardId, guild);
+			
+			/* Going through the members of a large guild takes a while, it is done in the background rather than on the thread of the event */
+			CompletableFuture.runAsync(() -> guild.getMemberCache().forEach((member) -> this.putUser(shardId, member.getUser()))).exceptionally((throwable) -> {
+				LOG.error("Failed to index the members of guild {}", guild.getIdLong(), throwable);
+				
+				return null;
+			});
+		}else if(event instanceof GuildUpdateNameEvent) {
+			this.putGuild(event.getJDA().getShardInfo().getShardId(), ((GuildUpdateNameEvent) event).getGuild());
+		}else if(event instanceof GuildLeaveEvent) {
+			this.removeGuild(((GuildLeaveEvent) event).getGuild().getIdLong());
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.jockie.bot.core.option;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.jockie.bot.core.command.ICommand;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * An immutable lookup of options by their name and aliases, this is compiled once per command
+ * ({@link ICommand#getOptionTable()}) rather than for every time the command is parsed.
+ * <br><br>
+ * Names are matched case-insensitively, the same way as {@link String#CASE_INSENSITIVE_ORDER}, and if two options
+ * share a name or alias the last one wins. Developer options ({@link IOption#isDeveloper()}) are only found
+ * when looking up options for a developer.
+ */
+public final class OptionTable {
+	
+	/**
+	 * An option table without any options
+	 */
+	public static final OptionTable EMPTY = new OptionTable(List.of());
+	
+	/**
+	 * @param options the options to compile
+	 * 
+	 * @return the compiled options
+	 */
+	@Nonnull
+	public static OptionTable compile(@Nonnull Collection<? extends IOption<?>> options) {
+		Checks.noneNull(options, "options");
+		
+		if(options.isEmpty()) {
+			return EMPTY;
+		}
+		
+		return new OptionTable(options);
+	}
+	
+	/* 
+	 * Folds the name the same way as String#CASE_INSENSITIVE_ORDER compares characters,
+	 * two names are equal ignoring case if, and only if, their folded names are equal
+	 */
+	private static String fold(String name) {
+		for(int i = 0; i < name.length(); i++) {
+			char character = name.charAt(i);
+			if(OptionTable.fold(character) != character) {
+				char[] characters = name.toCharArray();
+				for(int j = i; j < characters.length; j++) {
+					characters[j] = OptionTable.fold(characters[j]);
+				}
+				
+				return new String(characters);
+			}
+		}
+		
+		/* Most names are already lower-case and do not have to be copied */
+		return name;
+	}
+	
+	private static char fold(char character) {
+		return Character.toLowerCase(Character.toUpperCase(character));
+	}
+	
+	private final List<IOption<?>> options;
+	
+	private final Map<String, IOption<?>> developerOptions = new HashMap<>();
+	private final Map<String, IOption<?>> nonDeveloperOptions = new HashMap<>();
+	
+	private final boolean hasDeveloperOptions;
+	
+	private OptionTable(Collection<? extends IOption<?>> options) {
+		this.options = List.copyOf(options);
+		
+		boolean hasDeveloperOptions = false;
+		for(IOption<?> option : this.options) {
+			hasDeveloperOptions |= option.isDeveloper();
+			
+			this.put(option, option.getName());
+			for(String alias : option.getAliases()) {
+				this.put(option, alias);
+			}
+		}
+		
+		this.hasDeveloperOptions = hasDeveloperOptions;
+	}
+	
+	private void put(IOption<?> option, String name) {
+		String key = OptionTable.fold(name);
+		
+		this.developerOptions.put(key, option);
+		
+		/* Developer options are skipped entirely for anyone who is not a developer */
+		if(!option.isDeveloper()) {
+			this.nonDeveloperOptions.put(key, option);
+		}
+	}
+	
+	/**
+	 * @param name the name or alias of the option
+	 * @param developer whether or not the options are looked up for a developer,
+	 * if false developer options ({@link IOption#isDeveloper()}) will not be found
+	 * 
+	 * @return the option by the provided name or alias, or null if there is no such option
+	 */
+	@Nullable
+	public IOption<?> get(@Nonnull String name, boolean developer) {
+		Checks.notNull(name, "name");
+		
+		return (developer ? this.developerOptions : this.nonDeveloperOptions).get(OptionTable.fold(name));
+	}
+	
+	/**
+	 * @return whether or not any of the options are developer options ({@link IOption#isDeveloper()}),
+	 * if there are none it does not matter whether options are looked up for a developer or not
+	 */
+	public boolean hasDeveloperOptions() {
+		return this.hasDeveloperOptions;
+	}
+	
+	/**
+	 * @return whether or not there are no options
+	 */
+	public boolean isEmpty() {
+		return this.options.isEmpty();
+	}
+	
+	/**
+	 * @return the options this was compiled from
+	 */
+	@Nonnull
+	public List<IOption<?>> getOptions() {
+		return this.options;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.jockie.bot.core.option;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * The options parsed from a message, a small map which keys are case-insensitive and sorted by {@link String#CASE_INSENSITIVE_ORDER},
+ * the same way as a {@link java.util.TreeMap TreeMap} with that comparator, which is what the options used to be collected in.
+ * <br><br>
+ * A message usually has no more than a few options so they are stored in sorted arrays and looked up
+ * with a binary search, which is cheaper than hashing them or allocating a node for every option.
+ */
+public class ParsedOptions extends AbstractMap<String, Object> {
+	
+	private static final String[] EMPTY_KEYS = new String[0];
+	private static final Object[] EMPTY_VALUES = new Object[0];
+	
+	private String[] keys = EMPTY_KEYS;
+	private Object[] values = EMPTY_VALUES;
+	
+	private int size;
+	
+	/* Incremented whenever an option is added or removed, used to detect modifications during iteration */
+	private int modifications;
+	
+	private Set<Entry<String, Object>> entrySet;
+	
+	/* Returns the index of the key, or (-(insertion point) - 1) if there is no such key */
+	private int search(String key) {
+		return Arrays.binarySearch(this.keys, 0, this.size, key, String.CASE_INSENSITIVE_ORDER);
+	}
+	
+	private int indexOf(Object key) {
+		if(!(key instanceof String)) {
+			return -1;
+		}
+		
+		int index = this.search((String) key);
+		
+		return index >= 0 ? index : -1;
+	}
+	
+	private void removeAt(int index) {
+		int moved = this.size - index - 1;
+		if(moved > 0) {
+			System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+			System.arraycopy(this.values, index + 1, this.values, index, moved);
+		}
+		
+		this.size--;
+		this.keys[this.size] = null;
+		this.values[this.size] = null;
+		
+		this.modifications++;
+	}
+	
+	@Override
+	public int size() {
+		return this.size;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return this.indexOf(key) != -1;
+	}
+	
+	@Override
+	public Object get(Object key) {
+		int index = this.indexOf(key);
+		
+		return index != -1 ? this.values[index] : null;
+	}
+	
+	@Override
+	public Object put(@Nonnull String key, Object value) {
+		Checks.notNull(key, "key");
+		
+		int index = this.search(key);
+		if(index >= 0) {
+			Object previousValue = this.values[index];
+			this.values[index] = value;
+			
+			return previousValue;
+		}
+		
+		index = -index - 1;
+		
+		if(this.size == this.keys.length) {
+			int capacity = Math.max(4, this.size * 2);
+			
+			this.keys = Arrays.copyOf(this.keys, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+		
+		int moved = this.size - index;
+		if(moved > 0) {
+			System.arraycopy(this.keys, index, this.keys, index + 1, moved);
+			System.arraycopy(this.values, index, this.values, index + 1, moved);
+		}
+		
+		this.keys[index] = key;
+		this.values[index] = value;
+		this.size++;
+		
+		this.modifications++;
+		
+		return null;
+	}
+	
+	@Override
+	public Object remove(Object key) {
+		int index = this.indexOf(key);
+		if(index == -1) {
+			return null;
+		}
+		
+		Object previousValue = this.values[index];
+		this.removeAt(index);
+		
+		return previousValue;
+	}
+	
+	@Override
+	public void clear() {
+		Arrays.fill(this.keys, 0, this.size, null);
+		Arrays.fill(this.values, 0, this.size, null);
+		
+		this.size = 0;
+		this.modifications++;
+	}
+	
+	@Override
+	@Nonnull
+	public Set<Entry<String, Object>> entrySet() {
+		if(this.entrySet == null) {
+			this.entrySet = new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return new Iterator<>() {
+						private int index = 0;
+						private int last = -1;
+						
+						private int expectedModifications = ParsedOptions.this.modifications;
+						
+						@Override
+						public boolean hasNext() {
+							return this.index < ParsedOptions.this.size;
+						}
+						
+						@Override
+						public Entry<String, Object> next() {
+							if(ParsedOptions.this.modifications != this.expectedModifications) {
+								throw new ConcurrentModificationException();
+							}
+							
+							if(!this.hasNext()) {
+								throw new NoSuchElementException();
+							}
+							
+							this.last = this.index++;
+							
+							return new SimpleImmutableEntry<>(ParsedOptions.this.keys[this.last], ParsedOptions.this.values[this.last]);
+						}
+						
+						@Override
+						public void remove() {
+							if(this.last == -1) {
+								throw new IllegalStateException();
+							}
+							
+							if(ParsedOptions.this.modifications != this.expectedModifications) {
+								throw new ConcurrentModificationException();
+							}
+							
+							ParsedOptions.this.removeAt(this.last);
+							
+							this.index = this.last;
+							this.last = -1;
+							this.expectedModifications = ParsedOptions.this.modifications;
+						}
+					};
+				}
+				
+				@Override
+				public int size() {
+					return ParsedOptions.this.size;
+				}
+				
+				@Override
+				public void clear() {
+					ParsedOptions.this.clear();
+				}
+			};
+		}
+		
+		return this.entrySet;
+	}
+}
\ No newline at end of file
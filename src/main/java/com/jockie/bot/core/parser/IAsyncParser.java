@@ -0,0 +1,46 @@
+package com.jockie.bot.core.parser;
+
+import java.util.concurrent.CompletionStage;
+
+import javax.annotation.Nonnull;
+
+import com.jockie.bot.core.command.parser.ParseContext;
+
+/**
+ * A parser which may not know the result straight away, for instance because it has to request the object from Discord.
+ * <br><br>
+ * The content is still split up synchronously, the command parser stores the pending result in place of the argument
+ * and once the whole command has been parsed every pending argument is resolved concurrently, the command is only executed
+ * once all of them have completed. If any of them completes with an invalid result, or does not complete within
+ * {@link com.jockie.bot.core.command.impl.CommandListener#setAsyncArgumentTimeout(long, java.util.concurrent.TimeUnit) the timeout},
+ * the command is treated as if the content was never valid.
+ * <br><br>
+ * <b>NOTE:</b>
+ * Pending results are not supported by options and should not be returned by parsers which {@link #isHandleAll() handle all} the content,
+ * since the content which is left is not known until the result has completed.
+ */
+@FunctionalInterface
+public interface IAsyncParser<Type, Component> extends IParser<Type, Component> {
+	
+	/**
+	 * Parse a component asynchronously
+	 * 
+	 * @param context the context
+	 * @param component the component this parser is attached to
+	 * @param content the content to parse
+	 * 
+	 * @return a stage which completes with the parsed component
+	 */
+	@Nonnull
+	public CompletionStage<ParsedResult<Type>> parseAsync(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull String content);
+	
+	/**
+	 * By default this returns a {@link ParsedResult#pending(CompletionStage) pending result} of {@link #parseAsync(ParseContext, Object, String)},
+	 * implementations may override this to return a result straight away when it is already known, such as when the object is cached
+	 */
+	@Override
+	@Nonnull
+	public default ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull String content) {
+		return ParsedResult.pending(this.parseAsync(context, component, content));
+	}
+}
\ No newline at end of file
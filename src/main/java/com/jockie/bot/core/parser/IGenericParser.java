@@ -25,6 +25,22 @@ public interface IGenericParser<Type, Component extends IParsableComponent<Type,
 	@Nonnull
 	public ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull Class<Type> type, @Nonnull Component component, @Nonnull String content);
 	
+	/**
+	 * Parse a generic component from a view of the content,
+	 * by default this copies the content to a String and calls {@link #parse(ParseContext, Class, IParsableComponent, String)}
+	 * 
+	 * @param context the context
+	 * @param type the type of the component to parse
+	 * @param component the component this parser is attached to
+	 * @param content the content to parse
+	 * 
+	 * @return the generically parsed component
+	 */
+	@Nonnull
+	public default ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull Class<Type> type, @Nonnull Component component, @Nonnull CharSequence content) {
+		return this.parse(context, type, component, content.toString());
+	}
+	
 	/**
 	 * Parse a generic component
 	 * 
@@ -44,4 +60,10 @@ public interface IGenericParser<Type, Component extends IParsableComponent<Type,
 	public default ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull String content) {
 		return this.parse(context, component.getType(), component, content);
 	}
+	
+	@Override
+	@Nonnull
+	public default ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull CharSequence content) {
+		return this.parse(context, component.getType(), component, content);
+	}
 }
\ No newline at end of file
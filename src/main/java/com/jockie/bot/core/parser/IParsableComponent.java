@@ -29,4 +29,20 @@ public interface IParsableComponent<Type, Component extends IParsableComponent<T
 	public default ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull String content) {
 		return this.getParser().parse(context, (Component) this, content);
 	}
+	
+	/**
+	 * A default method using this parser ({@link #getParser()}) to parse a view of the content provided
+	 *  
+	 * @param context the context
+	 * @param content the content to parse
+	 * 
+	 * @return the parsed argument
+	 * 
+	 * @see IParser#parse(ParseContext, Object, CharSequence)
+	 */
+	@SuppressWarnings("unchecked")
+	@Nonnull
+	public default ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull CharSequence content) {
+		return this.getParser().parse(context, (Component) this, content);
+	}
 }
\ No newline at end of file
@@ -22,6 +22,23 @@ public interface IParser<Type, Component> {
 	@Nonnull
 	public ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull String content);
 	
+	/**
+	 * Parse a component from a view of the content, such as a {@link com.jockie.bot.core.utility.StringView StringView},
+	 * by default this copies the content to a String and calls {@link #parse(ParseContext, Object, String)}.
+	 * <br><br>
+	 * Parsers which do not need the content as a String should override this to avoid the copy.
+	 * 
+	 * @param context the context
+	 * @param component the component this parser is attached to
+	 * @param content the content to parse
+	 * 
+	 * @return the parsed component
+	 */
+	@Nonnull
+	public default ParsedResult<Type> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull CharSequence content) {
+		return this.parse(context, component, content.toString());
+	}
+	
 	/**
 	 * <b>NOTE:</b>
 	 * By using this property in a parser you have to yourself return any left over content in the {@link ParsedResult}.
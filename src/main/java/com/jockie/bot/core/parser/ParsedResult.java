@@ -1,7 +1,9 @@
 package com.jockie.bot.core.parser;
 
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /* 
@@ -28,6 +30,33 @@ public class ParsedResult<Type> {
 		return new ParsedResult<>(true, value, contentLeft);
 	}
 	
+	/**
+	 * @param value the parsed value
+	 * @param contentLeft the content which was left, this can be a view of the content
+	 * which was parsed ({@link com.jockie.bot.core.utility.StringView StringView}) to avoid copying it
+	 * 
+	 * @return a valid result
+	 */
+	public static <T> ParsedResult<T> valid(T value, CharSequence contentLeft) {
+		return new ParsedResult<>(true, value, contentLeft);
+	}
+	
+	/**
+	 * A result which is not known yet, this is used by {@link IAsyncParser asynchronous parsers}
+	 * which have to, for instance, request the object from Discord before they know whether the content was valid.
+	 * <br><br>
+	 * A pending result is treated as valid while the rest of the content is being parsed and the command is only
+	 * executed once every pending result has completed, if any of them completes with an invalid result
+	 * the command is treated as if the content was never valid.
+	 * 
+	 * @param result the stage which completes with the actual result
+	 * 
+	 * @return a pending result
+	 */
+	public static <T> ParsedResult<T> pending(@Nonnull CompletionStage<ParsedResult<T>> result) {
+		return new ParsedResult<>(result);
+	}
+	
 	protected final boolean valid;
 	/* 
 	 * TODO: Add support for multiple values,
@@ -36,6 +65,10 @@ public class ParsedResult<Type> {
 	 */
 	protected final Type object;
 	protected final String contentLeft;
+	/* The content left when it is a view rather than a String, in which case contentLeft is null */
+	protected final CharSequence contentLeftView;
+	
+	protected final CompletionStage<ParsedResult<Type>> pending;
 	
 	public ParsedResult() {
 		this(false, null);
@@ -57,6 +90,30 @@ public class ParsedResult<Type> {
 		this.valid = valid;
 		this.object = object;
 		this.contentLeft = contentLeft;
+		this.contentLeftView = contentLeft;
+		this.pending = null;
+	}
+	
+	/**
+	 * @param valid whether or not the argument was valid
+	 * @param object the parsed object
+	 * @param contentLeft the content which was left, if this is not a String it is only copied
+	 * once {@link #getContentLeft()} is called and the {@link #contentLeft} field is null
+	 */
+	public ParsedResult(boolean valid, Type object, CharSequence contentLeft) {
+		this.valid = valid;
+		this.object = object;
+		this.contentLeft = contentLeft instanceof String ? (String) contentLeft : null;
+		this.contentLeftView = contentLeft;
+		this.pending = null;
+	}
+	
+	protected ParsedResult(CompletionStage<ParsedResult<Type>> pending) {
+		this.valid = true;
+		this.object = null;
+		this.contentLeft = null;
+		this.contentLeftView = null;
+		this.pending = pending;
 	}
 	
 	/**
@@ -87,11 +144,48 @@ public class ParsedResult<Type> {
 	 */
 	@Nullable
 	public String getContentLeft() {
-		return this.contentLeft;
+		if(this.contentLeft != null) {
+			return this.contentLeft;
+		}
+		
+		return this.contentLeftView != null ? this.contentLeftView.toString() : null;
+	}
+	
+	/**
+	 * The same as {@link #getContentLeft()} but without copying the content if
+	 * the parser returned a view of the content
+	 * 
+	 * @return the content which was left after the argument was parsed
+	 */
+	@Nullable
+	public CharSequence getContentLeftView() {
+		return this.contentLeftView;
+	}
+	
+	/**
+	 * @return whether or not the result is not known yet
+	 * 
+	 * @see #pending(CompletionStage)
+	 */
+	public boolean isPending() {
+		return this.pending != null;
+	}
+	
+	/**
+	 * @return the stage which completes with the actual result,
+	 * if {@link #isPending()} returns <b>false</b>, this will be null
+	 */
+	@Nullable
+	public CompletionStage<ParsedResult<Type>> getPending() {
+		return this.pending;
 	}
 	
 	@Override
 	public String toString() {
-		return String.format("ParsedResult{valid=%s, object=%s, contentLeft=%s}", this.valid, Objects.toString(this.object), this.contentLeft);
+		if(this.pending != null) {
+			return "ParsedResult{pending}";
+		}
+		
+		return String.format("ParsedResult{valid=%s, object=%s, contentLeft=%s}", this.valid, Objects.toString(this.object), this.contentLeftView);
 	}
 }
\ No newline at end of file
@@ -41,11 +41,30 @@ public class DelegateGenericParser<T, Component extends IParsableComponent<T, Co
 			content = value;
 		}
 		
-		ParsedResult<T> parsed = this.parser.parse(context, type, argument, content);
+		return this.afterParse(context, argument, this.parser.parse(context, type, argument, content));
+	}
+	
+	@Override
+	@Nonnull
+	public ParsedResult<T> parse(@Nonnull ParseContext context, @Nonnull Class<T> type, @Nonnull Component argument, @Nonnull CharSequence content) {
+		/* The before parsers work on Strings, the content only has to be copied if there are any */
+		if(!this.beforeParsers.isEmpty()) {
+			return this.parse(context, type, argument, content.toString());
+		}
+		
+		return this.afterParse(context, argument, this.parser.parse(context, type, argument, content));
+	}
+	
+	private ParsedResult<T> afterParse(ParseContext context, Component argument, ParsedResult<T> parsed) {
 		if(!parsed.isValid()) {
 			return parsed;
 		}
 		
+		if(parsed.isPending()) {
+			/* The after parsers can only be applied once the actual result is known */
+			return ParsedResult.pending(parsed.getPending().thenApply((result) -> this.afterParse(context, argument, result)));
+		}
+		
 		T object = parsed.getObject();
 		for(IAfterParser<T, Component> parser : this.afterParsers) {
 			ParsedResult<T> newResult = parser.parse(context, argument, object);
@@ -56,7 +75,7 @@ public class DelegateGenericParser<T, Component extends IParsableComponent<T, Co
 			object = newResult.getObject();
 		}
 		
-		return ParsedResult.valid(object, parsed.getContentLeft());
+		return ParsedResult.valid(object, parsed.getContentLeftView());
 	}
 	
 	@Override
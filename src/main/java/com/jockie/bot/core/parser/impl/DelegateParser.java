@@ -40,11 +40,30 @@ public class DelegateParser<T, Component> implements IParser<T, Component> {
 			content = value;
 		}
 		
-		ParsedResult<T> parsed = this.parser.parse(context, argument, content);
+		return this.afterParse(context, argument, this.parser.parse(context, argument, content));
+	}
+	
+	@Override
+	@Nonnull
+	public ParsedResult<T> parse(@Nonnull ParseContext context, @Nonnull Component argument, @Nonnull CharSequence content) {
+		/* The before parsers work on Strings, the content only has to be copied if there are any */
+		if(!this.beforeParsers.isEmpty()) {
+			return this.parse(context, argument, content.toString());
+		}
+		
+		return this.afterParse(context, argument, this.parser.parse(context, argument, content));
+	}
+	
+	private ParsedResult<T> afterParse(ParseContext context, Component argument, ParsedResult<T> parsed) {
 		if(!parsed.isValid()) {
 			return parsed;
 		}
 		
+		if(parsed.isPending()) {
+			/* The after parsers can only be applied once the actual result is known */
+			return ParsedResult.pending(parsed.getPending().thenApply((result) -> this.afterParse(context, argument, result)));
+		}
+		
 		T object = parsed.getObject();
 		for(IAfterParser<T, Component> parser : this.afterParsers) {
 			ParsedResult<T> newResult = parser.parse(context, argument, object);
@@ -55,7 +74,7 @@ public class DelegateParser<T, Component> implements IParser<T, Component> {
 			object = newResult.getObject();
 		}
 		
-		return ParsedResult.valid(object, parsed.getContentLeft());
+		return ParsedResult.valid(object, parsed.getContentLeftView());
 	}
 	
 	@Override
@@ -5,6 +5,7 @@ import java.util.List;
 import javax.annotation.Nonnull;
 
 import com.jockie.bot.core.command.parser.ParseContext;
+import com.jockie.bot.core.index.ShardNameIndex;
 import com.jockie.bot.core.parser.IParser;
 import com.jockie.bot.core.parser.ParsedResult;
 import com.jockie.bot.core.utility.ArgumentUtility;
@@ -47,6 +48,11 @@ public class GuildParser<Component> implements IParser<Guild, Component> {
 		if(this.useShardManager) {
 			ShardManager shardManager = jda.getShardManager();
 			if(shardManager != null) {
+				ShardNameIndex index = context.getCommandListener().getShardNameIndex();
+				if(index != null) {
+					return index.getGuildsByIdOrName(shardManager, content, true);
+				}
+				
 				return ArgumentUtility.getGuildsByIdOrName(shardManager, content, true);
 			}
 		}
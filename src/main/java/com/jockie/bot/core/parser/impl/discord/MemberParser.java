@@ -5,10 +5,12 @@ import java.util.List;
 import javax.annotation.Nonnull;
 
 import com.jockie.bot.core.command.parser.ParseContext;
+import com.jockie.bot.core.index.GuildNameIndex;
 import com.jockie.bot.core.parser.IParser;
 import com.jockie.bot.core.parser.ParsedResult;
 import com.jockie.bot.core.utility.ArgumentUtility;
 
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 
 public class MemberParser<Component> implements IParser<Member, Component> {
@@ -16,7 +18,10 @@ public class MemberParser<Component> implements IParser<Member, Component> {
 	@Override
 	@Nonnull
 	public ParsedResult<Member> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull String content) {
-		List<Member> members = ArgumentUtility.getMembersByIdOrName(context.getMessage().getGuild(), content, true);
+		Guild guild = context.getMessage().getGuild();
+		
+		GuildNameIndex index = context.getCommandListener().getGuildNameIndex();
+		List<Member> members = index != null ? index.getMembersByIdOrName(guild, content, true) : ArgumentUtility.getMembersByIdOrName(guild, content, true);
 		if(members.size() == 1) {
 			return ParsedResult.valid(members.get(0));
 		}
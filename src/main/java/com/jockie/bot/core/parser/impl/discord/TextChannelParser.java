@@ -5,10 +5,12 @@ import java.util.List;
 import javax.annotation.Nonnull;
 
 import com.jockie.bot.core.command.parser.ParseContext;
+import com.jockie.bot.core.index.GuildNameIndex;
 import com.jockie.bot.core.parser.IParser;
 import com.jockie.bot.core.parser.ParsedResult;
 import com.jockie.bot.core.utility.ArgumentUtility;
 
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 
 public class TextChannelParser<Component> implements IParser<TextChannel, Component> {
@@ -16,7 +18,10 @@ public class TextChannelParser<Component> implements IParser<TextChannel, Compon
 	@Override
 	@Nonnull
 	public ParsedResult<TextChannel> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull String content) {
-		List<TextChannel> channels = ArgumentUtility.getTextChannelsByIdOrName(context.getMessage().getGuild(), content, true);
+		Guild guild = context.getMessage().getGuild();
+		
+		GuildNameIndex index = context.getCommandListener().getGuildNameIndex();
+		List<TextChannel> channels = index != null ? index.getTextChannelsByIdOrName(guild, content, true) : ArgumentUtility.getTextChannelsByIdOrName(guild, content, true);
 		if(channels.size() == 1) {
 			return ParsedResult.valid(channels.get(0));
 		}
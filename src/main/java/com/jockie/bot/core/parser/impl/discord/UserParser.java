@@ -1,22 +1,33 @@
 package com.jockie.bot.core.parser.impl.discord;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.regex.Matcher;
 
 import javax.annotation.Nonnull;
 
 import com.jockie.bot.core.command.parser.ParseContext;
-import com.jockie.bot.core.parser.IParser;
+import com.jockie.bot.core.index.GuildNameIndex;
+import com.jockie.bot.core.index.ShardNameIndex;
+import com.jockie.bot.core.parser.IAsyncParser;
 import com.jockie.bot.core.parser.ParsedResult;
 import com.jockie.bot.core.utility.ArgumentUtility;
 
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Message.MentionType;
 import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.sharding.ShardManager;
 
-public class UserParser<Component> implements IParser<User, Component> {
+public class UserParser<Component> implements IAsyncParser<User, Component> {
 	
 	private boolean useShardManager;
 	
+	private boolean retrieveUncached = false;
+	
 	public UserParser(boolean useShardManager) {
 		this.useShardManager = useShardManager;
 	}
@@ -41,12 +52,56 @@ public class UserParser<Component> implements IParser<User, Component> {
 		return this;
 	}
 	
+	/**
+	 * @return whether or not users which are not cached should be retrieved from Discord
+	 * when they are provided by id or mention
+	 */
+	public boolean isRetrieveUncached() {
+		return this.retrieveUncached;
+	}
+	
+	/**
+	 * Whether or not users which are not cached should be retrieved from Discord when they are provided by id or mention,
+	 * the command is executed once the user has been retrieved and the request is made concurrently with
+	 * any other arguments which have to be retrieved.
+	 * <br><br>
+	 * Default: false
+	 * 
+	 * @param retrieveUncached whether or not users which are not cached should be retrieved from Discord
+	 * 
+	 * @return the {@link UserParser} instance, useful for chaining
+	 */
+	public UserParser<Component> setRetrieveUncached(boolean retrieveUncached) {
+		this.retrieveUncached = retrieveUncached;
+		
+		return this;
+	}
+	
 	public List<User> getUsers(ParseContext context, String content) {
-		JDA jda = context.getMessage().getJDA();
+		Message message = context.getMessage();
+		
+		/* A tag usually belongs to a member of the guild, which the index can find without scanning the user cache */
+		GuildNameIndex index = context.getCommandListener().getGuildNameIndex();
+		if(index != null && message.isFromGuild()) {
+			Matcher matcher = ArgumentUtility.USER_NAME_PATTERN.matcher(content);
+			if(matcher.matches()) {
+				Member member = index.getMemberByTag(message.getGuild(), matcher.group(1), matcher.group(2));
+				if(member != null) {
+					return List.of(member.getUser());
+				}
+			}
+		}
+		
+		JDA jda = message.getJDA();
 		
 		if(this.useShardManager) {
 			ShardManager shardManager = jda.getShardManager();
 			if(shardManager != null) {
+				ShardNameIndex shardIndex = context.getCommandListener().getShardNameIndex();
+				if(shardIndex != null) {
+					return shardIndex.getUsersByIdOrName(shardManager, content, true);
+				}
+				
 				return ArgumentUtility.getUsersByIdOrName(shardManager, content, true);
 			}
 		}
@@ -62,6 +117,41 @@ public class UserParser<Component> implements IParser<User, Component> {
 			return ParsedResult.valid(users.get(0));
 		}
 		
+		/* Only ids and mentions can be retrieved, anything else would just be a failed request */
+		if(users.isEmpty() && this.retrieveUncached && ArgumentUtility.parseIdOrMention(content, MentionType.USER) != -1L) {
+			return ParsedResult.pending(this.retrieveUser(context, content));
+		}
+		
 		return ParsedResult.invalid();
 	}
+	
+	@Override
+	@Nonnull
+	public CompletionStage<ParsedResult<User>> parseAsync(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull String content) {
+		ParsedResult<User> parsed = this.parse(context, component, content);
+		if(parsed.isPending()) {
+			return parsed.getPending();
+		}
+		
+		return CompletableFuture.completedFuture(parsed);
+	}
+	
+	private CompletionStage<ParsedResult<User>> retrieveUser(ParseContext context, String content) {
+		JDA jda = context.getMessage().getJDA();
+		
+		RestAction<User> action = null;
+		if(this.useShardManager) {
+			ShardManager shardManager = jda.getShardManager();
+			if(shardManager != null) {
+				action = ArgumentUtility.retrieveUserById(shardManager, jda, content);
+			}
+		}
+		
+		if(action == null) {
+			action = ArgumentUtility.retrieveUserById(jda, content);
+		}
+		
+		/* The request fails for unknown users, which are invalid */
+		return action.submit().handle((user, throwable) -> user != null ? ParsedResult.valid(user) : ParsedResult.<User>invalid());
+	}
 }
\ No newline at end of file
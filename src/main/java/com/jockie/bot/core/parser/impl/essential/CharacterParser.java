@@ -17,4 +17,14 @@ public class CharacterParser<Component> implements IParser<Character, Component>
 		
 		return ParsedResult.invalid();
 	}
+	
+	@Override
+	@Nonnull
+	public ParsedResult<Character> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull CharSequence content) {
+		if(content.length() == 1) {
+			return ParsedResult.valid(content.charAt(0));
+		}
+		
+		return ParsedResult.invalid();
+	}
 }
\ No newline at end of file
@@ -17,4 +17,14 @@ public class IntegerParser<Component> implements IParser<Integer, Component> {
 			return ParsedResult.invalid();
 		}
 	}
+	
+	@Override
+	@Nonnull
+	public ParsedResult<Integer> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull CharSequence content) {
+		try {
+			return ParsedResult.valid(Integer.parseInt(content, 0, content.length(), 10));
+		}catch(NumberFormatException e) {
+			return ParsedResult.invalid();
+		}
+	}
 }
\ No newline at end of file
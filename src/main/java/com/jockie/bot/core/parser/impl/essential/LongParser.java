@@ -17,4 +17,14 @@ public class LongParser<Component> implements IParser<Long, Component> {
 			return ParsedResult.invalid();
 		}
 	}
+	
+	@Override
+	@Nonnull
+	public ParsedResult<Long> parse(@Nonnull ParseContext context, @Nonnull Component component, @Nonnull CharSequence content) {
+		try {
+			return ParsedResult.valid(Long.parseLong(content, 0, content.length(), 10));
+		}catch(NumberFormatException e) {
+			return ParsedResult.invalid();
+		}
+	}
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import org.json.JSONTokener;
 import com.jockie.bot.core.command.parser.ParseContext;
 import com.jockie.bot.core.parser.IParser;
 import com.jockie.bot.core.parser.ParsedResult;
+import com.jockie.bot.core.utility.StringView;
 
 public class JSONArrayParser<Component> implements IParser<JSONArray, Component> {
 	
@@ -42,7 +43,7 @@ public class JSONArrayParser<Component> implements IParser<JSONArray, Component>
 		}
 		
 		if(tokener.nextClean() == ']') {
-			return ParsedResult.valid(array, value.substring(this.getIndex(tokener)));
+			return ParsedResult.valid(array, new StringView(value, this.getIndex(tokener)));
 		}
 		
 		tokener.back();
@@ -65,7 +66,7 @@ public class JSONArrayParser<Component> implements IParser<JSONArray, Component>
 			switch (tokener.nextClean()) {
 				case ',': {
 					if(tokener.nextClean() == ']') {
-						return ParsedResult.valid(array, value.substring(this.getIndex(tokener)));
+						return ParsedResult.valid(array, new StringView(value, this.getIndex(tokener)));
 					}
 					
 					tokener.back();
@@ -73,7 +74,7 @@ public class JSONArrayParser<Component> implements IParser<JSONArray, Component>
 					break;
 				}
 				case ']': {
-					return ParsedResult.valid(array, value.substring(this.getIndex(tokener)));
+					return ParsedResult.valid(array, new StringView(value, this.getIndex(tokener)));
 				}
 				default: {
 					return ParsedResult.invalid();
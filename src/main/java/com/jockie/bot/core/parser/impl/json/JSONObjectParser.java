@@ -12,6 +12,7 @@ import org.json.JSONTokener;
 import com.jockie.bot.core.command.parser.ParseContext;
 import com.jockie.bot.core.parser.IParser;
 import com.jockie.bot.core.parser.ParsedResult;
+import com.jockie.bot.core.utility.StringView;
 
 public class JSONObjectParser<Component> implements IParser<JSONObject, Component> {
 	
@@ -50,7 +51,7 @@ public class JSONObjectParser<Component> implements IParser<JSONObject, Componen
 					return ParsedResult.invalid();
 				}
 				case '}': {
-					return ParsedResult.valid(object, value.substring(this.getIndex(tokener)));
+					return ParsedResult.valid(object, new StringView(value, this.getIndex(tokener)));
 				}
 				default: {
 					tokener.back();
@@ -73,7 +74,7 @@ public class JSONObjectParser<Component> implements IParser<JSONObject, Componen
 				case ';': 
 				case ',': {
 					if(tokener.nextClean() == '}') {
-						return ParsedResult.valid(object, value.substring(this.getIndex(tokener)));
+						return ParsedResult.valid(object, new StringView(value, this.getIndex(tokener)));
 					}
 					
 					tokener.back();
@@ -81,7 +82,7 @@ public class JSONObjectParser<Component> implements IParser<JSONObject, Componen
 					break;
 				}
 				case '}': {
-					return ParsedResult.valid(object, value.substring(this.getIndex(tokener)));
+					return ParsedResult.valid(object, new StringView(value, this.getIndex(tokener)));
 				}
 				default: {
 					return ParsedResult.invalid();
@@ -23,7 +23,6 @@ import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import net.dv8tion.jda.internal.requests.CompletedRestAction;
 import net.dv8tion.jda.internal.utils.Checks;
-import net.dv8tion.jda.internal.utils.Helpers;
 
 public class ArgumentUtility {
 	
@@ -31,18 +30,151 @@ public class ArgumentUtility {
 	
 	public static final Pattern USER_NAME_PATTERN = Pattern.compile("(.{2,32})#([0-9]{4})");
 	
-	@Nullable
-	private static String getGroup(@Nonnull Pattern pattern, int group, @Nonnull String value) {
-		Matcher matcher = pattern.matcher(value);
-		if(matcher.find()) {
-			return matcher.group(group);
+	/* Returns -1 if the range is empty, contains anything but digits or does not fit in a long */
+	private static long parseSnowflake(@Nonnull CharSequence value, int start, int end) {
+		if(start >= end || end - start > 20) {
+			return -1L;
 		}
 		
-		return null;
+		long snowflake = 0L;
+		for(int i = start; i < end; i++) {
+			char character = value.charAt(i);
+			if(character < '0' || character > '9') {
+				return -1L;
+			}
+			
+			int digit = character - '0';
+			if(snowflake > (Long.MAX_VALUE - digit) / 10) {
+				return -1L;
+			}
+			
+			snowflake = snowflake * 10 + digit;
+		}
+		
+		return snowflake;
+	}
+	
+	/**
+	 * Parse a snowflake without allocating anything
+	 * 
+	 * @param value the value to parse
+	 * 
+	 * @return the snowflake or -1 if the value is not a snowflake
+	 */
+	public static long parseSnowflake(@Nonnull CharSequence value) {
+		Checks.notNull(value, "value");
+		
+		return ArgumentUtility.parseSnowflake(value, 0, value.length());
+	}
+	
+	/* Returns the index the id starts at if there is a mention of the type starting at the index, otherwise -1 */
+	private static int skipMentionPrefix(@Nonnull CharSequence value, int index, @Nonnull MentionType type) {
+		int length = value.length();
+		if(value.charAt(index++) != '<' || index >= length) {
+			return -1;
+		}
+		
+		switch(type) {
+			case USER: {
+				if(value.charAt(index++) != '@') {
+					return -1;
+				}
+				
+				/* Nickname mentions, <@!id>, are still sent by some clients */
+				return index < length && value.charAt(index) == '!' ? index + 1 : index;
+			}
+			case ROLE: return index + 1 < length && value.charAt(index) == '@' && value.charAt(index + 1) == '&' ? index + 2 : -1;
+			case CHANNEL: return value.charAt(index) == '#' ? index + 1 : -1;
+			default: throw new IllegalArgumentException("Unsupported mention type: " + type);
+		}
+	}
+	
+	/**
+	 * Find the first mention of the provided type in the value, this is the same as finding the first match of
+	 * {@link MentionType#getPattern()} but scans the value in a single pass without allocating anything.
+	 * 
+	 * @param value the value to search for a mention in
+	 * @param type the type of mention, one of {@link MentionType#USER}, {@link MentionType#ROLE} or {@link MentionType#CHANNEL}
+	 * 
+	 * @return the id of the first mention or -1 if there is no such mention
+	 * 
+	 * @throws IllegalArgumentException if the type is not supported
+	 */
+	public static long findMentionId(@Nonnull CharSequence value, @Nonnull MentionType type) {
+		Checks.notNull(value, "value");
+		Checks.notNull(type, "type");
+		
+		int length = value.length();
+		for(int start = 0; start < length; start++) {
+			if(value.charAt(start) != '<') {
+				continue;
+			}
+			
+			int idStart = ArgumentUtility.skipMentionPrefix(value, start, type);
+			if(idStart == -1) {
+				continue;
+			}
+			
+			int idEnd = idStart;
+			while(idEnd < length && value.charAt(idEnd) >= '0' && value.charAt(idEnd) <= '9') {
+				idEnd++;
+			}
+			
+			if(idEnd < length && value.charAt(idEnd) == '>') {
+				long id = ArgumentUtility.parseSnowflake(value, idStart, idEnd);
+				if(id != -1L) {
+					return id;
+				}
+			}
+		}
+		
+		return -1L;
+	}
+	
+	/**
+	 * @param value the mention or id
+	 * @param type the type of mention
+	 * 
+	 * @return the id of the first mention of the provided type, otherwise the value as a snowflake, or -1 if it is neither
+	 * 
+	 * @see #findMentionId(CharSequence, MentionType)
+	 * @see #parseSnowflake(CharSequence)
+	 */
+	public static long parseIdOrMention(@Nonnull CharSequence value, @Nonnull MentionType type) {
+		long id = ArgumentUtility.findMentionId(value, type);
+		if(id != -1L) {
+			return id;
+		}
+		
+		return ArgumentUtility.parseSnowflake(value, 0, value.length());
 	}
 	
-	private static boolean isSnowflake(@Nonnull String value) {
-		return value.length() <= 20 && Helpers.isNumeric(value);
+	private static boolean isEmojiNameCharacter(char character) {
+		return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || (character >= '0' && character <= '9') || character == '_';
+	}
+	
+	/* Returns the index of the colon before the id if the entire value is an emoji mention, <:name:id> or <a:name:id>, otherwise -1 */
+	private static int matchEmoji(@Nonnull CharSequence value) {
+		int length = value.length();
+		if(length < 6 || value.charAt(0) != '<' || value.charAt(length - 1) != '>') {
+			return -1;
+		}
+		
+		int index = value.charAt(1) == 'a' ? 2 : 1;
+		if(value.charAt(index++) != ':') {
+			return -1;
+		}
+		
+		int nameStart = index;
+		while(index < length && ArgumentUtility.isEmojiNameCharacter(value.charAt(index))) {
+			index++;
+		}
+		
+		if(index == nameStart || value.charAt(index) != ':') {
+			return -1;
+		}
+		
+		return ArgumentUtility.parseSnowflake(value, index + 1, length - 1) != -1L ? index : -1;
 	}
 	
 	/**
@@ -58,8 +190,8 @@ public class ArgumentUtility {
 		Checks.notNull(guild, "guild");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.ROLE.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.ROLE);
+		if(id != -1L) {
 			return guild.getRoleById(id);
 		}
 		
@@ -79,8 +211,8 @@ public class ArgumentUtility {
 		Checks.notNull(guild, "guild");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.USER.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.USER);
+		if(id != -1L) {
 			return guild.getMemberById(id);
 		}
 		
@@ -100,8 +232,8 @@ public class ArgumentUtility {
 		Checks.notNull(guild, "guild");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.CHANNEL.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.CHANNEL);
+		if(id != -1L) {
 			return guild.getTextChannelById(id);
 		}
 		
@@ -121,8 +253,8 @@ public class ArgumentUtility {
 		Checks.notNull(guild, "guild");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.CHANNEL.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.CHANNEL);
+		if(id != -1L) {
 			return guild.getVoiceChannelById(id);
 		}
 		
@@ -142,18 +274,21 @@ public class ArgumentUtility {
 		Checks.notNull(guild, "guild");
 		Checks.notNull(value, "value");
 		
-		if(ArgumentUtility.isSnowflake(value)) {
+		long id = ArgumentUtility.parseSnowflake(value);
+		if(id != -1L) {
 			/* TODO: Should this check the entire JDA/ShardManager instance? */
-			return guild.getEmojiById(Long.parseLong(value));
+			return guild.getEmojiById(id);
 		}
 		
-		Matcher matcher = MentionType.EMOJI.getPattern().matcher(value);
-		if(matcher.matches()) {
-			long snowflake = Long.parseLong(matcher.group(2));
+		int separator = ArgumentUtility.matchEmoji(value);
+		if(separator != -1) {
+			long snowflake = ArgumentUtility.parseSnowflake(value, separator + 1, value.length() - 1);
 			
 			RichCustomEmoji emoji = guild.getEmojiById(snowflake);
 			if(emoji == null && !rich) {
-				return Emoji.fromCustom(matcher.group(1), snowflake, value.startsWith("<a:"));
+				boolean animated = value.charAt(1) == 'a';
+				
+				return Emoji.fromCustom(value.substring(animated ? 3 : 2, separator), snowflake, animated);
 			}
 			
 			return emoji;
@@ -201,8 +336,8 @@ public class ArgumentUtility {
 		Checks.notNull(jda, "jda");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.USER.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.USER);
+		if(id != -1L) {
 			return jda.getUserById(id);
 		}
 		
@@ -222,8 +357,8 @@ public class ArgumentUtility {
 		Checks.notNull(shardManager, "shardManager");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.USER.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.USER);
+		if(id != -1L) {
 			return shardManager.getUserById(id);
 		}
 		
@@ -244,8 +379,8 @@ public class ArgumentUtility {
 		Checks.notNull(jda, "jda");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.USER.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.USER);
+		if(id != -1L) {
 			return jda.retrieveUserById(id);
 		}
 		
@@ -266,8 +401,8 @@ public class ArgumentUtility {
 		Checks.notNull(shardManager, "shardManager");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.USER.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
+		long id = ArgumentUtility.parseIdOrMention(value, MentionType.USER);
+		if(id != -1L) {
 			return shardManager.retrieveUserById(id);
 		}
 		
@@ -291,10 +426,8 @@ public class ArgumentUtility {
 		Checks.notNull(jda, "jda");
 		Checks.notNull(value, "value");
 		
-		String id = ArgumentUtility.getGroup(MentionType.USER.getPattern(), 1, value);
-		if(id != null || ArgumentUtility.isSnowflake(id = value)) {
-			long snowflake = Long.parseLong(id);
-			
+		long snowflake = ArgumentUtility.parseIdOrMention(value, MentionType.USER);
+		if(snowflake != -1L) {
 			User user = shardManager.getUserById(snowflake);
 			if(user != null) {
 				return new CompletedRestAction<User>(user.getJDA(), user);
@@ -487,8 +620,9 @@ public class ArgumentUtility {
 		Checks.notNull(guild, "guild");
 		Checks.notNull(value, "value");
 		
-		if(ArgumentUtility.isSnowflake(value)) {
-			Category category = guild.getCategoryById(value);
+		long id = ArgumentUtility.parseSnowflake(value);
+		if(id != -1L) {
+			Category category = guild.getCategoryById(id);
 			if(category != null) {
 				return List.of(category);
 			}
@@ -594,8 +728,9 @@ public class ArgumentUtility {
 		Checks.notNull(jda, "jda");
 		Checks.notNull(value, "value");
 		
-		if(ArgumentUtility.isSnowflake(value)) {
-			Guild guild = jda.getGuildById(value);
+		long id = ArgumentUtility.parseSnowflake(value);
+		if(id != -1L) {
+			Guild guild = jda.getGuildById(id);
 			if(guild != null) {
 				return List.of(guild);
 			}
@@ -619,8 +754,9 @@ public class ArgumentUtility {
 		Checks.notNull(shardManager, "shardManager");
 		Checks.notNull(value, "value");
 		
-		if(ArgumentUtility.isSnowflake(value)) {
-			Guild guild = shardManager.getGuildById(value);
+		long id = ArgumentUtility.parseSnowflake(value);
+		if(id != -1L) {
+			Guild guild = shardManager.getGuildById(id);
 			if(guild != null) {
 				return List.of(guild);
 			}
@@ -0,0 +1,337 @@
+package com.jockie.bot.core.utility;
+
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * Executes tasks on an {@link Executor} while keeping the tasks of each key in order, tasks with the same key
+ * are executed one at a time in the order they were submitted while tasks with different keys run concurrently.
+ * Tasks submitted through {@link #executeAsync(Object, Executor, Supplier)} hold their key until their asynchronous work has completed.
+ * <br><br>
+ * Each key has a mailbox which is only scheduled on the executor while it has tasks, scheduling is done with
+ * compare-and-set so submitting a task never locks. A mailbox drains its tasks for at most the {@link #getTimeSlice() time slice}
+ * before it is re-scheduled, giving other work on the executor a chance to run, and is removed as soon as it is idle
+ * which means that keys are not kept around after their tasks have been executed.
+ */
+public class OrderedExecutor {
+	
+	private static final Logger LOG = JDALogger.getLog(OrderedExecutor.class);
+	
+	/* The pending count of a mailbox which has been removed, tasks can no longer be added to it */
+	private static final int RETIRED = -1;
+	
+	/* A task which holds its key until the stage it returns has completed */
+	private static class AsyncTask implements Runnable {
+		
+		private final Supplier<? extends CompletionStage<?>> task;
+		
+		private CompletionStage<?> stage;
+		
+		private AsyncTask(Supplier<? extends CompletionStage<?>> task) {
+			this.task = task;
+		}
+		
+		@Override
+		public void run() {
+			this.stage = this.task.get();
+		}
+	}
+	
+	private class Mailbox implements Runnable {
+		
+		private final Object key;
+		
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		
+		/* The amount of tasks which have been added but not yet executed */
+		private final AtomicInteger pending = new AtomicInteger();
+		
+		/* Only written by the thread which makes the mailbox non-empty, before it is scheduled */
+		private Executor executor;
+		
+		/* The thread which is executing the current task, cleared once the task has finished or been abandoned */
+		private final AtomicReference<Thread> runner = new AtomicReference<>();
+		
+		private Mailbox(Object key) {
+			this.key = key;
+		}
+		
+		/* Returns false if the mailbox has been retired and a new one has to be created */
+		private boolean offer(Executor executor, Runnable task) {
+			int count;
+			do {
+				count = this.pending.get();
+				if(count == RETIRED) {
+					return false;
+				}
+			}while(!this.pending.compareAndSet(count, count + 1));
+			
+			this.tasks.add(task);
+			
+			/* The task which makes the mailbox non-empty is responsible for scheduling it */
+			if(count == 0) {
+				this.executor = executor;
+				
+				if(!this.schedule()) {
+					LOG.warn("The executor rejected the tasks for {}, executing them on the current thread", this.key);
+					
+					this.run();
+				}
+			}
+			
+			return true;
+		}
+		
+		/* Returns false if the executor rejected it, in which case the caller has to execute the tasks some other way */
+		private boolean schedule() {
+			try {
+				this.executor.execute(this);
+				
+				return true;
+			}catch(RejectedExecutionException e) {
+				return false;
+			}
+		}
+		
+		private Runnable poll() {
+			Runnable task;
+			while((task = this.tasks.poll()) == null) {
+				/* The task has been counted but is still being added by the submitting thread */
+				Thread.onSpinWait();
+			}
+			
+			return task;
+		}
+		
+		/* Called once the current task has finished, returns false if there are no more tasks in which case the mailbox may have been retired */
+		private boolean finish() {
+			if(this.pending.decrementAndGet() == 0) {
+				/*
+				 * If this fails a task was just added, the thread which added it
+				 * saw an empty mailbox and has scheduled it again
+				 */
+				if(this.pending.compareAndSet(0, RETIRED)) {
+					OrderedExecutor.this.mailboxes.remove(this.key, this);
+				}
+				
+				return false;
+			}
+			
+			return true;
+		}
+		
+		/* Returns false if the stage has already completed, in which case the current thread continues with the remaining tasks */
+		private boolean suspend(CompletionStage<?> stage) {
+			/* Whichever of the current thread and the completion of the stage comes last continues with the remaining tasks */
+			AtomicBoolean handedOver = new AtomicBoolean();
+			stage.whenComplete((value, throwable) -> {
+				if(!handedOver.compareAndSet(false, true)) {
+					this.resume();
+				}
+			});
+			
+			return handedOver.compareAndSet(false, true);
+		}
+		
+		/* Continues with the remaining tasks after the current task has finished on a thread other than the one executing the mailbox */
+		private void resume() {
+			if(this.finish() && !this.schedule()) {
+				/* The resuming thread, such as a timeout thread or whichever thread completed the stage, should not be blocked by the tasks */
+				LOG.warn("The executor rejected the tasks for {}, executing them on the common pool", this.key);
+				
+				ForkJoinPool.commonPool().execute(this);
+			}
+		}
+		
+		@Override
+		public void run() {
+			long deadline = System.nanoTime() + OrderedExecutor.this.timeSlice;
+			
+			Thread thread = Thread.currentThread();
+			while(true) {
+				Runnable task = this.poll();
+				
+				this.runner.set(thread);
+				
+				CompletionStage<?> stage = null;
+				try {
+					task.run();
+					
+					if(task instanceof AsyncTask) {
+						stage = ((AsyncTask) task).stage;
+					}
+				}catch(Throwable e) {
+					LOG.error("Uncaught exception in ordered task for " + this.key, e);
+				}
+				
+				if(!this.runner.compareAndSet(thread, null)) {
+					/* The task was abandoned and the remaining tasks have already been handed over */
+					return;
+				}
+				
+				if(stage != null && this.suspend(stage)) {
+					/* The remaining tasks are executed once the stage has completed */
+					return;
+				}
+				
+				if(!this.finish()) {
+					return;
+				}
+				
+				if(System.nanoTime() - deadline >= 0) {
+					if(this.schedule()) {
+						return;
+					}
+					
+					LOG.warn("The executor rejected the tasks for {}, executing them on the current thread", this.key);
+					
+					deadline = System.nanoTime() + OrderedExecutor.this.timeSlice;
+				}
+			}
+		}
+	}
+	
+	private final ConcurrentHashMap<Object, Mailbox> mailboxes = new ConcurrentHashMap<>();
+	
+	private final Supplier<? extends Executor> executorSupplier;
+	
+	private volatile long timeSlice = TimeUnit.MILLISECONDS.toNanos(50);
+	
+	/**
+	 * @param executorSupplier the supplier of the default executor to run the tasks on, see {@link #execute(Object, Runnable)}
+	 */
+	public OrderedExecutor(@Nonnull Supplier<? extends Executor> executorSupplier) {
+		Checks.notNull(executorSupplier, "executorSupplier");
+		
+		this.executorSupplier = executorSupplier;
+	}
+	
+	/**
+	 * Execute a task after all the previously submitted tasks with the same key
+	 * 
+	 * @param key the key to order the task by, keys are compared with {@link Object#equals(Object)}
+	 * @param task the task to execute
+	 */
+	public void execute(@Nonnull Object key, @Nonnull Runnable task) {
+		this.execute(key, this.executorSupplier.get(), task);
+	}
+	
+	/**
+	 * Execute a task after all the previously submitted tasks with the same key
+	 * <br><br>
+	 * The executor is only used if the key is idle, otherwise the task is executed
+	 * after the previous tasks on the executor the key is already scheduled on
+	 * 
+	 * @param key the key to order the task by, keys are compared with {@link Object#equals(Object)}
+	 * @param executor the executor to schedule the key on if it is idle
+	 * @param task the task to execute
+	 */
+	public void execute(@Nonnull Object key, @Nonnull Executor executor, @Nonnull Runnable task) {
+		Checks.notNull(key, "key");
+		Checks.notNull(executor, "executor");
+		Checks.notNull(task, "task");
+		
+		while(true) {
+			Mailbox mailbox = this.mailboxes.computeIfAbsent(key, Mailbox::new);
+			if(mailbox.offer(executor, task)) {
+				return;
+			}
+			
+			/* The mailbox was retired but not yet removed */
+			this.mailboxes.remove(key, mailbox);
+		}
+	}
+	
+	/**
+	 * Execute an asynchronous task after all the previously submitted tasks with the same key, the key is held until the stage
+	 * returned by the task has completed rather than until the task returns. This can be used to order work which is handed off
+	 * to something else, the work is only handed off once it is its turn, instead of when it is submitted.
+	 * <br><br>
+	 * The executor is only used if the key is idle, otherwise the task is executed
+	 * after the previous tasks on the executor the key is already scheduled on
+	 * 
+	 * @param key the key to order the task by, keys are compared with {@link Object#equals(Object)}
+	 * @param executor the executor to schedule the key on if it is idle
+	 * @param task the task to execute, if it returns null, or throws, the key is released as soon as it returns
+	 */
+	public void executeAsync(@Nonnull Object key, @Nonnull Executor executor, @Nonnull Supplier<? extends CompletionStage<?>> task) {
+		Checks.notNull(task, "task");
+		
+		this.execute(key, executor, new AsyncTask(task));
+	}
+	
+	/**
+	 * Abandon the task which the provided thread is executing for the provided key, the tasks queued after it are
+	 * then executed without waiting for it to finish. This can be used to release a key which is held by a task that does not finish,
+	 * the abandoned task is not stopped by this.
+	 * <br><br>
+	 * The remaining tasks are never executed on the calling thread, if the executor rejects them they are executed on the
+	 * {@link ForkJoinPool#commonPool() common pool} instead.
+	 * 
+	 * @param key the key the task was executed with
+	 * @param thread the thread which is executing the task
+	 * 
+	 * @return whether or not the thread was executing a task for the provided key
+	 */
+	public boolean abandon(@Nonnull Object key, @Nonnull Thread thread) {
+		Checks.notNull(key, "key");
+		Checks.notNull(thread, "thread");
+		
+		Mailbox mailbox = this.mailboxes.get(key);
+		if(mailbox == null || !mailbox.runner.compareAndSet(thread, null)) {
+			return false;
+		}
+		
+		/* Take over from the thread, the same way as it would have continued had the task finished */
+		mailbox.resume();
+		
+		return true;
+	}
+	
+	/**
+	 * @param timeSlice the longest time a key may execute tasks before it is re-scheduled on the executor
+	 * @param unit the unit of the time slice
+	 * 
+	 * @return the {@link OrderedExecutor} instance, useful for chaining
+	 */
+	@Nonnull
+	public OrderedExecutor setTimeSlice(long timeSlice, @Nonnull TimeUnit unit) {
+		Checks.notNull(unit, "unit");
+		Checks.check(timeSlice >= 0, "timeSlice may not be negative");
+		
+		this.timeSlice = unit.toNanos(timeSlice);
+		
+		return this;
+	}
+	
+	/**
+	 * @return the longest time, in nanoseconds, a key may execute tasks before it is re-scheduled on the executor
+	 */
+	public long getTimeSlice() {
+		return this.timeSlice;
+	}
+	
+	/**
+	 * @return the amount of keys which currently have tasks queued or executing
+	 */
+	public int getActiveKeyCount() {
+		return this.mailboxes.size();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.jockie.bot.core.utility;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.jockie.bot.core.utility.StringUtility.QuoteCharacter;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * A compiled set of {@link QuoteCharacter QuoteCharacters} indexed by their start character, this makes finding
+ * out whether some content is quoted a single lookup rather than checking every quote character.
+ * <br><br>
+ * Start characters in the Latin-1 range, such as the regular double quote, are stored in a table
+ * indexed by the character while every other start character is stored in a map.
+ */
+public final class QuoteCharacterTable {
+	
+	private static final int TABLE_SIZE = 256;
+	
+	/**
+	 * The table of {@link StringUtility#DEFAULT_QUOTE_CHARACTERS}
+	 */
+	public static final QuoteCharacterTable DEFAULT = QuoteCharacterTable.compile(StringUtility.DEFAULT_QUOTE_CHARACTERS);
+	
+	/**
+	 * @param quoteCharacters the quote characters to compile, the order of these is kept for quote characters with the same start character
+	 * 
+	 * @return the compiled quote characters
+	 */
+	@Nonnull
+	public static QuoteCharacterTable compile(@Nonnull Collection<QuoteCharacter> quoteCharacters) {
+		return new QuoteCharacterTable(quoteCharacters);
+	}
+	
+	private final List<QuoteCharacter> quoteCharacters;
+	
+	@SuppressWarnings("unchecked")
+	private final List<QuoteCharacter>[] table = new List[TABLE_SIZE];
+	private final Map<Character, List<QuoteCharacter>> map = new HashMap<>();
+	
+	private QuoteCharacterTable(Collection<QuoteCharacter> quoteCharacters) {
+		Checks.noneNull(quoteCharacters, "quoteCharacters");
+		
+		this.quoteCharacters = List.copyOf(quoteCharacters);
+		
+		for(QuoteCharacter quote : this.quoteCharacters) {
+			List<QuoteCharacter> quotes = new ArrayList<>(this.get(quote.start));
+			quotes.add(quote);
+			
+			/* The lists are immutable so that they can be handed out without being copied */
+			if(quote.start < TABLE_SIZE) {
+				this.table[quote.start] = List.copyOf(quotes);
+			}else{
+				this.map.put(quote.start, List.copyOf(quotes));
+			}
+		}
+	}
+	
+	/**
+	 * @param start the character to get the quote characters for
+	 * 
+	 * @return an unmodifiable list of the quote characters which start with the provided character, this is usually at most one
+	 */
+	@Nonnull
+	public List<QuoteCharacter> get(char start) {
+		List<QuoteCharacter> quotes = start < TABLE_SIZE ? this.table[start] : this.map.get(start);
+		
+		return quotes != null ? quotes : List.of();
+	}
+	
+	/**
+	 * @param string the String to check
+	 * @param index the index to check
+	 * 
+	 * @return an unmodifiable list of the quote characters which start at the provided index of the String
+	 * 
+	 * @see #get(char)
+	 */
+	@Nonnull
+	public List<QuoteCharacter> get(@Nonnull String string, int index) {
+		return index < string.length() ? this.get(string.charAt(index)) : List.of();
+	}
+	
+	/**
+	 * @return the quote characters this was compiled from
+	 */
+	@Nonnull
+	public List<QuoteCharacter> getQuoteCharacters() {
+		return this.quoteCharacters;
+	}
+}
\ No newline at end of file
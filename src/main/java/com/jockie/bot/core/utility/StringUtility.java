@@ -221,18 +221,37 @@ public class StringUtility {
 	 */
 	@Nullable
 	public static String parseWrapped(@Nonnull String wrappedString, char wrapStart, char wrapEnd) {
-		if(wrappedString.length() > 0 && wrappedString.charAt(0) == wrapStart) {
-			int nextWrap = 0;
-			while((nextWrap = wrappedString.indexOf(wrapEnd, nextWrap + 1)) != -1 && wrappedString.charAt(nextWrap - 1) == '\\');
-			
-			if(nextWrap != -1) {
-				return wrappedString.substring(0, nextWrap + 1);
-			}
+		int nextWrap = StringUtility.indexOfWrapEnd(wrappedString, 0, wrapStart, wrapEnd);
+		if(nextWrap != -1) {
+			return wrappedString.substring(0, nextWrap + 1);
 		}
 		
 		return null;
 	}
 	
+	/**
+	 * Find the end of a wrapped String without copying it, this is the same as {@link #parseWrapped(String, char, char)}
+	 * but for a String which starts at the provided index
+	 * 
+	 * @param string the String to search
+	 * @param start the index the wrapped String starts at
+	 * @param wrapStart the start character which it is wrapped by
+	 * @param wrapEnd the end character which it is wrapped by
+	 * 
+	 * @return the index of the wrapEnd character which ends the wrapped String,
+	 * or -1 if the String does not have a wrapped String at the provided index
+	 */
+	public static int indexOfWrapEnd(@Nonnull String string, int start, char wrapStart, char wrapEnd) {
+		if(start < string.length() && string.charAt(start) == wrapStart) {
+			int nextWrap = start;
+			while((nextWrap = string.indexOf(wrapEnd, nextWrap + 1)) != -1 && string.charAt(nextWrap - 1) == '\\');
+			
+			return nextWrap;
+		}
+		
+		return -1;
+	}
+	
 	/**
 	 * Method used to convert a String to a map, for instance 
 	 * <br><b>color=#00FFFF name="a cyan role" permissions=8</b>
@@ -244,7 +263,7 @@ public class StringUtility {
 	 * @return the map containing the parsed values
 	 */
 	public static Map<String, String> asMap(@Nonnull String string) {
-		return StringUtility.asMap(string, DEFAULT_QUOTE_CHARACTERS);
+		return StringUtility.asMap(string, QuoteCharacterTable.DEFAULT);
 	}
 	
 	/**
@@ -260,7 +279,24 @@ public class StringUtility {
 	 */
 	@Nullable
 	public static Map<String, String> asMap(@Nonnull String string, Collection<QuoteCharacter> quoteCharacters) {
+		return StringUtility.asMap(string, QuoteCharacterTable.compile(quoteCharacters));
+	}
+	
+	/**
+	 * Method used to convert a String to a map, for instance 
+	 * <br><b>color=#00FFFF name="a cyan role" permissions=8</b>
+	 * <br>would be parsed to a map with all the values, like this
+	 * <br><b>{color="#00FFFF", name="a cyan role", permissions="8"}</b>
+	 * 
+	 * @param string the String to parse
+	 * @param quoteCharacters the compiled quote characters to handle
+	 * 
+	 * @return the map containing the parsed values
+	 */
+	@Nullable
+	public static Map<String, String> asMap(@Nonnull String string, @Nonnull QuoteCharacterTable quoteCharacters) {
 		Checks.notNull(string, "string");
+		Checks.notNull(quoteCharacters, "quoteCharacters");
 		
 		Map<String, String> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 		while(string.length() > 0) {
@@ -279,7 +315,7 @@ public class StringUtility {
 			string = string.trim();
 			
 			String quotedKey = null;
-			for(QuoteCharacter quote : quoteCharacters) {
+			for(QuoteCharacter quote : quoteCharacters.get(key, 0)) {
 				quotedKey = StringUtility.parseWrapped(key, quote.start, quote.end);
 				if(quotedKey != null) {
 					quotedKey = StringUtility.unwrap(quotedKey, quote.start, quote.end);
@@ -289,7 +325,7 @@ public class StringUtility {
 			}
 			
 			String value = null;
-			for(QuoteCharacter quote : quoteCharacters) {
+			for(QuoteCharacter quote : quoteCharacters.get(string, 0)) {
 				value = StringUtility.parseWrapped(string, quote.start, quote.end);
 				if(value != null) {
 					string = string.substring(value.length());
@@ -0,0 +1,124 @@
+package com.jockie.bot.core.utility;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+/**
+ * A read-only view of a range of a String, this is used to pass parts of the content of a message
+ * through the parsers without copying them, the range is only copied when {@link #toString()} is called.
+ */
+public final class StringView implements CharSequence {
+	
+	private final String string;
+	
+	private final int start;
+	private final int end;
+	
+	private String value;
+	
+	/**
+	 * @param string the String to view
+	 * @param start the start of the range, inclusive
+	 * @param end the end of the range, exclusive
+	 */
+	public StringView(@Nonnull String string, int start, int end) {
+		Checks.notNull(string, "string");
+		Objects.checkFromToIndex(start, end, string.length());
+		
+		this.string = string;
+		this.start = start;
+		this.end = end;
+	}
+	
+	/**
+	 * @param string the String to view
+	 * @param start the start of the range, inclusive
+	 */
+	public StringView(@Nonnull String string, int start) {
+		this(string, start, string.length());
+	}
+	
+	/**
+	 * @return the String this is a view of
+	 */
+	@Nonnull
+	public String getString() {
+		return this.string;
+	}
+	
+	/**
+	 * @return the start of the range in {@link #getString()}, inclusive
+	 */
+	public int getStart() {
+		return this.start;
+	}
+	
+	/**
+	 * @return the end of the range in {@link #getString()}, exclusive
+	 */
+	public int getEnd() {
+		return this.end;
+	}
+	
+	@Override
+	public int length() {
+		return this.end - this.start;
+	}
+	
+	@Override
+	public char charAt(int index) {
+		Objects.checkIndex(index, this.length());
+		
+		return this.string.charAt(this.start + index);
+	}
+	
+	/**
+	 * @param character the character to find
+	 * @param fromIndex the index to start searching from
+	 * 
+	 * @return the index of the first occurrence of the provided character in this view,
+	 * or -1 if it does not occur
+	 */
+	public int indexOf(char character, int fromIndex) {
+		int index = this.string.indexOf(character, this.start + Math.max(fromIndex, 0));
+		if(index == -1 || index >= this.end) {
+			return -1;
+		}
+		
+		return index - this.start;
+	}
+	
+	@Override
+	@Nonnull
+	public StringView subSequence(int start, int end) {
+		Objects.checkFromToIndex(start, end, this.length());
+		
+		return new StringView(this.string, this.start + start, this.start + end);
+	}
+	
+	/**
+	 * @param start the start of the view, inclusive
+	 * 
+	 * @return a view from the provided index to the end of this view
+	 */
+	@Nonnull
+	public StringView subSequence(int start) {
+		return this.subSequence(start, this.length());
+	}
+	
+	/**
+	 * @return a copy of the viewed range
+	 */
+	@Override
+	@Nonnull
+	public String toString() {
+		if(this.value == null) {
+			this.value = this.string.substring(this.start, this.end);
+		}
+		
+		return this.value;
+	}
+}
\ No newline at end of file
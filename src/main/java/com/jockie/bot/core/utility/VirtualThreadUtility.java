@@ -0,0 +1,64 @@
+package com.jockie.bot.core.utility;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+
+import net.dv8tion.jda.internal.utils.JDALogger;
+
+/**
+ * Virtual threads are only available on newer runtimes than the one this library is compiled for,
+ * so they are looked up reflectively and are simply not supported when they can not be found.
+ */
+public class VirtualThreadUtility {
+	
+	private static final Logger LOG = JDALogger.getLog(VirtualThreadUtility.class);
+	
+	/* Executors#newVirtualThreadPerTaskExecutor(), null if the runtime does not support virtual threads */
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
+	
+	static {
+		Method method = null;
+		try {
+			method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		}catch(NoSuchMethodException e) {
+			/* The runtime does not support virtual threads */
+		}
+		
+		NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = method;
+	}
+	
+	private VirtualThreadUtility() {}
+	
+	/**
+	 * @return whether or not the current runtime supports virtual threads
+	 */
+	public static boolean isSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+	
+	/**
+	 * @return a new executor which starts a virtual thread for every task,
+	 * or null if the current runtime does not support virtual threads
+	 */
+	@Nullable
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if(!VirtualThreadUtility.isSupported()) {
+			return null;
+		}
+		
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+		}catch(IllegalAccessException | InvocationTargetException e) {
+			/* Virtual threads may for instance still be a preview feature which has not been enabled */
+			LOG.warn("Unable to create a virtual thread executor", e);
+			
+			return null;
+		}
+	}
+}
\ No newline at end of file
@@ -10,6 +10,7 @@ import com.jockie.bot.core.command.impl.CommandStore;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import test.command.CommandRunTests;
+import test.command.CommandSchedulerTests;
 
 public class Tests {
 	
@@ -20,7 +21,7 @@ public class Tests {
 		}
 		
 		CommandListener listener = new CommandListener()
-			.addCommandStores(new CommandStore().addCommands(new CommandRunTests()))
+			.addCommandStores(new CommandStore().addCommands(new CommandRunTests(), new CommandSchedulerTests()))
 			.setDefaultPrefixes("!");
 		
 		JDABuilder.createDefault(token)
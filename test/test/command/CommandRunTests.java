@@ -4,12 +4,14 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.jockie.bot.core.command.impl.CommandEvent;
 import com.jockie.bot.core.command.impl.CommandImpl;
 import com.jockie.bot.core.command.impl.CommandListener;
 import com.jockie.bot.core.command.impl.CommandStore;
+import com.jockie.bot.core.command.parser.impl.CommandParserImpl;
 import com.jockie.bot.core.option.Option;
 import com.jockie.bot.core.utility.CommandUtility;
 
@@ -94,6 +96,13 @@ public class CommandRunTests extends CommandImpl {
 		.setDefaultPrefixes("!")
 		.setHelpFunction(null);
 	
+	/* The same commands with the optional arguments handled by the parser rather than by dummy commands, these should give the same results */
+	private CommandListener optionalArgumentsListener = new CommandListener()
+		.addCommandStores(new CommandStore().addCommands(ModuleTest.class))
+		.setCommandParser(new CommandParserImpl().setHandleOptionalArguments(true))
+		.setDefaultPrefixes("!")
+		.setHelpFunction(null);
+	
 	public void onCommand(CommandEvent event, @Option("failed") boolean failed, @Option("time") boolean time) throws Throwable {
 		int total = 0, successful = 0;
 		StringBuilder successfulBuilder = new StringBuilder(), unsuccessfulBuilder = new StringBuilder();
@@ -108,32 +117,38 @@ public class CommandRunTests extends CommandImpl {
 				continue;
 			}
 			
-			for(TestRun testRun : testRuns) {
-				String commandName = commandMethod.getName();
-				
-				Pair<Boolean, Double> status = CommandRunTests.doTest(this.listener, event.getMessage(), this.listener.getDefaultPrefixes().get(0), commandName, testRun);
-				
-				if(status.getLeft()) {
-					successfulBuilder.append("+ [Passed] ");
+			for(CommandListener listener : List.of(this.listener, this.optionalArgumentsListener)) {
+				for(TestRun testRun : testRuns) {
+					String commandName = commandMethod.getName();
 					
-					if(time) {
-						successfulBuilder.append("[" + String.format("%.2f", status.getRight()) + "ms] ");
-					}
-					
-					successfulBuilder.append(commandName + " " + testRun.argument() + "\n");
+					Pair<Boolean, Double> status = CommandRunTests.doTest(listener, event.getMessage(), listener.getDefaultPrefixes().get(0), commandName, testRun);
 					
-					successful += 1;
-				}else{
-					unsuccessfulBuilder.append("- [Failed] ");
+					if(listener == this.optionalArgumentsListener) {
+						commandName = "(parser) " + commandName;
+					}
 					
-					if(time) {
-						unsuccessfulBuilder.append("[" + String.format("%.2f", status.getRight()) + "ms] ");
+					if(status.getLeft()) {
+						successfulBuilder.append("+ [Passed] ");
+						
+						if(time) {
+							successfulBuilder.append("[" + String.format("%.2f", status.getRight()) + "ms] ");
+						}
+						
+						successfulBuilder.append(commandName + " " + testRun.argument() + "\n");
+						
+						successful += 1;
+					}else{
+						unsuccessfulBuilder.append("- [Failed] ");
+						
+						if(time) {
+							unsuccessfulBuilder.append("[" + String.format("%.2f", status.getRight()) + "ms] ");
+						}
+						
+						unsuccessfulBuilder.append(commandName + " " + testRun.argument() + "\n");
 					}
 					
-					unsuccessfulBuilder.append(commandName + " " + testRun.argument() + "\n");
+					total += 1;
 				}
-				
-				total += 1;
 			}
 		}
 		
@@ -0,0 +1,110 @@
+package test.command;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.jockie.bot.core.command.ICommand;
+import com.jockie.bot.core.command.ICommand.ArgumentParsingType;
+import com.jockie.bot.core.command.impl.CommandEvent;
+import com.jockie.bot.core.command.impl.CommandImpl;
+import com.jockie.bot.core.command.impl.CommandListener;
+import com.jockie.bot.core.command.scheduler.impl.CommandSchedulerImpl;
+
+import net.dv8tion.jda.api.entities.Message;
+
+public class CommandSchedulerTests extends CommandImpl {
+	
+	/* Blocks until the test releases it, ordered by the user it is executed for */
+	public static class BlockingCommand extends CommandImpl {
+		
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final CountDownLatch started = new CountDownLatch(1);
+		
+		private final List<String> executed = new CopyOnWriteArrayList<>();
+		
+		public BlockingCommand() {
+			super("block");
+			
+			super.setExecuteAsync(true);
+			super.setAsyncOrderingKey((event) -> event.getArguments()[0]);
+		}
+		
+		public void onCommand(CommandEvent event, String user) throws InterruptedException {
+			this.executed.add(user);
+			this.started.countDown();
+			
+			this.release.await(10, TimeUnit.SECONDS);
+		}
+	}
+	
+	/* Finishes straight away, ordered by the user it is executed for */
+	public static class QuickCommand extends CommandImpl {
+		
+		private final CountDownLatch executed = new CountDownLatch(1);
+		
+		public QuickCommand() {
+			super("quick");
+			
+			super.setExecuteAsync(true);
+			super.setAsyncOrderingKey((event) -> event.getArguments()[0]);
+		}
+		
+		public void onCommand(CommandEvent event, String user) {
+			this.executed.countDown();
+		}
+	}
+	
+	public CommandSchedulerTests() {
+		super("run scheduler tests");
+	}
+	
+	private static void queue(CommandListener listener, Message message, ICommand command, String user) {
+		Object[] arguments = { user };
+		
+		CommandEvent event = new CommandEvent(message, listener, command, arguments, new String[] { user }, "!",
+			command.getCommand(), null, ArgumentParsingType.POSITIONAL, "", System.nanoTime());
+		
+		listener.queueCommand(command, event, System.nanoTime(), arguments);
+	}
+	
+	/*
+	 * A user whose commands are waiting for each other, because of their ordering key, should not take up
+	 * the slots of the scheduler which the commands of other users need to be executed
+	 */
+	private static boolean testOrderedCommandsDoNotStarveOtherUsers(Message message) throws InterruptedException {
+		CommandListener listener = new CommandListener()
+			.setCommandScheduler(new CommandSchedulerImpl(2, 10, 10));
+		
+		BlockingCommand blocking = new BlockingCommand();
+		QuickCommand quick = new QuickCommand();
+		
+		CommandSchedulerTests.queue(listener, message, blocking, "first");
+		if(!blocking.started.await(5, TimeUnit.SECONDS)) {
+			return false;
+		}
+		
+		/* Waits for the first command of the user, it must not hold the second slot while doing so */
+		CommandSchedulerTests.queue(listener, message, blocking, "first");
+		CommandSchedulerTests.queue(listener, message, quick, "second");
+		
+		boolean unaffected = quick.executed.await(5, TimeUnit.SECONDS);
+		
+		blocking.release.countDown();
+		
+		/* Both commands of the first user should still have been executed, in order */
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while(blocking.executed.size() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		
+		return unaffected && blocking.executed.size() == 2;
+	}
+	
+	public void onCommand(CommandEvent event) throws InterruptedException {
+		boolean passed = CommandSchedulerTests.testOrderedCommandsDoNotStarveOtherUsers(event.getMessage());
+		
+		event.reply("```diff\n" + (passed ? "+ [Passed] " : "- [Failed] ") + "ordered commands do not starve other users```").queue();
+	}
+}
\ No newline at end of file
@@ -74,6 +74,57 @@ public class ModuleTest extends ModuleImpl {
 	public void testOptionalAndRequiredTwice(@Argument(nullDefault=true) String optional, @Argument String required,
 			@Argument(nullDefault=true) String secondOptional, @Argument String secondRequired) {}
 	
+	@Command
+	@TestRun(success=false)
+	@TestRun(success=false, argument="hello")
+	@TestRun(success=true, argument="hello hello2", result="[null, hello, hello2]")
+	@TestRun(success=true, argument="hello hello2 hello3", result="[hello, hello2, hello3]")
+	@TestRun(success=false, argument="hello hello2 hello3 hello4")
+	public void testOptionalFirstOfThree(@Argument(nullDefault=true) String optional, @Argument String required, @Argument String secondRequired) {}
+	
+	@Command
+	@TestRun(success=false)
+	@TestRun(success=false, argument="hello")
+	@TestRun(success=true, argument="hello hello2", result="[hello, null, hello2]")
+	@TestRun(success=true, argument="hello hello2 hello3", result="[hello, hello2, hello3]")
+	@TestRun(success=false, argument="hello hello2 hello3 hello4")
+	public void testOptionalMiddleOfThree(@Argument String required, @Argument(nullDefault=true) String optional, @Argument String secondRequired) {}
+	
+	@Command
+	@TestRun(success=false)
+	@TestRun(success=false, argument="hello")
+	@TestRun(success=true, argument="hello hello2", result="[hello, hello2, null]")
+	@TestRun(success=true, argument="hello hello2 hello3", result="[hello, hello2, hello3]")
+	@TestRun(success=false, argument="hello hello2 hello3 hello4")
+	public void testOptionalLastOfThree(@Argument String required, @Argument String secondRequired, @Argument(nullDefault=true) String optional) {}
+	
+	@Command
+	@TestRun(success=false)
+	@TestRun(success=true, argument="5", result="[null, 5]")
+	@TestRun(success=true, argument="hello", result="[null, hello]")
+	@TestRun(success=true, argument="5 hello", result="[5, hello]")
+	@TestRun(success=false, argument="hello 5")
+	public void testAmbiguousTypedOptional(@Argument(nullDefault=true) Integer number, @Argument String word) {}
+	
+	@Command
+	@TestRun(success=false)
+	@TestRun(success=true, argument="1", result="[null, 1, null]")
+	@TestRun(success=true, argument="1 2", result="[1, 2, null]")
+	@TestRun(success=true, argument="1 2 3", result="[1, 2, 3]")
+	@TestRun(success=false, argument="1 2 3 4")
+	@TestRun(success=false, argument="hello")
+	public void testAmbiguousOptionalNumbers(@Argument(nullDefault=true) Integer optional, @Argument Integer required, @Argument(nullDefault=true) Integer secondOptional) {}
+	
+	@Command
+	@TestRun(success=false)
+	@TestRun(success=true, argument="2", result="[null, null, 2]")
+	@TestRun(success=true, argument="1 2", result="[1, null, 2]")
+	@TestRun(success=true, argument="hello 2", result="[null, hello, 2]")
+	@TestRun(success=true, argument="1 hello 2", result="[1, hello, 2]")
+	@TestRun(success=false, argument="hello")
+	@TestRun(success=false, argument="1 hello")
+	public void testAmbiguousOptionalsBeforeRequired(@Argument(nullDefault=true) Integer number, @Argument(nullDefault=true) String word, @Argument Integer required) {}
+	
 	@Command
 	@TestRun(success=false)
 	@TestRun(success=true, argument="hello", result="[[hello]]")
@@ -0,0 +1,182 @@
+package test.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jockie.bot.core.index.GuildNameIndex;
+import com.jockie.bot.core.index.NameMap;
+import com.jockie.bot.core.index.NameMap.MatchType;
+
+public class NameMapTests {
+	
+	/* Exposes the best match resolution of the index, the ids are resolved to themselves */
+	private static class TestIndex extends GuildNameIndex {
+		
+		private TestIndex(int maxCandidates) {
+			super(true);
+			
+			super.setMaxCandidates(maxCandidates);
+		}
+		
+		private List<Long> resolveBest(NameMap names, String query) {
+			return this.resolveBest(names, query, (id) -> id);
+		}
+	}
+	
+	private static NameMap create(String... names) {
+		NameMap map = new NameMap(true);
+		for(int i = 0; i < names.length; i++) {
+			map.put(i + 1, names[i]);
+		}
+		
+		return map;
+	}
+	
+	private static List<String> names(List<NameMap.Match> matches) {
+		List<String> names = new ArrayList<>(matches.size());
+		for(NameMap.Match match : matches) {
+			names.add(match.getName());
+		}
+		
+		return names;
+	}
+	
+	private static boolean testFold() {
+		String unfolded = "already folded";
+		
+		return NameMap.fold("HeLLo World").equals("hello world")
+			/* A name which does not have to be folded is not copied */
+			&& NameMap.fold(unfolded) == unfolded
+			/* Characters which are only equal ignoring case through their upper case form, such as the long s and the dotted I */
+			&& NameMap.fold("ſ").equals(NameMap.fold("S"))
+			&& NameMap.fold("İ").equals(NameMap.fold("i"))
+			&& NameMap.fold("").isEmpty();
+	}
+	
+	private static boolean testDistance() {
+		return NameMap.distance("kitten", "sitting", 10) == 3
+			&& NameMap.distance("name", "name", 0) == 0
+			&& NameMap.distance("", "abc", 5) == 3
+			&& NameMap.distance("name", "nmae", 5) == 2
+			/* Anything further away than the max distance is reported as just past it */
+			&& NameMap.distance("abc", "xyz", 1) == 2
+			&& NameMap.distance("a", "abcdef", 2) == 3;
+	}
+	
+	/* Exact matches come first, then prefix, contains and similar matches, each ordered by their distance */
+	private static boolean testRanking() {
+		NameMap map = NameMapTests.create("Big John", "johm", "Johnson", "JOHN", "johnny", "unrelated");
+		
+		List<NameMap.Match> matches = map.search("John", 10, 1000);
+		if(!NameMapTests.names(matches).equals(List.of("john", "johnny", "johnson", "big john", "johm"))) {
+			return false;
+		}
+		
+		List<MatchType> types = new ArrayList<>();
+		for(NameMap.Match match : matches) {
+			types.add(match.getType());
+		}
+		
+		return types.equals(List.of(MatchType.EXACT, MatchType.PREFIX, MatchType.PREFIX, MatchType.CONTAINS, MatchType.SIMILAR))
+			&& matches.get(1).getDistance() == 2
+			&& matches.get(3).getDistance() == 4
+			&& matches.get(4).getDistance() == 1
+			&& matches.get(0).getIds().contains(4L)
+			/* The limit only keeps the best matches */
+			&& NameMapTests.names(map.search("John", 2, 1000)).equals(List.of("john", "johnny"));
+	}
+	
+	/* Queries shorter than 3 characters do not share any three character sequences with the names, they only find exact and prefix matches */
+	private static boolean testShortQuery() {
+		NameMap map = NameMapTests.create("john", "johnny", "big john", "jo", "oj");
+		
+		return NameMapTests.names(map.search("jo", 10, 1000)).equals(List.of("jo", "john", "johnny"))
+			&& map.search("oh", 10, 1000).isEmpty()
+			&& NameMapTests.names(map.search("J", 10, 1000)).equals(List.of("jo", "john", "johnny"));
+	}
+	
+	/* The search stops considering candidates once the max candidates has been reached */
+	private static boolean testMaxCandidates() {
+		NameMap map = new NameMap(true);
+		for(int i = 0; i < 10; i++) {
+			map.put(i, "name" + i);
+		}
+		
+		/* Contains matches are found through the three character sequences, each name is a candidate for every sequence it shares */
+		NameMap contains = NameMapTests.create("a name", "b name", "c name", "d name");
+		
+		return map.search("name", 100, 1000).size() == 10
+			&& map.search("name", 100, 3).size() == 3
+			&& map.search("name", 100, 1).size() == 1
+			&& contains.search("name", 100, 1000).size() == 4
+			&& contains.search("name", 100, 2).size() < 4;
+	}
+	
+	private static boolean testResolveBest() {
+		TestIndex index = new TestIndex(1000);
+		
+		NameMap map = NameMapTests.create("johnny", "johnson", "robert");
+		
+		return index.resolveBest(map, "johns").equals(List.of(2L))
+			&& index.resolveBest(map, "rob").equals(List.of(3L))
+			/* A similar match is used if it is the only match */
+			&& index.resolveBest(map, "roberd").equals(List.of(3L))
+			&& index.resolveBest(map, "nothing").isEmpty();
+	}
+	
+	/* The best match is only used if nothing else matches equally well */
+	private static boolean testResolveBestAmbiguous() {
+		TestIndex index = new TestIndex(1000);
+		
+		/* Both names are prefix matches with the same distance */
+		NameMap tied = NameMapTests.create("johna", "johnb");
+		
+		/* The best match is a single name which belongs to several entities */
+		NameMap shared = new NameMap(true);
+		shared.put(1, "John");
+		shared.put(2, "john");
+		shared.put(3, "johnny");
+		
+		/* A better match is not ambiguous even if the matches after it are tied */
+		NameMap better = NameMapTests.create("johna", "johnb", "john");
+		
+		return index.resolveBest(tied, "john").isEmpty()
+			&& index.resolveBest(shared, "john").isEmpty()
+			&& index.resolveBest(better, "john").equals(List.of(3L));
+	}
+	
+	private static boolean testResolveBestShortQuery() {
+		TestIndex index = new TestIndex(1000);
+		
+		NameMap map = NameMapTests.create("john", "big jo");
+		
+		/* The contains match is not found for a short query, leaving the prefix match as the only match */
+		return index.resolveBest(map, "jo").equals(List.of(1L))
+			&& index.resolveBest(map, "g j").equals(List.of(2L))
+			&& index.resolveBest(map, "oh").isEmpty();
+	}
+	
+	/* Names past the max candidates are not considered, which can make an otherwise ambiguous query resolve */
+	private static boolean testResolveBestMaxCandidates() {
+		NameMap map = NameMapTests.create("johna", "johnb");
+		
+		return new TestIndex(1000).resolveBest(map, "john").isEmpty()
+			&& new TestIndex(1).resolveBest(map, "john").equals(List.of(1L));
+	}
+	
+	private static void report(String name, boolean passed) {
+		System.out.println((passed ? "+ [Passed] " : "- [Failed] ") + name);
+	}
+	
+	public static void main(String[] args) {
+		NameMapTests.report("names are folded the same way as equalsIgnoreCase", NameMapTests.testFold());
+		NameMapTests.report("the edit distance stops at the max distance", NameMapTests.testDistance());
+		NameMapTests.report("matches are ranked by type and distance", NameMapTests.testRanking());
+		NameMapTests.report("short queries only find exact and prefix matches", NameMapTests.testShortQuery());
+		NameMapTests.report("searches stop at the max candidates", NameMapTests.testMaxCandidates());
+		NameMapTests.report("the best match is resolved", NameMapTests.testResolveBest());
+		NameMapTests.report("ambiguous best matches are rejected", NameMapTests.testResolveBestAmbiguous());
+		NameMapTests.report("short queries resolve through prefix matches", NameMapTests.testResolveBestShortQuery());
+		NameMapTests.report("the best match only considers the max candidates", NameMapTests.testResolveBestMaxCandidates());
+	}
+}
\ No newline at end of file
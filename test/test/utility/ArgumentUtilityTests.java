@@ -0,0 +1,121 @@
+package test.utility;
+
+import java.lang.reflect.Proxy;
+
+import com.jockie.bot.core.utility.ArgumentUtility;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message.MentionType;
+import net.dv8tion.jda.api.entities.emoji.CustomEmoji;
+
+public class ArgumentUtilityTests {
+	
+	/* A guild without any emojis, the emoji lookups then fall back to the emoji parsed from the mention */
+	private static final Guild EMPTY_GUILD = (Guild) Proxy.newProxyInstance(Guild.class.getClassLoader(), new Class<?>[] { Guild.class }, (proxy, method, args) -> null);
+	
+	private static boolean testParseSnowflake() {
+		return ArgumentUtility.parseSnowflake("123456789012345678") == 123456789012345678L
+			&& ArgumentUtility.parseSnowflake("0") == 0L
+			&& ArgumentUtility.parseSnowflake(String.valueOf(Long.MAX_VALUE)) == Long.MAX_VALUE
+			/* Leading zeros are allowed as long as there are no more than 20 digits */
+			&& ArgumentUtility.parseSnowflake("0" + Long.MAX_VALUE) == Long.MAX_VALUE
+			&& ArgumentUtility.parseSnowflake("") == -1L
+			&& ArgumentUtility.parseSnowflake("-1") == -1L
+			&& ArgumentUtility.parseSnowflake("+1") == -1L
+			&& ArgumentUtility.parseSnowflake("12a") == -1L
+			&& ArgumentUtility.parseSnowflake(" 123") == -1L;
+	}
+	
+	/* Ids which do not fit in a long, or which are longer than 20 digits, are not snowflakes */
+	private static boolean testParseSnowflakeOverflow() {
+		return ArgumentUtility.parseSnowflake("9223372036854775808") == -1L
+			&& ArgumentUtility.parseSnowflake("99999999999999999999") == -1L
+			&& ArgumentUtility.parseSnowflake("000000000000000000001") == -1L
+			&& ArgumentUtility.parseSnowflake("123456789012345678901234567890") == -1L;
+	}
+	
+	private static boolean testFindMentionId() {
+		return ArgumentUtility.findMentionId("<@123>", MentionType.USER) == 123L
+			&& ArgumentUtility.findMentionId("<@!123>", MentionType.USER) == 123L
+			&& ArgumentUtility.findMentionId("<@&123>", MentionType.ROLE) == 123L
+			&& ArgumentUtility.findMentionId("<#123>", MentionType.CHANNEL) == 123L
+			/* The mention has to be of the requested type */
+			&& ArgumentUtility.findMentionId("<@&123>", MentionType.USER) == -1L
+			&& ArgumentUtility.findMentionId("<#123>", MentionType.USER) == -1L
+			&& ArgumentUtility.findMentionId("<@123>", MentionType.ROLE) == -1L
+			&& ArgumentUtility.findMentionId("<@!123>", MentionType.CHANNEL) == -1L;
+	}
+	
+	private static boolean testFindEmbeddedMention() {
+		return ArgumentUtility.findMentionId("hello <@123> there", MentionType.USER) == 123L
+			&& ArgumentUtility.findMentionId("<@1> and <@2>", MentionType.USER) == 1L
+			&& ArgumentUtility.findMentionId("<#1> and <@&2>", MentionType.ROLE) == 2L
+			/* A malformed mention does not stop the search for a later mention */
+			&& ArgumentUtility.findMentionId("<@12 <@34>", MentionType.USER) == 34L
+			&& ArgumentUtility.findMentionId("<<@34>>", MentionType.USER) == 34L
+			&& ArgumentUtility.findMentionId("<@99999999999999999999> <@5>", MentionType.USER) == 5L;
+	}
+	
+	private static boolean testFindMalformedMention() {
+		String[] values = { "", "<", "<@", "<@!", "<@&", "<@123", "<@>", "<@!>", "<@ 123>", "<@12a>", "@123>", "<@-123>", "<@99999999999999999999>", "<@000000000000000000001>" };
+		for(String value : values) {
+			if(ArgumentUtility.findMentionId(value, MentionType.USER) != -1L) {
+				return false;
+			}
+		}
+		
+		return ArgumentUtility.findMentionId("<@&", MentionType.ROLE) == -1L
+			&& ArgumentUtility.findMentionId("<@", MentionType.ROLE) == -1L
+			&& ArgumentUtility.findMentionId("<#", MentionType.CHANNEL) == -1L
+			&& ArgumentUtility.findMentionId("<#>", MentionType.CHANNEL) == -1L;
+	}
+	
+	private static boolean testParseIdOrMention() {
+		return ArgumentUtility.parseIdOrMention("123", MentionType.USER) == 123L
+			&& ArgumentUtility.parseIdOrMention("<@123>", MentionType.USER) == 123L
+			&& ArgumentUtility.parseIdOrMention("<#123>", MentionType.USER) == -1L
+			&& ArgumentUtility.parseIdOrMention("abc", MentionType.USER) == -1L;
+	}
+	
+	private static boolean isEmoji(String value, String name, long id, boolean animated) {
+		CustomEmoji emoji = ArgumentUtility.getEmojiById(EMPTY_GUILD, value);
+		
+		return emoji != null && emoji.getName().equals(name) && emoji.getIdLong() == id && emoji.isAnimated() == animated;
+	}
+	
+	private static boolean testMatchEmoji() {
+		return ArgumentUtilityTests.isEmoji("<:name:123>", "name", 123L, false)
+			&& ArgumentUtilityTests.isEmoji("<a:name:123>", "name", 123L, true)
+			&& ArgumentUtilityTests.isEmoji("<:a:123>", "a", 123L, false)
+			&& ArgumentUtilityTests.isEmoji("<a:a_1:123>", "a_1", 123L, true);
+	}
+	
+	/* The entire value has to be an emoji mention */
+	private static boolean testMatchMalformedEmoji() {
+		String[] values = { "", "<>", "<::>", "<:name:>", "<::123>", "<a::123>", "<:na-me:123>", "<:name:123", ":name:123>", "<b:name:123>",
+			"<:name:12a>", "<:name 123>", "<:name:123> ", "hi <:name:123>", "<:name:99999999999999999999>", "<:name:000000000000000000001>" };
+		
+		for(String value : values) {
+			if(ArgumentUtility.getEmojiById(EMPTY_GUILD, value) != null) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private static void report(String name, boolean passed) {
+		System.out.println((passed ? "+ [Passed] " : "- [Failed] ") + name);
+	}
+	
+	public static void main(String[] args) {
+		ArgumentUtilityTests.report("snowflakes are parsed", ArgumentUtilityTests.testParseSnowflake());
+		ArgumentUtilityTests.report("snowflakes which overflow are rejected", ArgumentUtilityTests.testParseSnowflakeOverflow());
+		ArgumentUtilityTests.report("mentions are found by type", ArgumentUtilityTests.testFindMentionId());
+		ArgumentUtilityTests.report("mentions embedded in text are found", ArgumentUtilityTests.testFindEmbeddedMention());
+		ArgumentUtilityTests.report("malformed and truncated mentions are rejected", ArgumentUtilityTests.testFindMalformedMention());
+		ArgumentUtilityTests.report("ids and mentions are parsed", ArgumentUtilityTests.testParseIdOrMention());
+		ArgumentUtilityTests.report("emoji mentions are matched", ArgumentUtilityTests.testMatchEmoji());
+		ArgumentUtilityTests.report("malformed emoji mentions are rejected", ArgumentUtilityTests.testMatchMalformedEmoji());
+	}
+}
\ No newline at end of file
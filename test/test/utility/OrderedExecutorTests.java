@@ -0,0 +1,260 @@
+package test.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+import com.jockie.bot.core.utility.OrderedExecutor;
+
+public class OrderedExecutorTests {
+	
+	private static boolean await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while(!condition.getAsBoolean()) {
+			if(System.nanoTime() - deadline >= 0) {
+				return false;
+			}
+			
+			Thread.sleep(1);
+		}
+		
+		return true;
+	}
+	
+	private static Thread[] start(int threads, IntConsumer task) {
+		Thread[] started = new Thread[threads];
+		for(int i = 0; i < threads; i++) {
+			int index = i;
+			
+			started[i] = new Thread(() -> task.accept(index));
+			started[i].start();
+		}
+		
+		return started;
+	}
+	
+	private static void join(Thread[] threads) throws InterruptedException {
+		for(Thread thread : threads) {
+			thread.join();
+		}
+	}
+	
+	/* The tasks of a key are executed one at a time and in the order they were submitted, even when submitted from several threads */
+	private static boolean testOrderingUnderConcurrentSubmits(ExecutorService executor) throws InterruptedException {
+		OrderedExecutor orderedExecutor = new OrderedExecutor(() -> executor);
+		
+		int keys = 16, submitters = 4, tasks = 2000;
+		
+		/* The last task executed for each key and submitter, a task should always follow the previous task of its submitter */
+		int[][] last = new int[keys][submitters];
+		AtomicInteger[] running = new AtomicInteger[keys];
+		for(int i = 0; i < keys; i++) {
+			running[i] = new AtomicInteger();
+		}
+		
+		AtomicInteger violations = new AtomicInteger(), executed = new AtomicInteger();
+		
+		Thread[] threads = OrderedExecutorTests.start(submitters, (submitter) -> {
+			for(int i = 1; i <= tasks; i++) {
+				for(int key = 0; key < keys; key++) {
+					int task = i, index = key;
+					
+					orderedExecutor.execute(index, () -> {
+						if(running[index].incrementAndGet() != 1 || last[index][submitter] != task - 1) {
+							violations.incrementAndGet();
+						}
+						
+						last[index][submitter] = task;
+						
+						running[index].decrementAndGet();
+						executed.incrementAndGet();
+					});
+				}
+			}
+		});
+		
+		OrderedExecutorTests.join(threads);
+		
+		boolean completed = OrderedExecutorTests.await(() -> executed.get() == keys * submitters * tasks && orderedExecutor.getActiveKeyCount() == 0);
+		
+		return completed && violations.get() == 0;
+	}
+	
+	/* Keys which keep going idle have their mailbox retired and re-created, no task should be lost or executed out of order because of it */
+	private static boolean testRetireAndRecreate(ExecutorService executor) throws InterruptedException {
+		OrderedExecutor orderedExecutor = new OrderedExecutor(() -> executor);
+		
+		int submitters = 8, tasks = 5000;
+		
+		AtomicIntegerArray last = new AtomicIntegerArray(submitters);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger violations = new AtomicInteger(), executed = new AtomicInteger();
+		
+		/* Every submitter uses the same key, waiting for it to go idle every now and then so that the mailbox is retired */
+		Thread[] threads = OrderedExecutorTests.start(submitters, (submitter) -> {
+			for(int i = 1; i <= tasks; i++) {
+				int task = i;
+				
+				orderedExecutor.execute("key", () -> {
+					if(running.incrementAndGet() != 1 || last.get(submitter) != task - 1) {
+						violations.incrementAndGet();
+					}
+					
+					last.set(submitter, task);
+					
+					running.decrementAndGet();
+					executed.incrementAndGet();
+				});
+				
+				if(task % (submitter + 2) == 0) {
+					while(last.get(submitter) != task && violations.get() == 0) {
+						Thread.onSpinWait();
+					}
+				}
+			}
+		});
+		
+		OrderedExecutorTests.join(threads);
+		
+		boolean completed = OrderedExecutorTests.await(() -> executed.get() == submitters * tasks && orderedExecutor.getActiveKeyCount() == 0);
+		
+		return completed && violations.get() == 0;
+	}
+	
+	/* Tasks rejected by the executor are still executed, in order, and a task which is abandoned does not hand its work to the abandoning thread */
+	private static boolean testRejectionFallback(ExecutorService executor) throws InterruptedException {
+		AtomicInteger calls = new AtomicInteger();
+		
+		/* Rejects every other attempt to schedule a key */
+		Executor rejecting = (task) -> {
+			if(calls.incrementAndGet() % 2 == 0) {
+				throw new RejectedExecutionException();
+			}
+			
+			executor.execute(task);
+		};
+		
+		OrderedExecutor orderedExecutor = new OrderedExecutor(() -> rejecting);
+		
+		List<Integer> order = new CopyOnWriteArrayList<>();
+		for(int i = 0; i < 100; i++) {
+			int task = i;
+			
+			orderedExecutor.execute("key", () -> order.add(task));
+		}
+		
+		if(!OrderedExecutorTests.await(() -> order.size() == 100 && orderedExecutor.getActiveKeyCount() == 0)) {
+			return false;
+		}
+		
+		for(int i = 0; i < order.size(); i++) {
+			if(order.get(i) != i) {
+				return false;
+			}
+		}
+		
+		/* Once the stuck task is abandoned the executor rejects the rest, these should not be executed by the thread abandoning it */
+		OrderedExecutor alwaysRejecting = new OrderedExecutor(() -> (task) -> {
+			throw new RejectedExecutionException();
+		});
+		
+		CountDownLatch release = new CountDownLatch(1);
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		
+		Thread stuck = new Thread(() -> alwaysRejecting.execute("key", () -> {
+			threads.add(Thread.currentThread());
+			
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			}catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		
+		stuck.start();
+		
+		if(!OrderedExecutorTests.await(() -> threads.size() == 1)) {
+			return false;
+		}
+		
+		alwaysRejecting.execute("key", () -> threads.add(Thread.currentThread()));
+		
+		boolean abandoned = alwaysRejecting.abandon("key", stuck);
+		boolean handedOver = OrderedExecutorTests.await(() -> threads.size() == 2);
+		
+		release.countDown();
+		stuck.join();
+		
+		return abandoned && handedOver && threads.get(1) != Thread.currentThread() && threads.get(1) != stuck;
+	}
+	
+	/* A task which throws, or which stage fails, does not stop the tasks after it nor the tasks of other keys */
+	private static boolean testExceptionIsolation(ExecutorService executor) throws InterruptedException {
+		OrderedExecutor orderedExecutor = new OrderedExecutor(() -> executor);
+		
+		List<String> executed = new CopyOnWriteArrayList<>();
+		
+		orderedExecutor.execute("first", () -> {
+			executed.add("first 1");
+			
+			throw new IllegalStateException("Expected exception");
+		});
+		
+		orderedExecutor.execute("first", () -> executed.add("first 2"));
+		
+		orderedExecutor.executeAsync("first", executor, () -> {
+			executed.add("first 3");
+			
+			return CompletableFuture.failedFuture(new IllegalStateException("Expected exception"));
+		});
+		
+		orderedExecutor.executeAsync("first", executor, () -> {
+			executed.add("first 4");
+			
+			throw new IllegalStateException("Expected exception");
+		});
+		
+		orderedExecutor.execute("first", () -> executed.add("first 5"));
+		orderedExecutor.execute("second", () -> executed.add("second 1"));
+		
+		if(!OrderedExecutorTests.await(() -> executed.size() == 6 && orderedExecutor.getActiveKeyCount() == 0)) {
+			return false;
+		}
+		
+		List<String> first = new ArrayList<>();
+		for(String task : executed) {
+			if(task.startsWith("first")) {
+				first.add(task);
+			}
+		}
+		
+		return first.equals(List.of("first 1", "first 2", "first 3", "first 4", "first 5")) && executed.contains("second 1");
+	}
+	
+	private static void report(String name, boolean passed) {
+		System.out.println((passed ? "+ [Passed] " : "- [Failed] ") + name);
+	}
+	
+	public static void main(String[] args) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			OrderedExecutorTests.report("tasks are ordered per key under concurrent submits", OrderedExecutorTests.testOrderingUnderConcurrentSubmits(executor));
+			OrderedExecutorTests.report("no tasks are lost when keys are retired and re-created", OrderedExecutorTests.testRetireAndRecreate(executor));
+			OrderedExecutorTests.report("rejected tasks are still executed, in order", OrderedExecutorTests.testRejectionFallback(executor));
+			OrderedExecutorTests.report("exceptions do not affect the tasks after them", OrderedExecutorTests.testExceptionIsolation(executor));
+		}finally{
+			executor.shutdown();
+		}
+	}
+}
\ No newline at end of file